@@ -0,0 +1,39 @@
+package com.audition.common.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of parsing one path id, valid or not, with the original implementation ({@code legacy}: trim, then
+ * Integer.parseInt with NumberFormatException for invalid input) next to {@link IdParser}. Run with the GC profiler,
+ * {@code ./gradlew jmh -Pjmh.includes=IdParserBenchmark -Pjmh.profilers=gc}: gc.alloc.rate.norm is 0 B/op for every
+ * input to {@code parse}, while {@code legacy} allocates the exception, and the trimmed copy for padded input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdParserBenchmark {
+
+    @Param({"7", "2147483647", " 42 ", "abc", "12a", "-1", "99999999999"})
+    private String input;
+
+    @Benchmark
+    public int parse() {
+        return IdParser.parse(input);
+    }
+
+    @Benchmark
+    public int legacy() {
+        try {
+            return Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            return IdParser.INVALID;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.audition.configuration;
+
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.brave.bridge.BraveBaggageManager;
+import io.micrometer.tracing.brave.bridge.BraveCurrentTraceContext;
+import io.micrometer.tracing.brave.bridge.BraveTracer;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-request cost of the inbound span plus one upstream child span, for each sampling mode. {@code none} is the
+ * baseline with tracing disabled; the difference to it is the tracing overhead a request pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingOverheadBenchmark {
+
+    @Param({"none", "always", "probability-0.1", "rate-limited-10", "tail-rate-limited-10"})
+    private String mode;
+
+    private final LongAdder exportedSpans = new LongAdder();
+    private Tracing tracing;
+    private ObservationRegistry registry;
+
+    @Setup(Level.Trial)
+    public void startTracing() {
+        if ("none".equals(mode)) {
+            registry = ObservationRegistry.NOOP;
+            return;
+        }
+        final Tracing.Builder builder = Tracing.newBuilder();
+        switch (mode) {
+            case "always" -> builder.sampler(Sampler.ALWAYS_SAMPLE);
+            case "probability-0.1" -> builder.sampler(Sampler.create(0.1f));
+            case "rate-limited-10" -> builder.sampler(RateLimitingSampler.create(10));
+            case "tail-rate-limited-10" -> builder.sampler(Sampler.ALWAYS_SAMPLE)
+                .addSpanHandler(new TailSamplingSpanHandler(RateLimitingSampler.create(10), Duration.ofMillis(500),
+                    10_000));
+            default -> throw new IllegalArgumentException(mode);
+        }
+        // Stands in for a span exporter so every mode pays the same cost per exported span.
+        tracing = builder.addSpanHandler(new SpanHandler() {
+            @Override
+            public boolean end(final TraceContext context, final MutableSpan span, final Cause cause) {
+                exportedSpans.increment();
+                return true;
+            }
+        }).build();
+        final BraveTracer tracer = new BraveTracer(tracing.tracer(),
+            new BraveCurrentTraceContext(tracing.currentTraceContext()), new BraveBaggageManager());
+        registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopTracing() {
+        if (tracing != null) {
+            tracing.close();
+        }
+    }
+
+    @Benchmark
+    public void request(final Blackhole blackhole) {
+        Observation.createNotStarted("http.server.requests", registry)
+            .lowCardinalityKeyValue("uri", "/posts/{id}")
+            .observe(() -> Observation.createNotStarted("audition.upstream.request", registry)
+                .lowCardinalityKeyValue("uri.template", "/posts/{id}")
+                .lowCardinalityKeyValue("http.status_code", "200")
+                .observe(() -> blackhole.consume(mode)));
+    }
+}
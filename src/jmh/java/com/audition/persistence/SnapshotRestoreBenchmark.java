@@ -0,0 +1,85 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Time from a snapshot file on disk to a populated in-memory store, i.e. what a new instance spends before it can
+ * serve reads locally. The upstream dataset is 100 posts and 500 comments; the larger size shows how restore scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotRestoreBenchmark {
+
+    private static final int COMMENTS_PER_POST = 5;
+
+    @Param({"500", "100000"})
+    private int comments;
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        final int posts = comments / COMMENTS_PER_POST;
+        final List<AuditionPost> postList = new ArrayList<>(posts);
+        for (int id = 1; id <= posts; id++) {
+            postList.add(post(id));
+        }
+        final List<AuditionComment> commentList = new ArrayList<>(comments);
+        for (int id = 1; id <= comments; id++) {
+            commentList.add(comment(id));
+        }
+        path = Files.createTempFile("audition", ".snapshot");
+        SnapshotFile.write(path, postList, commentList);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public InMemoryAuditionStore restore() throws IOException {
+        final SnapshotFile.Snapshot snapshot = SnapshotFile.read(path);
+        final InMemoryAuditionStore store = new InMemoryAuditionStore();
+        store.upsertComments(snapshot.comments());
+        store.upsertPosts(snapshot.posts());
+        return store;
+    }
+
+    private static AuditionPost post(final int id) {
+        final AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId((id - 1) / 10 + 1);
+        post.setTitle("sunt aut facere repellat provident occaecati excepturi optio reprehenderit " + id);
+        post.setBody("quia et suscipit suscipit recusandae consequuntur expedita et cum reprehenderit " + id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id) {
+        final AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId((id - 1) / COMMENTS_PER_POST + 1);
+        comment.setName("id labore ex et quam laborum " + id);
+        comment.setEmail("Eliseo@gardner.biz");
+        comment.setBody("laudantium enim quasi est quidem magnam voluptate ipsam eos tempora quo " + id);
+        return comment;
+    }
+}
@@ -0,0 +1,135 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Indexed read latency of the JPA store on an in-memory H2 database holding {@code comments} comments spread over
+ * {@code comments / commentsPerPost} posts and ten posts per user. Loading the dataset through the store's batch
+ * upsert is part of the trial setup and is logged, since it doubles as a measure of sync throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreQueryBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StoreQueryBenchmark.class);
+    private static final int POSTS_PER_USER = 10;
+    private static final int LOAD_CHUNK = 10_000;
+
+    @Param("1000000")
+    private int comments;
+
+    @Param("100")
+    private int commentsPerPost;
+
+    private ConfigurableApplicationContext context;
+    private JpaAuditionStore store;
+    private int posts;
+
+    @Setup(Level.Trial)
+    public void loadStore() {
+        context = new SpringApplicationBuilder(StoreBenchmarkConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=persistence",
+                "--spring.autoconfigure.exclude=",
+                "--spring.datasource.url=jdbc:h2:mem:store-benchmark;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN",
+                "--logging.level.com.audition=INFO");
+        store = context.getBean(JpaAuditionStore.class);
+        posts = Math.max(1, comments / commentsPerPost);
+
+        final long start = System.nanoTime();
+        final List<AuditionPost> postChunk = new ArrayList<>(LOAD_CHUNK);
+        for (int id = 1; id <= posts; id++) {
+            postChunk.add(post(id));
+            if (postChunk.size() == LOAD_CHUNK || id == posts) {
+                store.upsertPosts(postChunk);
+                postChunk.clear();
+            }
+        }
+        final List<AuditionComment> commentChunk = new ArrayList<>(LOAD_CHUNK);
+        for (int id = 1; id <= comments; id++) {
+            commentChunk.add(comment(id));
+            if (commentChunk.size() == LOAD_CHUNK || id == comments) {
+                store.upsertComments(commentChunk);
+                commentChunk.clear();
+            }
+        }
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Loaded {} posts and {} comments in {} ms", posts, comments,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeStore() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AuditionComment> commentsByPostId() {
+        return store.findCommentsByPostId(ThreadLocalRandom.current().nextInt(1, posts + 1));
+    }
+
+    @Benchmark
+    public List<AuditionPost> postsByUserId() {
+        return store.findPostsByUserId(ThreadLocalRandom.current().nextInt(1, posts / POSTS_PER_USER + 2));
+    }
+
+    @Benchmark
+    public Object postById() {
+        return store.findPost(ThreadLocalRandom.current().nextInt(1, posts + 1));
+    }
+
+    private AuditionPost post(final int id) {
+        final AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId((id - 1) / POSTS_PER_USER + 1);
+        post.setTitle("post title " + id);
+        post.setBody("post body " + id);
+        return post;
+    }
+
+    private AuditionComment comment(final int id) {
+        final AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId((id - 1) % posts + 1);
+        comment.setName("comment " + id);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("comment body " + id);
+        return comment;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = PostEntity.class)
+    @EnableJpaRepositories(basePackageClasses = PostEntity.class)
+    @Import(JpaAuditionStore.class)
+    static class StoreBenchmarkConfiguration {
+    }
+}
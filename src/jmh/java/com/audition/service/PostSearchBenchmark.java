@@ -0,0 +1,66 @@
+package com.audition.service;
+
+import com.audition.model.AuditionPost;
+import com.audition.persistence.InMemoryAuditionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Latency of one search page against the inverted index. A common term matches every post, a rare one a handful;
+ * the upstream dataset is 100 posts and the larger size shows how ranking scales with the number of hits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostSearchBenchmark {
+
+    private static final String[] WORDS = {"sunt", "facere", "repellat", "provident", "occaecati", "excepturi",
+        "optio", "reprehenderit", "quia", "suscipit", "recusandae", "consequuntur", "expedita", "molestias"};
+
+    @Param({"100", "10000"})
+    private int posts;
+
+    private PostSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        final List<AuditionPost> postList = new ArrayList<>(posts);
+        for (int id = 1; id <= posts; id++) {
+            postList.add(post(id));
+        }
+        final InMemoryAuditionStore store = new InMemoryAuditionStore();
+        store.upsertPosts(postList);
+        index = new PostSearchIndex(store, new SimpleMeterRegistry());
+        index.search("warm", 0, 1);
+    }
+
+    @Benchmark
+    public PostSearchIndex.Hits commonTerm() {
+        return index.search("et", 0, 10);
+    }
+
+    @Benchmark
+    public PostSearchIndex.Hits rareTerms() {
+        return index.search("post7 repellat", 0, 10);
+    }
+
+    private static AuditionPost post(final int id) {
+        final AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId((id - 1) / 10 + 1);
+        post.setTitle(WORDS[id % WORDS.length] + " " + WORDS[id * 7 % WORDS.length] + " post" + id);
+        post.setBody("quia et suscipit " + WORDS[id * 3 % WORDS.length] + " et " + WORDS[id * 5 % WORDS.length]);
+        return post;
+    }
+}
@@ -0,0 +1,156 @@
+package com.audition.web;
+
+import com.audition.AuditionApplication;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionStore;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/**
+ * Load test of the /posts endpoints over loopback: the application runs with the lean and http2 profiles on the
+ * upstream's dataset size (100 posts, 500 comments), and 64 client threads share one JDK HttpClient. With HTTP_1_1 the
+ * client opens a connection per concurrent request; with HTTP_2 all requests are multiplexed over a single h2c
+ * connection. Responses are gzip-compressed as for a real client. Rate and concurrency limits are off, so the numbers
+ * compare the transports rather than admission control. Loopback hides the latency that makes connection setup and
+ * head-of-line blocking expensive, so run it against a remote host to see the full effect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class Http2ThroughputBenchmark {
+
+    private static final int POST_COUNT = 100;
+    private static final int COMMENTS_PER_POST = 5;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    private HttpClient.Version version;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        context = new SpringApplicationBuilder(AuditionApplication.class)
+            .initializers(BenchmarkExcludeFilter::register)
+            .run("--spring.profiles.active=lean,http2",
+                "--server.port=0",
+                "--audition.sync.enabled=false",
+                "--audition.snapshot.enabled=false",
+                "--audition.warm-up.enabled=false",
+                "--audition.rate-limit.enabled=false",
+                "--audition.concurrency.enabled=false",
+                "--logging.level.root=WARN");
+        final AuditionStore store = context.getBean(AuditionStore.class);
+        store.upsertPosts(IntStream.rangeClosed(1, POST_COUNT).mapToObj(Http2ThroughputBenchmark::post).toList());
+        store.upsertComments(IntStream.rangeClosed(1, POST_COUNT * COMMENTS_PER_POST)
+            .mapToObj(id -> comment(id, (id - 1) / COMMENTS_PER_POST + 1))
+            .toList());
+        final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(version).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    @Benchmark
+    public int posts() throws IOException, InterruptedException {
+        return get("/posts");
+    }
+
+    @Benchmark
+    public int postById() throws IOException, InterruptedException {
+        return get("/posts/" + ThreadLocalRandom.current().nextInt(1, POST_COUNT + 1));
+    }
+
+    @Benchmark
+    public int postWithComments() throws IOException, InterruptedException {
+        return get("/posts/" + ThreadLocalRandom.current().nextInt(1, POST_COUNT + 1) + "/comments");
+    }
+
+    private int get(final String path) throws IOException, InterruptedException {
+        final HttpResponse<byte[]> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Accept-Encoding", "gzip").build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 || response.version() != version) {
+            throw new IllegalStateException(path + " answered " + response.statusCode() + " over "
+                + response.version());
+        }
+        return response.body().length;
+    }
+
+    private static AuditionPost post(final int id) {
+        final AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId((id - 1) / 10 + 1);
+        post.setTitle("sunt aut facere repellat provident occaecati excepturi optio reprehenderit " + id);
+        post.setBody("quia et suscipit\nsuscipit recusandae consequuntur expedita et cum\nreprehenderit molestiae ut ut "
+            + "quas totam\nnostrum rerum est autem sunt rem eveniet architecto");
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        final AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName("id labore ex et quam laborum " + id);
+        comment.setEmail("Eliseo@gardner.biz");
+        comment.setBody("laudantium enim quasi est quidem magnam voluptate ipsam eos\ntempora quo necessitatibus\n"
+            + "dolor quam autem quasi\nreiciendis et nam sapiente accusantium");
+        return comment;
+    }
+
+    /**
+     * Keeps the application's component scan away from the other benchmarks' configuration classes.
+     */
+    private static final class BenchmarkExcludeFilter extends TypeExcludeFilter {
+
+        static void register(final ConfigurableApplicationContext context) {
+            context.getBeanFactory().registerSingleton(BenchmarkExcludeFilter.class.getName(),
+                new BenchmarkExcludeFilter());
+        }
+
+        @Override
+        public boolean match(final MetadataReader metadataReader, final MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getClassMetadata().getClassName().contains("Benchmark");
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof BenchmarkExcludeFilter;
+        }
+
+        @Override
+        public int hashCode() {
+            return BenchmarkExcludeFilter.class.hashCode();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.audition.web.advice;
+
+import com.audition.common.exception.StacklessSystemException;
+import com.audition.common.exception.SystemException;
+import com.audition.common.util.IdParser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+
+/**
+ * Throughput of the two most common error paths, from raw input to the ProblemDetail body, with the original
+ * implementation ({@code legacy*}: NumberFormatException, stack-trace capturing SystemException, ProblemDetail built
+ * per request) next to the current one. The benchmark's call stack is far shallower than a servlet request's, so it
+ * understates what skipping the stack trace saves in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ErrorPathBenchmark {
+
+    private static final String INVALID_ID = "abc";
+    private static final String INVALID_ID_MESSAGE = "Post Id must contain only digits (0-9).";
+    private static final String NOT_FOUND_MESSAGE = "Client error occurred on GET post with id 9999 at JSONPlaceholder API";
+
+    private final ExceptionControllerAdvice advice = new ExceptionControllerAdvice();
+    private final IllegalStateException upstreamCause = new IllegalStateException("404 Not Found");
+
+    @Benchmark
+    public ProblemDetail legacyInvalidId() {
+        try {
+            Integer.parseInt(INVALID_ID.trim());
+            throw new IllegalStateException("expected an invalid id");
+        } catch (NumberFormatException e) {
+            return legacyProblem(new SystemException(INVALID_ID_MESSAGE, SystemException.BAD_REQUEST_ERROR_TITLE, 400));
+        }
+    }
+
+    @Benchmark
+    public ProblemDetail invalidId() {
+        if (IdParser.parse(INVALID_ID) != IdParser.INVALID) {
+            throw new IllegalStateException("expected an invalid id");
+        }
+        return advice.handleSystemException(
+            new StacklessSystemException(INVALID_ID_MESSAGE, SystemException.BAD_REQUEST_ERROR_TITLE, 400));
+    }
+
+    @Benchmark
+    public ProblemDetail legacyNotFound() {
+        return legacyProblem(
+            new SystemException(NOT_FOUND_MESSAGE, SystemException.NOT_FOUND_ERROR_TITLE, 404, upstreamCause));
+    }
+
+    @Benchmark
+    public ProblemDetail notFound() {
+        return advice.handleSystemException(
+            new StacklessSystemException(NOT_FOUND_MESSAGE, SystemException.NOT_FOUND_ERROR_TITLE, 404, upstreamCause));
+    }
+
+    private ProblemDetail legacyProblem(final SystemException exception) {
+        final ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatusCode.valueOf(exception.getStatusCode()));
+        problemDetail.setDetail(exception.getMessage());
+        problemDetail.setTitle(exception.getTitle());
+        return problemDetail;
+    }
+}
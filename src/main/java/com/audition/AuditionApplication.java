@@ -1,9 +1,14 @@
 package com.audition;
 
+import com.audition.configuration.AuditionRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(AuditionRuntimeHints.class)
 public class AuditionApplication {
 
     public static void main(final String[] args) {
@@ -0,0 +1,70 @@
+package com.audition.common.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over int keys. {@link #mightContain(int)} never returns false for a key that was put, and
+ * returns true for an absent key with roughly the configured false-positive probability once
+ * {@code expectedInsertions} keys were added.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(final int expectedInsertions, final double falsePositiveProbability) {
+        if (expectedInsertions < 1 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs expectedInsertions >= 1 and 0 < fpp < 1");
+        }
+        final long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+    }
+
+    public void put(final int key) {
+        final long hash = mix(key);
+        final int first = (int) hash;
+        final int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            final long bit = Math.floorMod(first + (long) i * second, bitCount);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(final int key) {
+        final long hash = mix(key);
+        final int first = (int) hash;
+        final int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            final long bit = Math.floorMod(first + (long) i * second, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int hashCount() {
+        return hashFunctions;
+    }
+
+    // MurmurHash3 fmix64 finalizer, so consecutive ids spread over the whole bit array.
+    private static long mix(final int key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
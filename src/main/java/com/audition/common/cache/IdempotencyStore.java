@@ -0,0 +1,166 @@
+package com.audition.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Results of requests by idempotency key, so that a repeated request gets the first one's result instead of running
+ * again. The first request for a key claims it and later completes it with its result; requests arriving meanwhile
+ * get the pending result to wait on. Completed results are kept for a TTL, within a cap on both entries and total
+ * weight, evicting the oldest completed results first. In-flight claims are never evicted; when they alone fill the
+ * store, new keys are refused rather than run unprotected.
+ */
+@SuppressWarnings("PMD.UseConcurrentHashMap")
+public class IdempotencyStore<V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private final LongSupplier nanoClock;
+    // Completed entries are moved to the end, so among them iteration order is expiry order.
+    private final Map<String, Entry<V>> entries = new LinkedHashMap<>();
+    private final Object lock = new Object();
+    private long totalWeight;
+
+    public IdempotencyStore(final long ttlNanos, final int maxEntries, final long maxWeight,
+        final ToIntFunction<V> weigher, final LongSupplier nanoClock) {
+        if (ttlNanos <= 0 || maxEntries < 1 || maxWeight < 1) {
+            throw new IllegalArgumentException("Idempotency store needs ttl > 0, maxEntries >= 1 and maxWeight >= 1");
+        }
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Outcome of {@link #claim}: whether the caller owns the key and must {@link #complete} or {@link #release} it,
+     * or else the result to wait for. The result of a released claim is {@code null}.
+     */
+    public enum Status { CLAIMED, DUPLICATE, MISMATCH, FULL }
+
+    public record Claim<V>(Status status, CompletableFuture<V> result) {
+
+    }
+
+    /**
+     * Claims {@code key} for a request identified by {@code fingerprint}. A key already used by a request with a
+     * different fingerprint is a {@link Status#MISMATCH}.
+     */
+    public Claim<V> claim(final String key, final String fingerprint) {
+        synchronized (lock) {
+            purgeExpired(nanoClock.getAsLong());
+            final Entry<V> existing = entries.get(key);
+            if (existing != null) {
+                return existing.fingerprint.equals(fingerprint)
+                    ? new Claim<>(Status.DUPLICATE, existing.result)
+                    : new Claim<>(Status.MISMATCH, null);
+            }
+            if (entries.size() >= maxEntries && !evictOldestCompleted()) {
+                return new Claim<>(Status.FULL, null);
+            }
+            final Entry<V> entry = new Entry<>(fingerprint);
+            entries.put(key, entry);
+            return new Claim<>(Status.CLAIMED, entry.result);
+        }
+    }
+
+    /**
+     * Stores the result of a claimed key and hands it to the requests waiting for it.
+     */
+    public void complete(final String key, final V value) {
+        final Entry<V> entry;
+        synchronized (lock) {
+            entry = entries.remove(key);
+            if (entry == null) {
+                return;
+            }
+            entry.weight = weigher.applyAsInt(value);
+            entry.expiresAt = nanoClock.getAsLong() + ttlNanos;
+            entry.completed = true;
+            entries.put(key, entry);
+            totalWeight += entry.weight;
+            // Evicts until the total weight fits again, possibly including this entry.
+            boolean evicted = true;
+            while (totalWeight > maxWeight && evicted) {
+                evicted = evictOldestCompleted();
+            }
+        }
+        entry.result.complete(value);
+    }
+
+    /**
+     * Gives up a claimed key without a result, e.g. after a failure worth retrying; waiting requests get
+     * {@code null} and may claim the key again.
+     */
+    public void release(final String key) {
+        final Entry<V> entry;
+        synchronized (lock) {
+            entry = entries.get(key);
+            if (entry == null || entry.completed) {
+                return;
+            }
+            entries.remove(key);
+        }
+        entry.result.complete(null);
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public long weight() {
+        synchronized (lock) {
+            return totalWeight;
+        }
+    }
+
+    private void purgeExpired(final long now) {
+        final Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry<V> entry = iterator.next();
+            if (!entry.completed) {
+                continue;
+            }
+            if (entry.expiresAt - now > 0) {
+                return;
+            }
+            totalWeight -= entry.weight;
+            iterator.remove();
+        }
+    }
+
+    private boolean evictOldestCompleted() {
+        final Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry<V> entry = iterator.next();
+            if (entry.completed) {
+                totalWeight -= entry.weight;
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry<V> {
+
+        private final String fingerprint;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private boolean completed;
+        private long expiresAt;
+        private int weight;
+
+        Entry(final String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
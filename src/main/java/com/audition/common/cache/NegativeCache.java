@@ -0,0 +1,68 @@
+package com.audition.common.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers keys that were recently looked up and not found, for a short TTL. The number of entries is capped: once
+ * full, expired entries are purged and, if that frees nothing, new misses are simply not remembered.
+ */
+public class NegativeCache {
+
+    private final AtomicLong ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<Integer, Long> expiries = new ConcurrentHashMap<>();
+
+    public NegativeCache(final long ttlNanos, final int maxEntries, final LongSupplier nanoClock) {
+        if (ttlNanos <= 0 || maxEntries < 1) {
+            throw new IllegalArgumentException("Negative cache needs ttl > 0 and maxEntries >= 1");
+        }
+        this.ttlNanos = new AtomicLong(ttlNanos);
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean contains(final int key) {
+        final Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - nanoClock.getAsLong() > 0) {
+            return true;
+        }
+        expiries.remove(key, expiry);
+        return false;
+    }
+
+    public void put(final int key) {
+        final long now = nanoClock.getAsLong();
+        if (expiries.size() >= maxEntries) {
+            expiries.values().removeIf(expiry -> expiry - now <= 0);
+            if (expiries.size() >= maxEntries) {
+                return;
+            }
+        }
+        expiries.put(key, now + ttlNanos.get());
+    }
+
+    /**
+     * Changes the TTL of misses remembered from now on; those already remembered keep their expiry.
+     */
+    public void setTtlNanos(final long ttlNanos) {
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("Negative cache needs ttl > 0");
+        }
+        this.ttlNanos.set(ttlNanos);
+    }
+
+    public void invalidate(final int key) {
+        expiries.remove(key);
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+}
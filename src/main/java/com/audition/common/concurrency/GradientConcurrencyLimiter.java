@@ -0,0 +1,119 @@
+package com.audition.common.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive in-flight request limit in the style of Netflix's Gradient2 algorithm. A long-term exponential average of
+ * request latency is compared with each new sample: while latency stays close to the long-term average the limit grows
+ * by roughly its square root, and as latency climbs above it (queueing) the limit shrinks proportionally.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double LONG_WINDOW_FACTOR = 2.0 / (600 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DRIFT_RATIO = 2.0;
+    private static final double DRIFT_DECAY = 0.95;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final Object sampleLock = new Object();
+    // Guarded by sampleLock, like the estimates below.
+    private int minLimit;
+    private int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    public GradientConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+        final double smoothing, final double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = new AtomicInteger(initialLimit);
+        this.estimatedLimit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(final long rttNanos) {
+        final int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtCompletion);
+    }
+
+    /**
+     * Gives a permit back without a latency sample, for requests whose duration says nothing about queueing.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Moves the bounds of the adaptive limit, clamping the current limit into them at once.
+     */
+    public void setBounds(final int minLimit, final int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        synchronized (sampleLock) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+            limit.set((int) estimatedLimit);
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void onSample(final long rttNanos, final int inFlightAtCompletion) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        synchronized (sampleLock) {
+            updateLimit(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    private void updateLimit(final long rttNanos, final int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_FACTOR;
+        }
+        // After a latency spike recovers the long average lags behind; pull it down so the limit can grow again.
+        if (longRttNanos / rttNanos > DRIFT_RATIO) {
+            longRttNanos *= DRIFT_DECAY;
+        }
+        // Not using the current limit says nothing about whether a higher one is safe.
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        final double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        final double smoothed = estimatedLimit * (1 - smoothing) + target * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+        limit.set((int) estimatedLimit);
+    }
+}
@@ -0,0 +1,17 @@
+package com.audition.common.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends StacklessSystemException {
+
+    private static final long serialVersionUID = -3179462351806211514L;
+
+    public static final String RATE_LIMITED_TITLE = "Too Many Requests";
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(final String detail, final long retryAfterSeconds) {
+        super(detail, RATE_LIMITED_TITLE, 429);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
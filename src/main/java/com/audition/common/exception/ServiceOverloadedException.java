@@ -0,0 +1,17 @@
+package com.audition.common.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends StacklessSystemException {
+
+    private static final long serialVersionUID = 4046349717393640235L;
+
+    public static final String SERVICE_OVERLOADED_TITLE = "Service Overloaded";
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(final String detail, final long retryAfterSeconds) {
+        super(detail, SERVICE_OVERLOADED_TITLE, 503);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.audition.common.exception;
+
+/**
+ * A {@link SystemException} for expected outcomes such as invalid input, missing resources or shed load. These are
+ * raised often enough under bot or scanner traffic that capturing a stack trace dominates their cost, and the trace
+ * says nothing the status and detail do not already say, so none is recorded.
+ */
+public class StacklessSystemException extends SystemException {
+
+    private static final long serialVersionUID = 2760946392914733152L;
+
+    public StacklessSystemException(final String detail, final String title, final Integer errorCode) {
+        super(detail, title, errorCode, null, false);
+    }
+
+    public StacklessSystemException(final String detail, final String title, final Integer errorCode,
+        final Throwable exception) {
+        super(detail, title, errorCode, exception, false);
+    }
+}
@@ -62,4 +62,12 @@ public class SystemException extends RuntimeException {
         this.title = title;
         this.detail = detail;
     }
+
+    protected SystemException(final String detail, final String title, final Integer errorCode,
+        final Throwable exception, final boolean writableStackTrace) {
+        super(detail, exception, false, writableStackTrace);
+        this.statusCode = errorCode;
+        this.title = title;
+        this.detail = detail;
+    }
 }
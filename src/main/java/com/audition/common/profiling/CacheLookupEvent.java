@@ -0,0 +1,42 @@
+package com.audition.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One lookup in an in-process cache or filter. Lookups are frequent, so the event carries no key and no stack trace.
+ */
+@Name("com.audition.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Audition", "Cache"})
+@Description("A lookup in an in-process cache")
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Hit")
+    @Description("Whether the lookup was answered from the cache")
+    boolean hit;
+
+    /**
+     * Begins the event for a lookup in the named cache; the caller must {@link #finish} it.
+     */
+    public static CacheLookupEvent start(final String cache) {
+        final CacheLookupEvent event = new CacheLookupEvent();
+        event.cache = cache;
+        event.begin();
+        return event;
+    }
+
+    public void finish(final boolean hit) {
+        if (shouldCommit()) {
+            this.hit = hit;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.audition.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One inbound request handled by a controller, from handler selection until the response is complete, including
+ * asynchronous (streamed) responses.
+ */
+@Name("com.audition.Request")
+@Label("Audition Request")
+@Category({"Audition", "HTTP"})
+@Description("An inbound request handled by an Audition controller")
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Handler")
+    @Description("Controller class and method")
+    String handler;
+
+    @Label("URI Pattern")
+    String uriPattern;
+
+    @Label("Status")
+    int status;
+
+    @Label("Exception")
+    String exception;
+
+    /**
+     * Records the request, if the event is enabled and took longer than its threshold.
+     */
+    @SuppressWarnings("PMD.UseObjectForClearerAPI")
+    public void finish(final String method, final String handler, final String uriPattern, final int status,
+        final String exception) {
+        if (shouldCommit()) {
+            this.method = method;
+            this.handler = handler;
+            this.uriPattern = uriPattern;
+            this.status = status;
+            this.exception = exception;
+            commit();
+        }
+    }
+}
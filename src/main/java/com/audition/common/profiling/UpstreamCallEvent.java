@@ -0,0 +1,78 @@
+package com.audition.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One attempt of an upstream request, from choosing the endpoint until the response is read. The event in progress is
+ * kept per thread so that the RestTemplate interceptor, which sees the raw response, can record its status and size.
+ */
+@Name("com.audition.UpstreamCall")
+@Label("Upstream Call")
+@Category({"Audition", "Upstream"})
+@Description("One attempt of a request to the upstream API")
+@StackTrace(false)
+public class UpstreamCallEvent extends jdk.jfr.Event {
+
+    private static final ThreadLocal<UpstreamCallEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("Method")
+    String method;
+
+    @Label("URI Template")
+    String uriTemplate;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Hedge")
+    boolean hedge;
+
+    @Label("Status")
+    @Description("HTTP status of the response, 0 if none was received")
+    int status;
+
+    @Label("Response Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Begins the event for an attempt made on the current thread; the caller must {@link #finish} it.
+     */
+    public static UpstreamCallEvent start(final String method, final String uriTemplate, final String endpoint,
+        final int attempt, final boolean hedge) {
+        final UpstreamCallEvent event = new UpstreamCallEvent();
+        event.method = method;
+        event.uriTemplate = uriTemplate;
+        event.endpoint = endpoint;
+        event.attempt = attempt;
+        event.hedge = hedge;
+        event.bytes = -1;
+        event.begin();
+        CURRENT.set(event);
+        return event;
+    }
+
+    /**
+     * Records the response to the attempt in progress on the current thread, if any.
+     */
+    public static void recordResponse(final int status, final long bytes) {
+        final UpstreamCallEvent event = CURRENT.get();
+        if (event != null) {
+            event.status = status;
+            event.bytes = bytes;
+        }
+    }
+
+    public void finish() {
+        CURRENT.remove();
+        commit();
+    }
+}
@@ -0,0 +1,5 @@
+package com.audition.common.ratelimit;
+
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long retryAfterNanos, long resetNanos) {
+
+}
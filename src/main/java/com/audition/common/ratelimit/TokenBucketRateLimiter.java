@@ -0,0 +1,106 @@
+package com.audition.common.ratelimit;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Per-client token buckets, implemented as the generic cell rate algorithm: each bucket is a single "theoretical
+ * arrival time" updated with a CAS, so acquiring a token never takes a lock. Buckets are spread over independent
+ * stripes; when a stripe grows past its share of {@code maxClients} it drops buckets that have fully refilled, which
+ * loses no state because a fresh bucket would be identical.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long FULL = Long.MIN_VALUE;
+
+    private final long capacity;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxClientsPerStripe;
+    private final int stripeMask;
+    private final List<ConcurrentMap<Long, AtomicLong>> stripes;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(final long capacity, final double refillPerSecond, final int maxClients,
+        final int stripeCount, final LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxClients < 1 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException(
+                "Rate limit needs capacity >= 1, refill > 0, maxClients >= 1 and a power-of-two stripe count");
+        }
+        this.capacity = capacity;
+        this.emissionIntervalNanos = Math.max(1L, (long) (NANOS_PER_SECOND / refillPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.maxClientsPerStripe = Math.max(1, maxClients / stripeCount);
+        this.stripeMask = stripeCount - 1;
+        this.nanoClock = nanoClock;
+        this.stripes = IntStream.range(0, stripeCount)
+            .<ConcurrentMap<Long, AtomicLong>>mapToObj(stripe -> new ConcurrentHashMap<>())
+            .toList();
+    }
+
+    public RateLimitDecision tryAcquire(final long clientKey) {
+        final long now = nanoClock.getAsLong();
+        final ConcurrentMap<Long, AtomicLong> stripe = stripes.get(spread(clientKey) & stripeMask);
+        AtomicLong arrival = stripe.get(clientKey);
+        if (arrival == null) {
+            if (stripe.size() >= maxClientsPerStripe) {
+                evict(stripe, now);
+            }
+            arrival = stripe.computeIfAbsent(clientKey, key -> new AtomicLong(FULL));
+        }
+        while (true) {
+            final long current = arrival.get();
+            final long next = Math.max(current, now) + emissionIntervalNanos;
+            final long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return new RateLimitDecision(false, capacity, 0, wait, Math.max(0, current - now));
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new RateLimitDecision(true, capacity, (burstNanos - (next - now)) / emissionIntervalNanos, 0,
+                    next - now);
+            }
+        }
+    }
+
+    public static long keyOf(final CharSequence clientId) {
+        // 64-bit FNV-1a: buckets are keyed by a fixed-size hash so huge client ids cannot inflate the table.
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < clientId.length(); i++) {
+            hash ^= clientId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public int trackedClients() {
+        int total = 0;
+        for (final ConcurrentMap<Long, AtomicLong> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    private void evict(final ConcurrentMap<Long, AtomicLong> stripe, final long now) {
+        stripe.values().removeIf(arrival -> arrival.get() <= now);
+        // Every client is still active: forget arbitrary ones rather than grow without bound. They restart full.
+        // Trimming to a low-water mark keeps the sweep from running again on the very next new client.
+        final int lowWaterMark = maxClientsPerStripe - Math.max(1, maxClientsPerStripe / 4);
+        final Iterator<Long> keys = stripe.keySet().iterator();
+        while (stripe.size() > lowWaterMark && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static int spread(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
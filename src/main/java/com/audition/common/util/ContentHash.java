@@ -0,0 +1,37 @@
+package com.audition.common.util;
+
+/**
+ * 64-bit FNV-1a hash over the string form of a record's fields, used to detect changed records without keeping or
+ * comparing their full content. Fields are separated so that moving text from one field to the next changes the
+ * hash, and {@code null} hashes differently from the string "null".
+ */
+public final class ContentHash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char NULL_MARKER = '\u0000';
+
+    private ContentHash() {
+    }
+
+    public static long hash(final Object... fields) {
+        long hash = OFFSET_BASIS;
+        for (final Object field : fields) {
+            if (field == null) {
+                hash = mix(hash, NULL_MARKER);
+            } else {
+                final String text = field.toString();
+                for (int i = 0; i < text.length(); i++) {
+                    hash = mix(hash, text.charAt(i));
+                }
+            }
+            hash = mix(hash, FIELD_SEPARATOR);
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final char value) {
+        return ((hash ^ (value & 0xff)) * PRIME ^ (value >>> 8)) * PRIME;
+    }
+}
@@ -0,0 +1,51 @@
+package com.audition.common.util;
+
+/**
+ * Parses ids from request input: ASCII digits only, no sign or whitespace, within the range of the result type.
+ * Invalid input is the common case under scanner traffic, so it is reported by the {@link #INVALID} sentinel rather
+ * than through {@link NumberFormatException}, and neither outcome allocates.
+ */
+public final class IdParser {
+
+    /**
+     * Returned for anything that is not a valid id; valid ids are never negative.
+     */
+    public static final int INVALID = -1;
+
+    private static final int RADIX = 10;
+
+    private IdParser() {
+    }
+
+    /**
+     * Parses the whole value as a non-negative {@code int}, or returns {@link #INVALID}.
+     */
+    public static int parse(final CharSequence value) {
+        if (value == null) {
+            return INVALID;
+        }
+        return (int) parse(value, 0, value.length(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parses {@code value[start, end)} as a non-negative {@code long}, or returns {@link #INVALID}.
+     */
+    public static long parseLong(final CharSequence value, final int start, final int end) {
+        return parse(value, start, end, Long.MAX_VALUE);
+    }
+
+    private static long parse(final CharSequence value, final int start, final int end, final long max) {
+        if (start >= end) {
+            return INVALID;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit >= RADIX || result > (max - digit) / RADIX) {
+                return INVALID;
+            }
+            result = result * RADIX + digit;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package com.audition.configuration;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.web.ChangeFeed;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.http.ProblemDetail;
+
+/**
+ * Native image hints for types that are bound through Jackson outside of what ahead-of-time processing can infer
+ * from controller signatures: upstream responses read by the RestTemplate, the warm-up round trips, change feed
+ * events written through an {@code SseEmitter}, and
+ * {@link ProblemDetail}, which is written by the application's own ObjectMapper rather than the MVC default one.
+ */
+public class AuditionRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(final RuntimeHints hints, final ClassLoader classLoader) {
+        bindingHints.registerReflectionHints(hints.reflection(), AuditionPost.class, AuditionComment.class,
+            ChangeFeed.ChangeEvent.class, ProblemDetail.class);
+    }
+}
@@ -0,0 +1,200 @@
+package com.audition.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells clients apart for rate limiting and idempotency. A request carrying one of the configured {@code api-keys} as
+ * X-API-Key is that key's client; the header is not authenticated, so any other key is ignored rather than trusted.
+ * Everyone else is identified by address: the remote address, or, when that is one of the {@code trusted-proxies}
+ * (addresses or CIDR ranges), the nearest address in Forwarded or X-Forwarded-For that is not a trusted proxy itself.
+ * Forwarding headers from any other peer are ignored, since a client can send them with any value.
+ */
+@Component
+public class ClientIdentity {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    static final String FORWARDED_HEADER = "Forwarded";
+    static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClientIdentity.class);
+    private static final String API_KEY_PREFIX = "key ";
+    private static final String FOR_PARAMETER = "for=";
+    // Only address literals are parsed, so a forwarded value can never cause a DNS lookup.
+    private static final Pattern ADDRESS_LITERAL = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private final Set<String> apiKeys;
+    private final List<AddressRange> trustedProxies;
+    private final AtomicBoolean untrustedForwardingLogged = new AtomicBoolean();
+
+    public ClientIdentity(
+        @Value("${audition.clients.api-keys:}") final Set<String> apiKeys,
+        @Value("${audition.clients.trusted-proxies:}") final List<String> trustedProxies) {
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.trustedProxies = trustedProxies.stream().filter(proxy -> !proxy.isBlank()).map(AddressRange::parse)
+            .toList();
+    }
+
+    /**
+     * The client a request comes from, e.g. {@code key partner-1} or {@code 203.0.113.7}.
+     */
+    public String resolve(final HttpServletRequest request) {
+        final String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return API_KEY_PREFIX + apiKey;
+        }
+        return address(request);
+    }
+
+    private String address(final HttpServletRequest request) {
+        final String remoteAddress = request.getRemoteAddr();
+        final List<String> hops = forwardedHops(request);
+        if (hops.isEmpty()) {
+            return remoteAddress;
+        }
+        if (!isTrusted(remoteAddress)) {
+            if (untrustedForwardingLogged.compareAndSet(false, true)) {
+                LOG.warn("Ignoring forwarding headers from {}, which is not in audition.clients.trusted-proxies; "
+                    + "behind a proxy every client then shares the proxy's address", remoteAddress);
+            }
+            return remoteAddress;
+        }
+        // Each proxy appends the address it received the request from, so the client is the last untrusted hop.
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            if (!isTrusted(hops.get(i))) {
+                return hops.get(i);
+            }
+        }
+        return hops.get(0);
+    }
+
+    // Forwarded (RFC 7239) wins over X-Forwarded-For when a proxy sends both.
+    private static List<String> forwardedHops(final HttpServletRequest request) {
+        final List<String> hops = new ArrayList<>();
+        for (final String element : values(request, FORWARDED_HEADER)) {
+            for (final String pair : element.split(";")) {
+                final String trimmed = pair.trim();
+                if (trimmed.toLowerCase(Locale.ROOT).startsWith(FOR_PARAMETER)) {
+                    hops.add(forwardedNode(trimmed.substring(FOR_PARAMETER.length())));
+                }
+            }
+        }
+        if (hops.isEmpty()) {
+            for (final String hop : values(request, FORWARDED_FOR_HEADER)) {
+                hops.add(hop.trim());
+            }
+        }
+        return hops;
+    }
+
+    private static List<String> values(final HttpServletRequest request, final String header) {
+        final Enumeration<String> headers = request.getHeaders(header);
+        if (headers == null) {
+            return List.of();
+        }
+        final List<String> values = new ArrayList<>();
+        for (final String value : Collections.list(headers)) {
+            values.addAll(Arrays.asList(value.split(",")));
+        }
+        return values;
+    }
+
+    // A node is an address with an optional port, IPv6 in brackets, possibly quoted: "[2001:db8::1]:4711".
+    private static String forwardedNode(final String value) {
+        String node = value.trim();
+        if (node.length() > 1 && node.charAt(0) == '"' && node.charAt(node.length() - 1) == '"') {
+            node = node.substring(1, node.length() - 1);
+        }
+        if (!node.isEmpty() && node.charAt(0) == '[') {
+            final int end = node.indexOf(']');
+            return end < 0 ? node : node.substring(1, end);
+        }
+        final int port = node.indexOf(':');
+        return port >= 0 && port == node.lastIndexOf(':') ? node.substring(0, port) : node;
+    }
+
+    private boolean isTrusted(final String address) {
+        if (trustedProxies.isEmpty() || address == null || !ADDRESS_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        final byte[] bytes;
+        try {
+            bytes = InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        return trustedProxies.stream().anyMatch(range -> range.contains(bytes));
+    }
+
+    /**
+     * An address or CIDR range such as {@code 10.0.0.0/8} or {@code fd00::/8}.
+     */
+    private static final class AddressRange {
+
+        private static final int BITS_PER_BYTE = 8;
+        private static final int BYTE_MASK = 0xFF;
+
+        private final byte[] network;
+        private final int prefixLength;
+
+        private AddressRange(final byte[] network, final int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        static AddressRange parse(final String range) {
+            final String trimmed = range.trim();
+            final int slash = trimmed.indexOf('/');
+            final byte[] network = networkOf(slash < 0 ? trimmed : trimmed.substring(0, slash), range);
+            final int maxPrefix = network.length * BITS_PER_BYTE;
+            final int prefixLength = slash < 0 ? maxPrefix : Integer.parseInt(trimmed.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > maxPrefix) {
+                throw new IllegalArgumentException("Invalid trusted proxy prefix length: " + range);
+            }
+            return new AddressRange(network, prefixLength);
+        }
+
+        private static byte[] networkOf(final String address, final String range) {
+            if (!ADDRESS_LITERAL.matcher(address).matches()) {
+                throw new IllegalArgumentException("Trusted proxies must be IP addresses or CIDR ranges: " + range);
+            }
+            try {
+                return InetAddress.getByName(address).getAddress();
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + range, e);
+            }
+        }
+
+        boolean contains(final byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            final int fullBytes = prefixLength / BITS_PER_BYTE;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            final int remainingBits = prefixLength % BITS_PER_BYTE;
+            if (remainingBits == 0) {
+                return true;
+            }
+            final int mask = BYTE_MASK << (BITS_PER_BYTE - remainingBits) & BYTE_MASK;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
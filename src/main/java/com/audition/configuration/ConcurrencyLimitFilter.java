@@ -0,0 +1,100 @@
+package com.audition.configuration;
+
+import com.audition.common.concurrency.GradientConcurrencyLimiter;
+import com.audition.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Admission control for inbound requests. Requests above the adaptive limit are rejected immediately with a 503
+ * instead of queueing in Tomcat behind a slow upstream. Runs after the server observation filter so shed requests
+ * still show up in http.server.requests. The limit bounds follow configuration refreshes. Asynchronous requests, the
+ * /feed and /export streams, give their permit back when the handler returns: a stream that holds it for minutes
+ * would starve regular requests, and its duration is no latency sample, so it is not fed to the limiter.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(value = "audition.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String OVERLOADED_MESSAGE = "Too many concurrent requests. Please retry shortly.";
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final transient GradientConcurrencyLimiter limiter;
+    private final transient HandlerExceptionResolver handlerExceptionResolver;
+    private final transient Counter rejected;
+    private final transient ConcurrencyProperties properties;
+
+    public ConcurrencyLimitFilter(
+        @Qualifier("handlerExceptionResolver") final HandlerExceptionResolver handlerExceptionResolver,
+        final MeterRegistry meterRegistry,
+        final ConcurrencyProperties properties) {
+        super();
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.limiter = new GradientConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(),
+            properties.getMaxLimit(), properties.getSmoothing(), properties.getTolerance());
+        this.properties = properties;
+        this.rejected = Counter.builder("audition.concurrency.rejected")
+            .description("Inbound requests shed by the adaptive concurrency limit")
+            .register(meterRegistry);
+        Gauge.builder("audition.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+            .description("Current adaptive limit on in-flight inbound requests")
+            .register(meterRegistry);
+        Gauge.builder("audition.concurrency.in-flight", limiter, GradientConcurrencyLimiter::getInFlight)
+            .description("Inbound requests currently admitted")
+            .register(meterRegistry);
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        limiter.setBounds(properties.getMinLimit(), properties.getMaxLimit());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return request.getRequestURI().startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain) throws IOException, ServletException {
+
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            handlerExceptionResolver.resolveException(request, response, null,
+                new ServiceOverloadedException(OVERLOADED_MESSAGE, properties.getRetryAfterSeconds()));
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                limiter.release();
+            } else {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    GradientConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
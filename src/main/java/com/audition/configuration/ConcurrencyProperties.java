@@ -0,0 +1,22 @@
+package com.audition.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link ConcurrencyLimitFilter}. The limit bounds and the Retry-After hint can be changed by a
+ * configuration refresh; the adaptive limit is clamped into new bounds at once.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("audition.concurrency")
+public class ConcurrencyProperties {
+
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private double smoothing = 0.2;
+    private double tolerance = 1.5;
+    private long retryAfterSeconds = 1;
+}
@@ -0,0 +1,184 @@
+package com.audition.configuration;
+
+import jakarta.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Controls one JDK Flight Recorder recording, which also captures the application's own events (requests, upstream
+ * calls, cache lookups). POST starts it with the given or configured settings ({@code default} costs about 1%),
+ * GET {@code /dump} downloads what it has recorded so far, DELETE stops it. A stopped recording can still be dumped
+ * until the next one starts.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    static final String RECORDING_NAME = "audition";
+    static final String DUMP_SELECTOR = "dump";
+    private static final Logger LOG = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+    private static final int NOT_FOUND = 404;
+    private static final int CONFLICT = 409;
+
+    private final String defaultSettings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Object lock = new Object();
+    private transient Recording recording;
+
+    public FlightRecorderEndpoint(
+        @Value("${audition.jfr.settings:default}") final String defaultSettings,
+        @Value("${audition.jfr.max-age:1h}") final Duration maxAge,
+        @Value("${audition.jfr.max-size:250MB}") final DataSize maxSize) {
+        this.defaultSettings = defaultSettings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public RecordingStatus status() {
+        synchronized (lock) {
+            return RecordingStatus.from(recording);
+        }
+    }
+
+    /**
+     * Starts a recording with the named JFR settings, e.g. {@code default} or {@code profile}; 409 if one is running.
+     */
+    @WriteOperation
+    public WebEndpointResponse<RecordingStatus> start(@Nullable final String settings) {
+        final Configuration configuration = configuration(settings == null ? defaultSettings : settings);
+        synchronized (lock) {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                return new WebEndpointResponse<>(RecordingStatus.from(recording), CONFLICT);
+            }
+            if (recording != null) {
+                recording.close();
+            }
+            recording = new Recording(configuration);
+            recording.setName(RECORDING_NAME);
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSize.toBytes());
+            recording.setToDisk(true);
+            recording.start();
+            if (LOG.isInfoEnabled()) {
+                LOG.info("Started flight recording with {} settings", configuration.getName());
+            }
+            return new WebEndpointResponse<>(RecordingStatus.from(recording));
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<RecordingStatus> stop() {
+        synchronized (lock) {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                return new WebEndpointResponse<>(RecordingStatus.from(recording), NOT_FOUND);
+            }
+            recording.stop();
+            LOG.info("Stopped flight recording");
+            return new WebEndpointResponse<>(RecordingStatus.from(recording));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (lock) {
+            if (recording != null) {
+                recording.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the recording so far to a temporary file, which is deleted once the response has been sent.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector final String action) throws IOException {
+        if (!DUMP_SELECTOR.equals(action)) {
+            return new WebEndpointResponse<>(NOT_FOUND);
+        }
+        final Path file = Files.createTempFile("audition-", ".jfr");
+        synchronized (lock) {
+            if (recording == null || recording.getState() == RecordingState.CLOSED) {
+                Files.delete(file);
+                return new WebEndpointResponse<>(NOT_FOUND);
+            }
+            recording.dump(file);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    private static Configuration configuration(final String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown flight recorder settings '" + name + "'",
+                "Unknown settings", e);
+        }
+    }
+
+    public record RecordingStatus(String name, String state, Instant startTime, long size) {
+
+        static RecordingStatus from(@Nullable final Recording recording) {
+            if (recording == null) {
+                return new RecordingStatus(RECORDING_NAME, "NONE", null, 0);
+            }
+            return new RecordingStatus(recording.getName(), recording.getState().name(), recording.getStartTime(),
+                recording.getSize());
+        }
+    }
+
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private final Path file;
+
+        TemporaryFileResource(final Path file) {
+            super(file);
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            };
+        }
+
+        // Not a file to the message converters, so the content is read through the deleting stream.
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
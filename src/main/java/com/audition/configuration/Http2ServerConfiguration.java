@@ -0,0 +1,50 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tunes the HTTP/2 side of the Tomcat connector in the http2 profile, which Spring Boot's server properties do not
+ * reach. Tomcat runs at most 20 streams of one connection at a time by default and queues the rest, which defeats
+ * multiplexing for a client sending all its requests over one connection; the stream limits are raised together. A
+ * larger initial flow-control window lets list responses go out without waiting for window updates, and with TLS the
+ * session cache lets returning clients resume instead of repeating the full handshake.
+ */
+@Configuration
+@Profile("http2")
+public class Http2ServerConfiguration {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2ConnectorCustomizer(
+        @Value("${audition.http2.max-concurrent-streams:128}") final int maxConcurrentStreams,
+        @Value("${audition.http2.initial-window-size:256KB}") final DataSize initialWindowSize,
+        @Value("${audition.http2.keep-alive-timeout:60s}") final Duration keepAliveTimeout,
+        @Value("${audition.http2.tls.session-cache-size:20480}") final int sessionCacheSize,
+        @Value("${audition.http2.tls.session-timeout:24h}") final Duration sessionTimeout) {
+        final TomcatConnectorCustomizer customizer = connector -> {
+            for (final UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                    http2.setInitialWindowSize(Math.toIntExact(initialWindowSize.toBytes()));
+                    http2.setKeepAliveTimeout(keepAliveTimeout.toMillis());
+                }
+            }
+            for (final SSLHostConfig sslHostConfig : connector.findSslHostConfigs()) {
+                sslHostConfig.setSessionCacheSize(sessionCacheSize);
+                sslHostConfig.setSessionTimeout(Math.toIntExact(sessionTimeout.toSeconds()));
+            }
+        };
+        return factory -> factory.addConnectorCustomizers(customizer);
+    }
+}
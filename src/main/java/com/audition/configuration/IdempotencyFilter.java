@@ -0,0 +1,314 @@
+package com.audition.configuration;
+
+import com.audition.common.cache.IdempotencyStore;
+import com.audition.common.exception.ServiceOverloadedException;
+import com.audition.common.exception.StacklessSystemException;
+import com.audition.common.exception.SystemException;
+import com.audition.common.profiling.CacheLookupEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes writes safe to retry. A POST, PUT, PATCH or DELETE with an Idempotency-Key header runs once per client and
+ * key; repeats, including concurrent ones, which wait for the first to finish, get its stored response with an
+ * Idempotent-Replayed header. Reusing a key for a different method, path or body is rejected with 422. Server errors
+ * are not stored, so retrying after one runs the request again. Clients are identified as for rate limiting, and the
+ * stored responses are bounded by count, total size and a TTL. Runs after the rate limit, so throttled retries never
+ * claim a key, and before the concurrency limit, so replays take no in-flight permit. The body is buffered for the
+ * fingerprint, so bodies over {@code max-body-size} are rejected with 413 before they are read in full.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+@ConditionalOnProperty(value = "audition.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+@SuppressWarnings({"PMD.ExcessiveImports", "PMD.TooManyMethods"})
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String REQUESTS_METRIC = "audition.idempotency.requests";
+    static final String OUTCOME_TAG = "outcome";
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final String INVALID_KEY_MESSAGE =
+        IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.";
+    private static final String KEY_REUSED_MESSAGE =
+        "This " + IDEMPOTENCY_KEY_HEADER + " was already used for a different request.";
+    private static final String IN_PROGRESS_MESSAGE =
+        "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress. Please retry later.";
+    private static final String FULL_MESSAGE = "Too many requests in progress, please retry later";
+    private static final String TOO_LARGE_MESSAGE = "Request bodies with an " + IDEMPOTENCY_KEY_HEADER
+        + " are limited to ";
+
+    private final transient IdempotencyStore<StoredResponse> store;
+    private final transient HandlerExceptionResolver handlerExceptionResolver;
+    private final transient ClientIdentity clientIdentity;
+    private final Duration waitTimeout;
+    private final int maxBodySize;
+    private final transient Counter executed;
+    private final transient Counter replayed;
+    private final transient Counter rejected;
+
+    public IdempotencyFilter(
+        @Qualifier("handlerExceptionResolver") final HandlerExceptionResolver handlerExceptionResolver,
+        final MeterRegistry meterRegistry,
+        final ClientIdentity clientIdentity,
+        @Value("${audition.idempotency.ttl:24h}") final Duration ttl,
+        @Value("${audition.idempotency.max-entries:10000}") final int maxEntries,
+        @Value("${audition.idempotency.max-size:32MB}") final DataSize maxSize,
+        @Value("${audition.idempotency.wait-timeout:10s}") final Duration waitTimeout,
+        @Value("${audition.idempotency.max-body-size:1MB}") final DataSize maxBodySize) {
+        super();
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.clientIdentity = clientIdentity;
+        this.waitTimeout = waitTimeout;
+        this.maxBodySize = Math.toIntExact(maxBodySize.toBytes());
+        this.store = new IdempotencyStore<>(ttl.toNanos(), maxEntries, maxSize.toBytes(),
+            stored -> stored.body().length + ENTRY_OVERHEAD_BYTES, System::nanoTime);
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.rejected = requestCounter(meterRegistry, "rejected");
+        Gauge.builder("audition.idempotency.entries", store, IdempotencyStore::size)
+            .description("Idempotency keys held, in flight or completed")
+            .register(meterRegistry);
+        Gauge.builder("audition.idempotency.size", store, IdempotencyStore::weight)
+            .description("Approximate memory held by stored responses")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain) throws IOException, ServletException {
+
+        final String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, new StacklessSystemException(INVALID_KEY_MESSAGE,
+                SystemException.BAD_REQUEST_ERROR_TITLE, HttpStatus.BAD_REQUEST.value()));
+            return;
+        }
+        final Optional<byte[]> body = readBody(request);
+        if (body.isEmpty()) {
+            reject(request, response, new StacklessSystemException(TOO_LARGE_MESSAGE + maxBodySize + " bytes.",
+                "Payload Too Large", HttpStatus.PAYLOAD_TOO_LARGE.value()));
+            return;
+        }
+        runOnce(clientIdentity.resolve(request) + '\n' + key, new BufferedBodyRequest(request, body.get()), response,
+            filterChain);
+    }
+
+    private void runOnce(final String scopedKey, final BufferedBodyRequest request, final HttpServletResponse response,
+        final FilterChain filterChain) throws IOException, ServletException {
+        final HttpServletRequest original = (HttpServletRequest) request.getRequest();
+        final String fingerprint = fingerprint(request, request.body);
+        final CacheLookupEvent lookup = CacheLookupEvent.start("idempotency");
+        IdempotencyStore.Claim<StoredResponse> claim = store.claim(scopedKey, fingerprint);
+        // A first request that gives its key up without a result lets one of its waiters claim it and run.
+        while (claim.status() == IdempotencyStore.Status.DUPLICATE && awaitRelease(claim)) {
+            claim = store.claim(scopedKey, fingerprint);
+        }
+        lookup.finish(claim.status() == IdempotencyStore.Status.DUPLICATE
+            || claim.status() == IdempotencyStore.Status.MISMATCH);
+        switch (claim.status()) {
+            case CLAIMED -> execute(scopedKey, request, response, filterChain);
+            case MISMATCH -> reject(original, response, new StacklessSystemException(KEY_REUSED_MESSAGE,
+                "Idempotency Key Reused", HttpStatus.UNPROCESSABLE_ENTITY.value()));
+            case FULL -> reject(original, response, new ServiceOverloadedException(FULL_MESSAGE, 1));
+            default -> {
+                final StoredResponse stored = claim.result().getNow(null);
+                if (stored == null) {
+                    reject(original, response, new StacklessSystemException(IN_PROGRESS_MESSAGE,
+                        "Request In Progress", HttpStatus.CONFLICT.value()));
+                } else {
+                    replay(stored, response);
+                }
+            }
+        }
+    }
+
+    private void execute(final String scopedKey, final HttpServletRequest request, final HttpServletResponse response,
+        final FilterChain filterChain) throws IOException, ServletException {
+        final ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value() && !request.isAsyncStarted()) {
+                store.complete(scopedKey, new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray()));
+                completed = true;
+            }
+            executed.increment();
+        } finally {
+            if (!completed) {
+                store.release(scopedKey);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Empty if the body is over the limit. The declared length rejects most such bodies unread; chunked ones are cut
+    // off one byte past the limit.
+    private Optional<byte[]> readBody(final HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxBodySize) {
+            return Optional.empty();
+        }
+        final byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        return body.length > maxBodySize ? Optional.empty() : Optional.of(body);
+    }
+
+    // Waits up to the wait timeout for the first request; true if it finished without a result.
+    private boolean awaitRelease(final IdempotencyStore.Claim<StoredResponse> claim) {
+        try {
+            return claim.result().get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS) == null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private void replay(final StoredResponse stored, final HttpServletResponse response) throws IOException {
+        replayed.increment();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, Boolean.TRUE.toString());
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void reject(final HttpServletRequest request, final HttpServletResponse response,
+        final StacklessSystemException failure) {
+        rejected.increment();
+        handlerExceptionResolver.resolveException(request, response, null, failure);
+    }
+
+    private static String fingerprint(final HttpServletRequest request, final byte[] body) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+    }
+
+    private static Counter requestCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder(REQUESTS_METRIC)
+            .description("Requests with an idempotency key by outcome")
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry);
+    }
+
+    @SuppressWarnings({"PMD.ArrayIsStoredDirectly", "PMD.MethodReturnsInternalArray"})
+    private record StoredResponse(int status, String contentType, String location, byte[] body) {
+
+    }
+
+    /**
+     * Reads the body up front, for the fingerprint, and serves it again to the handler.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        BufferedBodyRequest(final HttpServletRequest request, final byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            final ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available, and then read, right away.
+                @Override
+                public void setReadListener(final ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(final byte[] buffer, final int offset, final int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            final String encoding = getCharacterEncoding();
+            final Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
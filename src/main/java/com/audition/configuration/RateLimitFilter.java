@@ -0,0 +1,136 @@
+package com.audition.configuration;
+
+import com.audition.common.exception.RateLimitExceededException;
+import com.audition.common.ratelimit.RateLimitDecision;
+import com.audition.common.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Per-client token bucket rate limiting for the data routes: /posts and /users share the posts limit, /comments has
+ * its own, and the streamed /export and /feed share a small streams limit. Clients are told apart by the
+ * {@link ClientIdentity}: behind a load balancer its {@code trusted-proxies} must be set, or every client shares the
+ * balancer's bucket. Only listed API keys get a bucket of their own, so a rotated X-API-Key cannot escape the limit.
+ * Every limited response carries RateLimit-Limit,
+ * RateLimit-Remaining and RateLimit-Reset headers; throttled requests get a 429 problem response with Retry-After.
+ * Runs ahead of the concurrency limit so throttled clients never take an in-flight permit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(value = "audition.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+    private static final String POSTS_LIMIT = "posts";
+    private static final String COMMENTS_LIMIT = "comments";
+    private static final String STREAMS_LIMIT = "streams";
+    private static final String RATE_LIMITED_MESSAGE = "Rate limit exceeded for this client. Please retry later.";
+    private static final int STRIPES = 64;
+
+    private final transient Map<String, Limit> routes;
+    private final transient ClientIdentity clientIdentity;
+    private final transient HandlerExceptionResolver handlerExceptionResolver;
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public RateLimitFilter(
+        @Qualifier("handlerExceptionResolver") final HandlerExceptionResolver handlerExceptionResolver,
+        final MeterRegistry meterRegistry,
+        @Value("${audition.rate-limit.posts.capacity:50}") final long postsCapacity,
+        @Value("${audition.rate-limit.posts.refill-per-second:25}") final double postsRefillPerSecond,
+        @Value("${audition.rate-limit.comments.capacity:20}") final long commentsCapacity,
+        @Value("${audition.rate-limit.comments.refill-per-second:10}") final double commentsRefillPerSecond,
+        @Value("${audition.rate-limit.streams.capacity:5}") final long streamsCapacity,
+        @Value("${audition.rate-limit.streams.refill-per-second:0.5}") final double streamsRefillPerSecond,
+        @Value("${audition.rate-limit.max-clients:100000}") final int maxClients,
+        final ClientIdentity clientIdentity) {
+        super();
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.clientIdentity = clientIdentity;
+        final Limit posts = new Limit(POSTS_LIMIT, meterRegistry, postsCapacity, postsRefillPerSecond, maxClients);
+        final Limit streams = new Limit(STREAMS_LIMIT, meterRegistry, streamsCapacity, streamsRefillPerSecond,
+            maxClients);
+        this.routes = Map.of(
+            "posts", posts,
+            "users", posts,
+            "comments", new Limit(COMMENTS_LIMIT, meterRegistry, commentsCapacity, commentsRefillPerSecond,
+                maxClients),
+            "export", streams,
+            "feed", streams);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !routes.containsKey(route(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain filterChain) throws IOException, ServletException {
+
+        final Limit limit = routes.get(route(request));
+        final String client = clientIdentity.resolve(request);
+        final RateLimitDecision decision = limit.limiter.tryAcquire(TokenBucketRateLimiter.keyOf(client));
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        limit.rejected.increment();
+        handlerExceptionResolver.resolveException(request, response, null,
+            new RateLimitExceededException(RATE_LIMITED_MESSAGE, toSeconds(decision.retryAfterNanos())));
+    }
+
+    // The first path segment, e.g. "posts" for /posts/1/comments.
+    private static String route(final HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        final int end = path.indexOf('/', 1);
+        return path.substring(Math.min(1, path.length()), end < 0 ? path.length() : end);
+    }
+
+    private static long toSeconds(final long nanos) {
+        // Round up so clients never retry before a token is actually available.
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static final class Limit {
+
+        private final TokenBucketRateLimiter limiter;
+        private final Counter rejected;
+
+        Limit(final String name, final MeterRegistry meterRegistry, final long capacity,
+            final double refillPerSecond, final int maxClients) {
+            this.limiter = new TokenBucketRateLimiter(capacity, refillPerSecond, maxClients, STRIPES, System::nanoTime);
+            Gauge.builder("audition.ratelimit.clients", limiter, TokenBucketRateLimiter::trackedClients)
+                .description("Client buckets currently held by the rate limiter")
+                .tag("route", name)
+                .register(meterRegistry);
+            this.rejected = Counter.builder("audition.ratelimit.rejected")
+                .description("Requests rejected by the per-client rate limit")
+                .tag("route", name)
+                .register(meterRegistry);
+        }
+    }
+}
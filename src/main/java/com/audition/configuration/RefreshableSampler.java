@@ -0,0 +1,34 @@
+package com.audition.configuration;
+
+import brave.sampler.Sampler;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Samples with whatever the factory built last, so a configuration refresh can swap the sampling rate while traces
+ * are being started.
+ */
+public class RefreshableSampler extends Sampler {
+
+    private final Supplier<Sampler> factory;
+    private final AtomicReference<Sampler> delegate;
+
+    public RefreshableSampler(final Supplier<Sampler> factory) {
+        super();
+        this.factory = factory;
+        this.delegate = new AtomicReference<>(factory.get());
+    }
+
+    public void refresh() {
+        delegate.set(factory.get());
+    }
+
+    Sampler getDelegate() {
+        return delegate.get();
+    }
+
+    @Override
+    public boolean isSampled(final long traceId) {
+        return delegate.get().isSampled(traceId);
+    }
+}
@@ -0,0 +1,29 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Trace sampling settings. The baseline sampler is rebuilt on a configuration refresh; switching tail sampling on or
+ * off, and its slow threshold, take a restart.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("audition.tracing")
+public class SamplingProperties {
+
+    private String sampler = TracingConfiguration.RATE_LIMITED;
+    private float probability = 0.1f;
+    private int tracesPerSecond = 10;
+    private final TailSampling tail = new TailSampling();
+
+    @Getter
+    @Setter
+    public static class TailSampling {
+
+        private boolean enabled;
+        private Duration slowThreshold = Duration.ofMillis(500);
+    }
+}
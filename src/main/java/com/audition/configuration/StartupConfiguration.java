@@ -0,0 +1,28 @@
+package com.audition.configuration;
+
+import com.audition.persistence.StoreSnapshotter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfiguration {
+
+    // Beans that do their work while the context refreshes stay eager under spring.main.lazy-initialization; the
+    // snapshot has to be restored before the sync and warm-up runners see the store.
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(StoreSnapshotter.class);
+    }
+
+    // The appCdsArchive Gradle task starts the application once with this flag; closing the context after startup
+    // and warm-up lets the JVM exit and write the class data sharing archive.
+    @Bean
+    @ConditionalOnProperty(value = "audition.cds.training-run", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> trainingRunShutdown() {
+        return event -> event.getApplicationContext().close();
+    }
+}
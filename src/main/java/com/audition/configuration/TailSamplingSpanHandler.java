@@ -0,0 +1,83 @@
+package com.audition.configuration;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides at span end whether a locally recorded span is exported. Errors and slow spans are always kept; everything
+ * else follows the baseline sampler, decided once per local trace. Once a span is kept, every enclosing span still in
+ * flight on the same local trace is kept too, so the path from the local root to the failure is never broken.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    private final transient Sampler baseline;
+    private final long slowThresholdMicros;
+    private final int maxTrackedTraces;
+    private final transient Map<Long, Boolean> decisions = new ConcurrentHashMap<>();
+
+    public TailSamplingSpanHandler(final Sampler baseline, final Duration slowThreshold, final int maxTrackedTraces) {
+        super();
+        this.baseline = baseline;
+        this.slowThresholdMicros = slowThreshold.toNanos() / 1000L;
+        this.maxTrackedTraces = maxTrackedTraces;
+    }
+
+    @Override
+    public boolean end(final TraceContext context, final MutableSpan span, final Cause cause) {
+        final long localRootId = context.localRootId();
+        final boolean localRoot = context.spanId() == localRootId;
+        if (cause != Cause.FINISHED) {
+            if (localRoot) {
+                decisions.remove(localRootId);
+            }
+            return true;
+        }
+
+        final boolean interesting = isError(span) || isSlow(span);
+        if (localRoot) {
+            final Boolean decision = decisions.remove(localRootId);
+            return interesting || (decision == null ? baseline.isSampled(context.traceId()) : decision);
+        }
+
+        return traceDecision(context, localRootId, interesting) || interesting;
+    }
+
+    @Override
+    public boolean handlesAbandoned() {
+        return true;
+    }
+
+    int trackedTraces() {
+        return decisions.size();
+    }
+
+    private boolean traceDecision(final TraceContext context, final long localRootId, final boolean interesting) {
+        Boolean decision = decisions.get(localRootId);
+        if (decision == null) {
+            decision = baseline.isSampled(context.traceId());
+            if (decisions.size() < maxTrackedTraces) {
+                final Boolean raced = decisions.putIfAbsent(localRootId, decision);
+                decision = raced == null ? decision : raced;
+            }
+        }
+        if (interesting && !decision) {
+            decisions.replace(localRootId, Boolean.TRUE);
+        }
+        return decision;
+    }
+
+    private boolean isError(final MutableSpan span) {
+        return span.error() != null || span.tag("error") != null;
+    }
+
+    private boolean isSlow(final MutableSpan span) {
+        final long start = span.startTimestamp();
+        final long finish = span.finishTimestamp();
+        return start != 0L && finish != 0L && finish - start >= slowThresholdMicros;
+    }
+}
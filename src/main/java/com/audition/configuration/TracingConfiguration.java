@@ -0,0 +1,59 @@
+package com.audition.configuration;
+
+import brave.handler.SpanHandler;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import java.util.Locale;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class TracingConfiguration {
+
+    static final String PROBABILITY = "probability";
+    static final String RATE_LIMITED = "rate-limited";
+
+    private static final int MAX_TRACKED_TRACES = 10_000;
+
+    private final SamplingProperties properties;
+    private final RefreshableSampler baseline;
+
+    public TracingConfiguration(final SamplingProperties properties) {
+        this.properties = properties;
+        this.baseline = new RefreshableSampler(this::baselineSampler);
+    }
+
+    // With tail sampling every span is recorded locally and the export decision moves to TailSamplingSpanHandler.
+    @Bean
+    public Sampler auditionSampler() {
+        return properties.getTail().isEnabled() ? Sampler.ALWAYS_SAMPLE : baseline;
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnProperty(value = "audition.tracing.tail.enabled", havingValue = "true")
+    public SpanHandler tailSamplingSpanHandler() {
+        return new TailSamplingSpanHandler(baseline, properties.getTail().getSlowThreshold(), MAX_TRACKED_TRACES);
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        baseline.refresh();
+    }
+
+    Sampler baselineSampler() {
+        final String mode = properties.getSampler().trim().toLowerCase(Locale.ROOT);
+        if (RATE_LIMITED.equals(mode)) {
+            return RateLimitingSampler.create(properties.getTracesPerSecond());
+        }
+        if (PROBABILITY.equals(mode)) {
+            return Sampler.create(properties.getProbability());
+        }
+        throw new IllegalStateException("Unsupported audition.tracing.sampler: " + properties.getSampler());
+    }
+}
@@ -1,14 +1,18 @@
 package com.audition.configuration;
 
+import com.audition.integration.UpstreamProperties;
 import com.audition.web.interceptor.LoggingRequestInterceptor;
+import com.audition.web.interceptor.RequestEventInterceptor;
+import com.audition.web.interceptor.UpstreamCallEventInterceptor;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.text.SimpleDateFormat;
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import org.springframework.context.annotation.Bean;
@@ -17,6 +21,7 @@ import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 
@@ -46,26 +51,40 @@ public class WebServiceConfiguration implements WebMvcConfigurer {
     }
 
     @Bean
-    public RestTemplate restTemplate(ObjectMapper objectMapper) {
+    public RestTemplate restTemplate(ObjectMapper objectMapper, UpstreamProperties upstream) {
         final RestTemplate restTemplate = new RestTemplate(
-            new BufferingClientHttpRequestFactory(createClientFactory()));
+            new BufferingClientHttpRequestFactory(createClientFactory(upstream)));
         // TODO use object mapper
         restTemplate.setMessageConverters(List.of(
             new MappingJackson2HttpMessageConverter(objectMapper)
         ));
         // TODO create a logging interceptor that logs request/response for rest template calls.
-        restTemplate.setInterceptors(Collections.singletonList(new LoggingRequestInterceptor()));
+        restTemplate.setInterceptors(List.of(new LoggingRequestInterceptor(), new UpstreamCallEventInterceptor()));
         return restTemplate;
     }
 
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestEventInterceptor());
+    }
+
     @Bean
     public ResponseHeaderInjector responseHeaderInjector() {
         return new ResponseHeaderInjector();
     }
 
 
-    private SimpleClientHttpRequestFactory createClientFactory() {
-        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    private SimpleClientHttpRequestFactory createClientFactory(final UpstreamProperties upstream) {
+        // Timeouts are applied per connection, so a configuration refresh changes them for the next request.
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory() {
+            @Override
+            protected void prepareConnection(final HttpURLConnection connection, final String httpMethod)
+                throws IOException {
+                super.prepareConnection(connection, httpMethod);
+                connection.setConnectTimeout(Math.toIntExact(upstream.getConnectTimeout().toMillis()));
+                connection.setReadTimeout(Math.toIntExact(upstream.getReadTimeout().toMillis()));
+            }
+        };
         requestFactory.setOutputStreaming(false);
         return requestFactory;
     }
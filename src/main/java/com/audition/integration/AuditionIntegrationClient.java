@@ -1,21 +1,30 @@
 package com.audition.integration;
 
+import com.audition.common.exception.StacklessSystemException;
 import com.audition.common.exception.SystemException;
+import com.audition.common.profiling.UpstreamCallEvent;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
@@ -26,25 +35,40 @@ public class AuditionIntegrationClient {
     private static final String SERVICE_NAME = "JSONPlaceholder API";
     private static final String NOT_FOUND_ERROR_TITLE = "Resource Not Found";
     private static final String DEFAULT_TITLE = "Internal Server Error";
+    static final String UPSTREAM_OBSERVATION = "audition.upstream.request";
+    static final String URI_TEMPLATE_KEY = "uri.template";
+    static final String METHOD_KEY = "http.method";
+    static final String STATUS_KEY = "http.status_code";
+    static final String ATTEMPT_KEY = "retry.attempt";
+    static final String HEDGE_KEY = "hedge";
+    static final String ENDPOINT_KEY = "upstream.endpoint";
+    private static final String IO_ERROR_STATUS = "IO_ERROR";
+    private static final String UNKNOWN_STATUS = "UNKNOWN";
     @SuppressFBWarnings(
         value = "EI2",
         justification = "RestTemplate is a Spring-managed, shared infrastructure bean"
     )
     private final transient RestTemplate restTemplate;
+    private final transient ObservationRegistry observationRegistry;
+    private final transient UpstreamRetryPolicy retryPolicy;
+    private final transient UpstreamHedgingPolicy hedgingPolicy;
+    private final transient UpstreamBalancer balancer;
 
-    @Value("${jsonplaceholder.api.url:https://jsonplaceholder.typicode.com}")
-    private transient String baseUrl;
-
-    public AuditionIntegrationClient(RestTemplate restTemplate) {
+    public AuditionIntegrationClient(RestTemplate restTemplate, ObservationRegistry observationRegistry,
+        UpstreamRetryPolicy retryPolicy, UpstreamHedgingPolicy hedgingPolicy, UpstreamBalancer balancer) {
         this.restTemplate = restTemplate;
+        this.observationRegistry = observationRegistry;
+        this.retryPolicy = retryPolicy;
+        this.hedgingPolicy = hedgingPolicy;
+        this.balancer = balancer;
     }
 
     public List<AuditionPost> getPosts() {
-        String url = baseUrl + "/posts";
-        logger.debug("Fetching all posts from {}", url);
+        String uriTemplate = "/posts";
+        logger.debug("Fetching all posts from {}", uriTemplate);
 
         return executeRequest(
-            url,
+            uriTemplate,
             HttpMethod.GET,
             new ParameterizedTypeReference<List<AuditionPost>>() {
             },
@@ -54,11 +78,11 @@ public class AuditionIntegrationClient {
     }
 
     public AuditionPost getPostById(Integer postId) {
-        String url = baseUrl + "/posts/{id}";
+        String uriTemplate = "/posts/{id}";
         logger.debug("Fetching post with id: {}", postId);
 
         return executeRequest(
-            url,
+            uriTemplate,
             HttpMethod.GET,
             new ParameterizedTypeReference<AuditionPost>() {
             },
@@ -68,11 +92,11 @@ public class AuditionIntegrationClient {
     }
 
     public List<AuditionPost> getPostsByUserId(Integer userId) {
-        String url = baseUrl + "/posts?userId={userId}";
+        String uriTemplate = "/posts?userId={userId}";
         logger.debug("Fetching posts for user id: {}", userId);
 
         return executeRequest(
-            url,
+            uriTemplate,
             HttpMethod.GET,
             new ParameterizedTypeReference<List<AuditionPost>>() {
             },
@@ -86,9 +110,9 @@ public class AuditionIntegrationClient {
         logger.debug("Fetching post with comments for post id: {}", postId);
         AuditionPost post = getPostById(postId);
 
-        String url = baseUrl + "/posts/{postId}/comments";
+        String uriTemplate = "/posts/{postId}/comments";
         List<AuditionComment> comments = executeRequest(
-            url,
+            uriTemplate,
             HttpMethod.GET,
             new ParameterizedTypeReference<List<AuditionComment>>() {
             },
@@ -101,12 +125,77 @@ public class AuditionIntegrationClient {
     }
 
 
+    /**
+     * Fetches one page of posts ordered by id; a page shorter than {@code limit} is the last one.
+     */
+    public List<AuditionPost> getPostsPage(int start, int limit) {
+        String uriTemplate = "/posts?_start={start}&_limit={limit}";
+        logger.debug("Fetching posts {} to {}", start, start + limit);
+
+        return executeRequest(
+            uriTemplate,
+            HttpMethod.GET,
+            new ParameterizedTypeReference<List<AuditionPost>>() {
+            },
+            Map.of("start", start, "limit", limit),
+            "posts page from " + start
+        );
+    }
+
+    /**
+     * Fetches one page of comments ordered by id; a page shorter than {@code limit} is the last one.
+     */
+    public List<AuditionComment> getCommentsPage(int start, int limit) {
+        String uriTemplate = "/comments?_start={start}&_limit={limit}";
+        logger.debug("Fetching comments {} to {}", start, start + limit);
+
+        return executeRequest(
+            uriTemplate,
+            HttpMethod.GET,
+            new ParameterizedTypeReference<List<AuditionComment>>() {
+            },
+            Map.of("start", start, "limit", limit),
+            "comments page from " + start
+        );
+    }
+
+    /**
+     * Fetches every comment in one call, for attaching comments to a list of posts without a call per post.
+     */
+    public List<AuditionComment> getComments() {
+        String uriTemplate = "/comments";
+        logger.debug("Fetching all comments from {}", uriTemplate);
+
+        return executeRequest(
+            uriTemplate,
+            HttpMethod.GET,
+            new ParameterizedTypeReference<List<AuditionComment>>() {
+            },
+            null,
+            "comments"
+        );
+    }
+
+    public AuditionComment getCommentById(Integer commentId) {
+        String uriTemplate = "/comments/{id}";
+        logger.debug("Fetching comment with id: {}", commentId);
+
+        return executeRequest(
+            uriTemplate,
+            HttpMethod.GET,
+            new ParameterizedTypeReference<AuditionComment>() {
+            },
+            Map.of("id", commentId),
+            "comment with id " + commentId
+        );
+    }
+
     public List<AuditionComment> getCommentsByPostId(Integer postId) {
-        String url = baseUrl + "/comments?postId={postId}";
+        String uriTemplate = "/comments?postId={postId}";
         logger.debug("Fetching comments for post id: {}", postId);
 
         return executeRequest(
-            url,
+            uriTemplate,
             HttpMethod.GET,
             new ParameterizedTypeReference<List<AuditionComment>>() {
             },
@@ -115,28 +204,202 @@ public class AuditionIntegrationClient {
         );
     }
 
+    public AuditionPost createPost(AuditionPost post) {
+        logger.debug("Creating post for user id: {}", post.getUserId());
+        return exchange("/posts", HttpMethod.POST, post, new ParameterizedTypeReference<AuditionPost>() {
+        }, null, "new post");
+    }
+
+    public AuditionPost updatePost(Integer postId, AuditionPost post) {
+        logger.debug("Updating post with id: {}", postId);
+        return exchange("/posts/{id}", HttpMethod.PUT, post, new ParameterizedTypeReference<AuditionPost>() {
+        }, Map.of("id", postId), "post with id " + postId);
+    }
+
+    public void deletePost(Integer postId) {
+        logger.debug("Deleting post with id: {}", postId);
+        exchange("/posts/{id}", HttpMethod.DELETE, null, new ParameterizedTypeReference<Void>() {
+        }, Map.of("id", postId), "post with id " + postId);
+    }
+
+    public AuditionComment createComment(AuditionComment comment) {
+        logger.debug("Creating comment for post id: {}", comment.getPostId());
+        return exchange("/comments", HttpMethod.POST, comment, new ParameterizedTypeReference<AuditionComment>() {
+        }, null, "new comment");
+    }
+
+    public AuditionComment updateComment(Integer commentId, AuditionComment comment) {
+        logger.debug("Updating comment with id: {}", commentId);
+        return exchange("/comments/{id}", HttpMethod.PUT, comment, new ParameterizedTypeReference<AuditionComment>() {
+        }, Map.of("id", commentId), "comment with id " + commentId);
+    }
+
+    public void deleteComment(Integer commentId) {
+        logger.debug("Deleting comment with id: {}", commentId);
+        exchange("/comments/{id}", HttpMethod.DELETE, null, new ParameterizedTypeReference<Void>() {
+        }, Map.of("id", commentId), "comment with id " + commentId);
+    }
+
     private <T> T executeRequest(
+        String uriTemplate,
+        HttpMethod method,
+        ParameterizedTypeReference<T> responseType,
+        Map<String, ?> uriVariables,
+        String resourceDescription) {
+
+        return exchange(uriTemplate, method, null, responseType, uriVariables, resourceDescription);
+    }
+
+    // Every upstream call, read or write, with retries for idempotent methods.
+    private <T> T exchange(
+        String uriTemplate,
+        HttpMethod method,
+        Object requestBody,
+        ParameterizedTypeReference<T> responseType,
+        Map<String, ?> uriVariables,
+        String resourceDescription) {
+
+        retryPolicy.onRequest();
+        final boolean retryable = retryPolicy.isRetryable(method);
+        Duration delay = Duration.ZERO;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final T result = executeAttempt(
+                    attempt, uriTemplate, method, requestBody, responseType, uriVariables, resourceDescription);
+                retryPolicy.onSuccess(uriTemplate, attempt);
+                return result;
+            } catch (SystemException e) {
+                if (!retryable || !retryPolicy.shouldRetry(uriTemplate, attempt, e)) {
+                    throw e;
+                }
+                delay = retryPolicy.nextDelay(delay);
+                logger.warn("Retrying {} after attempt {} failed, backing off {} ms",
+                    resourceDescription, attempt, delay.toMillis());
+                if (!backOff(delay)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T executeAttempt(
+        int attempt,
+        String uriTemplate,
+        HttpMethod method,
+        Object requestBody,
+        ParameterizedTypeReference<T> responseType,
+        Map<String, ?> uriVariables,
+        String resourceDescription) {
+
+        if (!HttpMethod.GET.equals(method) || !hedgingPolicy.isEnabled()) {
+            return observeExchange(null, attempt, false, uriTemplate, method, requestBody, responseType,
+                uriVariables, resourceDescription);
+        }
+        // Hedged calls run on pool threads, so the caller's observation is passed on explicitly.
+        final Observation parent = observationRegistry.getCurrentObservation();
+        return hedgingPolicy.execute(uriTemplate, hedge -> observeExchange(
+            parent, attempt, hedge, uriTemplate, method, null, responseType, uriVariables, resourceDescription));
+    }
+
+    private <T> T observeExchange(
+        Observation parent,
+        int attempt,
+        boolean hedge,
+        String uriTemplate,
+        HttpMethod method,
+        Object requestBody,
+        ParameterizedTypeReference<T> responseType,
+        Map<String, ?> uriVariables,
+        String resourceDescription) {
+
+        final UpstreamEndpoint endpoint = balancer.choose();
+        final Observation observation = Observation.createNotStarted(UPSTREAM_OBSERVATION, observationRegistry)
+            .contextualName(method.name() + " " + uriTemplate)
+            .lowCardinalityKeyValue(URI_TEMPLATE_KEY, uriTemplate)
+            .lowCardinalityKeyValue(METHOD_KEY, method.name())
+            .lowCardinalityKeyValue(ATTEMPT_KEY, String.valueOf(attempt))
+            .lowCardinalityKeyValue(HEDGE_KEY, String.valueOf(hedge))
+            .lowCardinalityKeyValue(ENDPOINT_KEY, endpoint.getUrl());
+        if (parent != null) {
+            observation.parentObservation(parent);
+        }
+        final UpstreamCallEvent event = UpstreamCallEvent.start(method.name(), uriTemplate, endpoint.getUrl(), attempt,
+            hedge);
+        final long start = System.nanoTime();
+        boolean healthy = false;
+        boolean cancelled = false;
+        try {
+            final T result = observation.observe(() -> send(
+                observation, endpoint.getUrl() + uriTemplate, method, requestBody, responseType, uriVariables,
+                resourceDescription));
+            healthy = true;
+            return result;
+        } catch (SystemException e) {
+            // A 4xx is about the request, not the endpoint, which answered.
+            healthy = e.getStatusCode() != null && e.getStatusCode() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+            cancelled = !healthy && isCancelled(e);
+            throw e;
+        } finally {
+            if (cancelled) {
+                balancer.release(endpoint);
+            } else {
+                balancer.finish(endpoint, System.nanoTime() - start, healthy);
+            }
+            event.finish();
+        }
+    }
+
+    // A hedge leg that lost the race is interrupted; its failure says nothing about the endpoint. A read timeout is
+    // also an InterruptedIOException, but one the endpoint is to blame for.
+    private static boolean isCancelled(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof ClosedByInterruptException
+                || cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean backOff(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis(), delay.toNanosPart() % 1_000_000);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <T> T send(
+        Observation observation,
         String url,
         HttpMethod method,
+        Object requestBody,
         ParameterizedTypeReference<T> responseType,
         Map<String, ?> uriVariables,
         String resourceDescription) {
 
         try {
+            HttpEntity<?> request = requestBody != null ? new HttpEntity<>(requestBody) : null;
             ResponseEntity<T> response = uriVariables != null
-                ? restTemplate.exchange(url, method, null, responseType, uriVariables)
-                : restTemplate.exchange(url, method, null, responseType);
+                ? restTemplate.exchange(url, method, request, responseType, uriVariables)
+                : restTemplate.exchange(url, method, request, responseType);
+            observation.lowCardinalityKeyValue(STATUS_KEY, String.valueOf(response.getStatusCode().value()));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 T body = response.getBody();
-                if (body != null) {
-                    logger.debug("Successfully fetched {}", resourceDescription);
+                if (body != null || Void.class.equals(responseType.getType())) {
+                    logger.debug("Upstream answered {} {}", method, resourceDescription);
                     return body;
                 }
 
                 // Handle null body with successful status (edge case)
                 logger.warn("Received successful status but null body for {}", resourceDescription);
-                throw new SystemException(
+                throw new StacklessSystemException(
                     String.format("No data found for %s", resourceDescription),
                     NOT_FOUND_ERROR_TITLE,
                     HttpStatus.NOT_FOUND.value()
@@ -152,67 +415,75 @@ public class AuditionIntegrationClient {
             );
 
         } catch (HttpClientErrorException e) {
-            return handleClientError(e, resourceDescription);
+            recordStatus(observation, e);
+            return handleClientError(e, method, resourceDescription);
 
         } catch (HttpServerErrorException e) {
-            return handleServerError(e, resourceDescription);
+            recordStatus(observation, e);
+            return handleServerError(e, method, resourceDescription);
 
         } catch (ResourceAccessException e) {
-            return handleResourceAccessError(e, resourceDescription);
+            observation.lowCardinalityKeyValue(STATUS_KEY, IO_ERROR_STATUS);
+            return handleResourceAccessError(e, method, resourceDescription);
 
         } catch (SystemException e) {
             // Re-throw SystemException without wrapping
             throw e;
 
         } catch (Exception e) {
-            return handleUnexpectedError(e, resourceDescription);
+            observation.lowCardinalityKeyValue(STATUS_KEY, UNKNOWN_STATUS);
+            return handleUnexpectedError(e, method, resourceDescription);
         }
     }
 
-    private <T> T handleClientError(HttpClientErrorException e, String resourceDescription) {
-        logger.error("Client error while fetching {}. Status: {}, Response: {}",
-            resourceDescription, e.getStatusCode(), e.getResponseBodyAsString(), e);
+    private void recordStatus(Observation observation, HttpStatusCodeException e) {
+        observation.lowCardinalityKeyValue(STATUS_KEY, String.valueOf(e.getStatusCode().value()));
+    }
 
-        throw new SystemException(
-            String.format("Client error occurred while fetching %s from %s: %s",
-                resourceDescription, SERVICE_NAME, e.getMessage()),
+    private <T> T handleClientError(HttpClientErrorException e, HttpMethod method, String resourceDescription) {
+        // 4xx answers are expected (mostly unknown ids); a stack trace here only adds log volume and CPU.
+        logger.warn("Client error on {} {}. Status: {}", method, resourceDescription, e.getStatusCode());
+
+        throw new StacklessSystemException(
+            String.format("Client error occurred on %s %s at %s: %s",
+                method, resourceDescription, SERVICE_NAME, e.getMessage()),
             NOT_FOUND_ERROR_TITLE,
             e.getStatusCode().value(),
             e
         );
     }
 
-    private <T> T handleServerError(HttpServerErrorException e, String resourceDescription) {
-        logger.error("Server error from {} while fetching {}. Status: {}, Response: {}",
-            SERVICE_NAME, resourceDescription, e.getStatusCode(), e.getResponseBodyAsString(), e);
+    private <T> T handleServerError(HttpServerErrorException e, HttpMethod method, String resourceDescription) {
+        logger.error("Server error from {} on {} {}. Status: {}, Response: {}",
+            SERVICE_NAME, method, resourceDescription, e.getStatusCode(), e.getResponseBodyAsString(), e);
 
         throw new SystemException(
-            String.format("External service error occurred while fetching %s: %s",
-                resourceDescription, e.getMessage()),
+            String.format("External service error occurred on %s %s: %s",
+                method, resourceDescription, e.getMessage()),
             String.format("%s Error", SERVICE_NAME),
             e.getStatusCode().value(),
             e
         );
     }
 
-    private <T> T handleResourceAccessError(ResourceAccessException e, String resourceDescription) {
-        logger.error("Network error while fetching {} from {}", resourceDescription, SERVICE_NAME, e);
+    private <T> T handleResourceAccessError(ResourceAccessException e, HttpMethod method, String resourceDescription) {
+        logger.error("Network error on {} {} at {}", method, resourceDescription, SERVICE_NAME, e);
 
         throw new SystemException(
-            String.format("Unable to connect to %s while fetching %s: %s",
-                SERVICE_NAME, resourceDescription, e.getMessage()),
+            String.format("Unable to connect to %s for %s %s: %s",
+                SERVICE_NAME, method, resourceDescription, e.getMessage()),
             String.format("Backend service %s Unavailable", SERVICE_NAME),
             HttpStatus.SERVICE_UNAVAILABLE.value(),
             e
         );
     }
 
-    private <T> T handleUnexpectedError(Exception e, String resourceDescription) {
-        logger.error("Unexpected error while fetching {}", resourceDescription, e);
+    private <T> T handleUnexpectedError(Exception e, HttpMethod method, String resourceDescription) {
+        logger.error("Unexpected error on {} {}", method, resourceDescription, e);
 
         throw new SystemException(
-            String.format("Unexpected error occurred while fetching %s: %s",
-                resourceDescription, e.getMessage()),
+            String.format("Unexpected error occurred on %s %s: %s",
+                method, resourceDescription, e.getMessage()),
             DEFAULT_TITLE,
             HttpStatus.INTERNAL_SERVER_ERROR.value(),
             e
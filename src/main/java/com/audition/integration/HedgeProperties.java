@@ -0,0 +1,31 @@
+package com.audition.integration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link UpstreamHedgingPolicy}. Everything but the budget and the percentile of url templates
+ * already being tracked can be changed by a configuration refresh.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("audition.upstream.hedge")
+public class HedgeProperties {
+
+    private boolean enabled;
+    private double percentile = 0.95;
+    private Duration minDelay = Duration.ofMillis(10);
+    private Duration maxDelay = Duration.ofMillis(500);
+    private int maxThreads = 64;
+    private final Budget budget = new Budget();
+
+    @Getter
+    @Setter
+    public static class Budget {
+
+        private double ratio = 0.05;
+        private int maxBurst = 5;
+    }
+}
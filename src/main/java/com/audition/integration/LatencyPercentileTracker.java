@@ -0,0 +1,58 @@
+package com.audition.integration;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the last {@code windowSize} latencies in a ring buffer and periodically recomputes one percentile from them.
+ * Recording is a single array write; the sort happens once every {@code windowSize / 8} samples on the recording
+ * thread, so readers only ever see the cached value.
+ */
+public class LatencyPercentileTracker {
+
+    static final long NOT_READY = -1L;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong cached = new AtomicLong(NOT_READY);
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+
+    public LatencyPercentileTracker(final int windowSize, final double percentile, final int minSamples) {
+        if (windowSize < 8 || percentile <= 0 || percentile > 1 || minSamples < 1) {
+            throw new IllegalArgumentException("Tracker needs windowSize >= 8, 0 < percentile <= 1, minSamples >= 1");
+        }
+        this.samples = new AtomicLongArray(windowSize);
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.recomputeEvery = windowSize / 8;
+    }
+
+    public void record(final long nanos) {
+        final long count = recorded.getAndIncrement() + 1;
+        samples.set((int) ((count - 1) % samples.length()), nanos);
+        if (count >= minSamples && (count == minSamples || count % recomputeEvery == 0)) {
+            recompute(count);
+        }
+    }
+
+    /**
+     * Returns the tracked percentile in nanoseconds, or {@link #NOT_READY} until {@code minSamples} were recorded.
+     */
+    public long percentileNanos() {
+        return cached.get();
+    }
+
+    private void recompute(final long count) {
+        final int size = (int) Math.min(count, samples.length());
+        final long[] window = new long[size];
+        for (int i = 0; i < size; i++) {
+            window[i] = samples.get(i);
+        }
+        Arrays.sort(window);
+        final int index = Math.max(0, (int) Math.ceil(percentile * size) - 1);
+        cached.set(window[index]);
+    }
+}
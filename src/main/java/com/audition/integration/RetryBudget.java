@@ -0,0 +1,53 @@
+package com.audition.integration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries at a fraction of live traffic. Every original request deposits {@code ratio} of a token, every retry
+ * withdraws a whole one, and the balance never exceeds {@code maxBurst} tokens. When the upstream is down the balance
+ * drains and further retries are refused instead of multiplying the load on it.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000L;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(final double ratio, final int maxBurst) {
+        if (ratio < 0 || maxBurst < 1) {
+            throw new IllegalArgumentException("Retry budget needs ratio >= 0 and maxBurst >= 1");
+        }
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.maxBalance = maxBurst * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, amount) -> Math.min(maxBalance, current + amount));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            final long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Whether this budget was built with these settings, so a refresh that left them alone keeps its balance.
+     */
+    public boolean hasSettings(final double ratio, final int maxBurst) {
+        return depositPerRequest == Math.round(ratio * SCALE) && maxBalance == maxBurst * SCALE;
+    }
+
+    public double available() {
+        return balance.get() / (double) SCALE;
+    }
+}
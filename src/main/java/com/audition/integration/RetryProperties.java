@@ -0,0 +1,33 @@
+package com.audition.integration;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link UpstreamRetryPolicy}. Attempts, delays and statuses are read on every call; a configuration
+ * refresh that changes the budget rebuilds it with a full balance.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("audition.upstream.retry")
+public class RetryProperties {
+
+    private int maxAttempts = 3;
+    private Duration baseDelay = Duration.ofMillis(50);
+    private Duration maxDelay = Duration.ofSeconds(1);
+    private Set<Integer> retryOnStatus = new LinkedHashSet<>(List.of(502, 503, 504));
+    private final Budget budget = new Budget();
+
+    @Getter
+    @Setter
+    public static class Budget {
+
+        private double ratio = 0.1;
+        private int maxBurst = 10;
+    }
+}
@@ -0,0 +1,202 @@
+package com.audition.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the upstream endpoint, the base url or one of its mirrors, for every request attempt. Two endpoints are drawn
+ * at random and the one with the lower expected cost wins, the cost being its recent latency times the requests it
+ * already has in flight: a slow or backed-up mirror is avoided without herding all traffic onto the fastest one.
+ * A failed request counts as a read timeout's worth of latency, and an endpoint failing {@code failures-to-eject}
+ * times in a row is ejected for {@code ejection-time}, though never more than {@code max-ejected-percent} of the
+ * endpoints at once. The endpoint list follows configuration refreshes.
+ */
+@Component
+public class UpstreamBalancer {
+
+    static final String SELECTIONS_METRIC = "audition.upstream.endpoint.selections";
+    static final String EJECTIONS_METRIC = "audition.upstream.endpoint.ejections";
+    static final String ENDPOINT_TAG = "endpoint";
+
+    private static final Logger LOG = LoggerFactory.getLogger(UpstreamBalancer.class);
+    private static final int PERCENT = 100;
+
+    private final transient UpstreamProperties properties;
+    private final transient MeterRegistry meterRegistry;
+    private final transient LongSupplier nanoClock;
+    private final transient AtomicReference<List<Route>> routes = new AtomicReference<>(List.of());
+    private final Object ejectionLock = new Object();
+
+    @Autowired
+    public UpstreamBalancer(final MeterRegistry meterRegistry, final UpstreamProperties properties) {
+        this(meterRegistry, properties, System::nanoTime);
+    }
+
+    UpstreamBalancer(final MeterRegistry meterRegistry, final UpstreamProperties properties,
+        final LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        onRefresh();
+    }
+
+    /**
+     * Chooses the endpoint for one attempt; the caller must {@link #finish} or {@link #release} it.
+     */
+    public UpstreamEndpoint choose() {
+        final List<Route> current = routes.get();
+        final Route route = current.size() == 1 ? current.get(0) : pick(current, nanoClock.getAsLong());
+        route.selections().increment();
+        route.endpoint().start();
+        return route.endpoint();
+    }
+
+    /**
+     * Records how an attempt on the endpoint went. Unhealthy means the endpoint failed, by a server error or no answer.
+     */
+    public void finish(final UpstreamEndpoint endpoint, final long rttNanos, final boolean healthy) {
+        final UpstreamProperties.Balancer balancer = properties.getBalancer();
+        final long decayNanos = balancer.getDecay().toNanos();
+        final long ejectionNanos = balancer.getEjectionTime().toNanos();
+        final long now = nanoClock.getAsLong();
+        if (healthy) {
+            endpoint.finish(now, rttNanos, true, decayNanos, balancer.getFailuresToEject(), ejectionNanos, false);
+            return;
+        }
+        final long penalty = Math.max(rttNanos, properties.getReadTimeout().toNanos());
+        final boolean ejected;
+        // Serialized so that concurrent failures cannot eject more endpoints than allowed.
+        synchronized (ejectionLock) {
+            ejected = endpoint.finish(now, penalty, false, decayNanos, balancer.getFailuresToEject(), ejectionNanos,
+                mayEject(now));
+        }
+        if (ejected) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Ejected upstream endpoint {} for {} after {} consecutive failures", endpoint,
+                    balancer.getEjectionTime(), balancer.getFailuresToEject());
+            }
+            routes.get().stream()
+                .filter(route -> route.endpoint() == endpoint)
+                .forEach(route -> route.ejections().increment());
+        }
+    }
+
+    /**
+     * Ends an attempt that was cancelled before the endpoint answered, such as the losing leg of a hedged call: its
+     * in-flight slot is freed, but it says nothing about the endpoint's health or latency.
+     */
+    public void release(final UpstreamEndpoint endpoint) {
+        endpoint.release();
+    }
+
+    List<UpstreamEndpoint> endpoints() {
+        return routes.get().stream().map(Route::endpoint).toList();
+    }
+
+    /**
+     * Applies a changed base url or mirror list; endpoints that stay keep their latency history.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public final void onRefresh() {
+        final Set<String> urls = new LinkedHashSet<>();
+        urls.add(properties.getBaseUrl());
+        urls.addAll(properties.getMirrors());
+        final List<Route> previous = routes.get();
+        if (previous.stream().map(route -> route.endpoint().getUrl()).toList().equals(List.copyOf(urls))) {
+            return;
+        }
+        final List<Route> next = new ArrayList<>(urls.size());
+        for (final String url : urls) {
+            next.add(previous.stream()
+                .filter(route -> route.endpoint().getUrl().equals(url))
+                .findFirst()
+                .orElseGet(() -> register(url)));
+        }
+        routes.set(List.copyOf(next));
+        previous.stream()
+            .filter(route -> !next.contains(route))
+            .forEach(route -> route.meters().forEach(meterRegistry::remove));
+        LOG.info("Routing upstream requests to {}", urls);
+    }
+
+    private Route pick(final List<Route> current, final long now) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int size = current.size();
+        final int firstIndex = random.nextInt(size);
+        final Route first = current.get(firstIndex);
+        final Route second = current.get((firstIndex + 1 + random.nextInt(size - 1)) % size);
+        final boolean firstEjected = first.endpoint().isEjected(now);
+        final boolean secondEjected = second.endpoint().isEjected(now);
+        if (firstEjected && !secondEjected) {
+            return second;
+        }
+        if (secondEjected && !firstEjected) {
+            return first;
+        }
+        if (firstEjected) {
+            for (final Route route : current) {
+                if (!route.endpoint().isEjected(now)) {
+                    return route;
+                }
+            }
+        }
+        final long decayNanos = properties.getBalancer().getDecay().toNanos();
+        return first.endpoint().cost(now, decayNanos) <= second.endpoint().cost(now, decayNanos) ? first : second;
+    }
+
+    private boolean mayEject(final long now) {
+        final List<Route> current = routes.get();
+        final long ejected = current.stream().filter(route -> route.endpoint().isEjected(now)).count();
+        return ejected < current.size() * properties.getBalancer().getMaxEjectedPercent() / PERCENT;
+    }
+
+    private Route register(final String url) {
+        final UpstreamEndpoint endpoint = new UpstreamEndpoint(url, nanoClock.getAsLong());
+        final Tags tags = Tags.of(ENDPOINT_TAG, url);
+        final Counter selections = Counter.builder(SELECTIONS_METRIC)
+            .description("Upstream request attempts sent to the endpoint")
+            .tags(tags)
+            .register(meterRegistry);
+        final Counter ejections = Counter.builder(EJECTIONS_METRIC)
+            .description("Times the endpoint was ejected for consecutive failures")
+            .tags(tags)
+            .register(meterRegistry);
+        final Gauge latency = Gauge.builder("audition.upstream.endpoint.latency", endpoint,
+                e -> e.latencySeconds(nanoClock.getAsLong(), properties.getBalancer().getDecay().toNanos()))
+            .description("Moving average of the endpoint's latency as used for balancing")
+            .baseUnit("seconds")
+            .tags(tags)
+            .register(meterRegistry);
+        final Gauge inFlight = Gauge.builder("audition.upstream.endpoint.in-flight", endpoint,
+                UpstreamEndpoint::getInFlight)
+            .description("Upstream requests in flight on the endpoint")
+            .tags(tags)
+            .register(meterRegistry);
+        final Gauge ejected = Gauge.builder("audition.upstream.endpoint.ejected", endpoint,
+                e -> e.isEjectedNow() ? 1 : 0)
+            .description("1 while the endpoint is ejected")
+            .tags(tags)
+            .register(meterRegistry);
+        return new Route(endpoint, selections, ejections, List.of(selections, ejections, latency, inFlight, ejected));
+    }
+
+    private record Route(UpstreamEndpoint endpoint, Counter selections, Counter ejections, List<Meter> meters) {
+
+    }
+}
@@ -0,0 +1,122 @@
+package com.audition.integration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One upstream mirror as seen by the {@link UpstreamBalancer}: requests in flight, a peak-sensitive moving average of
+ * its latency, and its ejection state. The average jumps straight up to a slower sample and decays towards faster ones,
+ * and also towards zero while the endpoint is idle, so an avoided endpoint is eventually tried again.
+ */
+public class UpstreamEndpoint {
+
+    private final String url;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object lock = new Object();
+    private double latencyNanos;
+    private long lastSampleAt;
+    private int consecutiveFailures;
+    private long ejectedUntil;
+    private boolean ejected;
+
+    UpstreamEndpoint(final String url, final long now) {
+        this.url = url;
+        this.lastSampleAt = now;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Ends a request that was abandoned before the endpoint answered, leaving its latency and failures untouched.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records a finished request; returns true if this failure ejected the endpoint.
+     */
+    boolean finish(final long now, final long rttNanos, final boolean healthy, final long decayNanos,
+        final int failuresToEject, final long ejectionNanos, final boolean mayEject) {
+        inFlight.decrementAndGet();
+        synchronized (lock) {
+            final double retained = retained(now, decayNanos);
+            final double decayed = latencyNanos * retained;
+            latencyNanos = rttNanos > decayed ? rttNanos : decayed + rttNanos * (1 - retained);
+            lastSampleAt = now;
+            if (healthy) {
+                consecutiveFailures = 0;
+                return false;
+            }
+            consecutiveFailures++;
+            if (ejected || consecutiveFailures < failuresToEject || !mayEject) {
+                return false;
+            }
+            ejected = true;
+            ejectedUntil = now + ejectionNanos;
+            consecutiveFailures = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Expected cost of sending one more request here: the decayed latency times the requests it would queue behind.
+     */
+    double cost(final long now, final long decayNanos) {
+        final double latency;
+        synchronized (lock) {
+            latency = decayed(now, decayNanos);
+        }
+        return latency * (inFlight.get() + 1);
+    }
+
+    /**
+     * Whether the endpoint is ejected at {@code now}; an ejection that ran out is lifted here, and the endpoint starts
+     * over without latency history so that it gets probed.
+     */
+    boolean isEjected(final long now) {
+        synchronized (lock) {
+            if (ejected && now - ejectedUntil >= 0) {
+                ejected = false;
+                latencyNanos = 0;
+                lastSampleAt = now;
+            }
+            return ejected;
+        }
+    }
+
+    double latencySeconds(final long now, final long decayNanos) {
+        synchronized (lock) {
+            return decayed(now, decayNanos) / 1e9;
+        }
+    }
+
+    boolean isEjectedNow() {
+        synchronized (lock) {
+            return ejected;
+        }
+    }
+
+    private double decayed(final long now, final long decayNanos) {
+        return latencyNanos * retained(now, decayNanos);
+    }
+
+    // Share of the average that survives since the last sample: samples and idle time both pull it along over decay.
+    private double retained(final long now, final long decayNanos) {
+        return Math.exp(-Math.max(0L, now - lastSampleAt) / (double) decayNanos);
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,201 @@
+package com.audition.integration;
+
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends a second, identical request when the first has not answered within the recent latency percentile of its url
+ * template, and returns whichever succeeds first. The slower call is cancelled by interrupting its thread; a blocking
+ * socket read may still run to completion in the background, but its result is discarded. Hedges draw from their own
+ * {@link RetryBudget} so they add at most a fixed fraction of load.
+ */
+@Component
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException"})
+public class UpstreamHedgingPolicy implements DisposableBean {
+
+    static final String HEDGE_METRIC = "audition.upstream.hedges";
+    static final String OUTCOME_TAG = "outcome";
+    static final String ISSUED = "issued";
+    static final String WON = "won";
+    static final String BUDGET_EXHAUSTED = "budget_exhausted";
+    static final String REJECTED = "rejected";
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final int MIN_SAMPLES = 100;
+
+    private final transient HedgeProperties properties;
+    private final transient RetryBudget budget;
+    private final transient MeterRegistry meterRegistry;
+    private final transient ThreadPoolExecutor executor;
+    private final transient Map<String, LatencyPercentileTracker> trackers = new ConcurrentHashMap<>();
+
+    public UpstreamHedgingPolicy(final MeterRegistry meterRegistry, final HedgeProperties properties) {
+        validate(properties);
+        this.properties = properties;
+        this.budget = new RetryBudget(properties.getBudget().getRatio(), properties.getBudget().getMaxBurst());
+        this.meterRegistry = meterRegistry;
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("upstream-hedge-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), threadFactory);
+    }
+
+    /**
+     * A single upstream call; {@code hedge} is true for the second, speculative copy.
+     */
+    @FunctionalInterface
+    public interface HedgedCall<T> {
+
+        T call(boolean hedge);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Resizes the thread pool after a configuration refresh; delays and the on/off switch are read on every call.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        validate(properties);
+        executor.setMaximumPoolSize(properties.getMaxThreads());
+    }
+
+    public <T> T execute(final String uriTemplate, final HedgedCall<T> call) {
+        if (!properties.isEnabled()) {
+            return call.call(false);
+        }
+        budget.deposit();
+        final LatencyPercentileTracker tracker = trackers.computeIfAbsent(uriTemplate,
+            key -> new LatencyPercentileTracker(WINDOW_SIZE, properties.getPercentile(), MIN_SAMPLES));
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final Future<?> primary;
+        try {
+            primary = executor.submit(() -> attempt(uriTemplate, call, false, tracker, result, pending));
+        } catch (RejectedExecutionException e) {
+            return call.call(false);
+        }
+
+        Future<?> hedge = null;
+        try {
+            try {
+                return result.get(hedgeDelayNanos(tracker), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                hedge = issueHedge(uriTemplate, call, tracker, result, pending);
+            }
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SystemException("Interrupted while waiting for upstream response", SystemException.DEFAULT_TITLE,
+                HttpStatus.SERVICE_UNAVAILABLE.value(), e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    long hedgeDelayNanos(final String uriTemplate) {
+        final LatencyPercentileTracker tracker = trackers.get(uriTemplate);
+        return tracker == null ? properties.getMaxDelay().toNanos() : hedgeDelayNanos(tracker);
+    }
+
+    private long hedgeDelayNanos(final LatencyPercentileTracker tracker) {
+        final long maxDelayNanos = properties.getMaxDelay().toNanos();
+        final long observed = tracker.percentileNanos();
+        if (observed == LatencyPercentileTracker.NOT_READY) {
+            return maxDelayNanos;
+        }
+        return Math.max(properties.getMinDelay().toNanos(), Math.min(maxDelayNanos, observed));
+    }
+
+    private <T> Future<?> issueHedge(final String uriTemplate, final HedgedCall<T> call,
+        final LatencyPercentileTracker tracker, final CompletableFuture<T> result, final AtomicInteger pending) {
+        if (result.isDone()) {
+            return null;
+        }
+        if (!budget.tryWithdraw()) {
+            count(uriTemplate, BUDGET_EXHAUSTED);
+            return null;
+        }
+        pending.incrementAndGet();
+        try {
+            final Future<?> hedge = executor.submit(() -> attempt(uriTemplate, call, true, tracker, result, pending));
+            count(uriTemplate, ISSUED);
+            return hedge;
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            count(uriTemplate, REJECTED);
+            return null;
+        }
+    }
+
+    private <T> void attempt(final String uriTemplate, final HedgedCall<T> call, final boolean hedge,
+        final LatencyPercentileTracker tracker, final CompletableFuture<T> result, final AtomicInteger pending) {
+        final long start = System.nanoTime();
+        try {
+            final T value = call.call(hedge);
+            tracker.record(System.nanoTime() - start);
+            if (result.complete(value) && hedge) {
+                count(uriTemplate, WON);
+            }
+        } catch (RuntimeException e) {
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private RuntimeException unwrap(final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new SystemException("Unexpected error while waiting for upstream response",
+            SystemException.DEFAULT_TITLE, HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+    }
+
+    private static void validate(final HedgeProperties properties) {
+        if (properties.getMaxDelay().compareTo(properties.getMinDelay()) < 0 || properties.getMinDelay().isNegative()
+            || properties.getMaxThreads() < 2) {
+            throw new IllegalArgumentException("Hedging needs 0 <= minDelay <= maxDelay and maxThreads >= 2");
+        }
+    }
+
+    private void count(final String uriTemplate, final String outcome) {
+        Counter.builder(HEDGE_METRIC)
+            .description("Hedged upstream requests by outcome")
+            .tag(AuditionIntegrationClient.URI_TEMPLATE_KEY, uriTemplate)
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,35 @@
+package com.audition.integration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Where and how patiently the upstream API is called. Timeouts and balancer settings are read on every request, and
+ * the {@link UpstreamBalancer} picks up a changed base url or mirror list, so a configuration refresh applies to the
+ * next request.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("audition.upstream")
+public class UpstreamProperties {
+
+    private String baseUrl = "https://jsonplaceholder.typicode.com";
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private List<String> mirrors = new ArrayList<>();
+    private final Balancer balancer = new Balancer();
+
+    @Getter
+    @Setter
+    public static class Balancer {
+
+        private Duration decay = Duration.ofSeconds(10);
+        private int failuresToEject = 5;
+        private Duration ejectionTime = Duration.ofSeconds(30);
+        private int maxEjectedPercent = 50;
+    }
+}
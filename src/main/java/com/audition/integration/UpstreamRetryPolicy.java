@@ -0,0 +1,135 @@
+package com.audition.integration;
+
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Decides whether a failed upstream attempt is retried and how long to wait first. Only idempotent methods are
+ * retried, only on I/O errors and the configured 5xx statuses, and only while the shared {@link RetryBudget} allows it.
+ * Backoff uses decorrelated jitter: each delay is drawn uniformly between the base delay and three times the previous
+ * one, capped at the max delay.
+ */
+@Component
+public class UpstreamRetryPolicy {
+
+    static final String ATTEMPTS_METRIC = "audition.upstream.attempts";
+    static final String OUTCOME_TAG = "outcome";
+    static final String ATTEMPT_TAG = "attempt";
+    static final String SUCCESS = "success";
+    static final String RETRIED = "retried";
+    static final String FAILED = "failed";
+    static final String BUDGET_EXHAUSTED = "budget_exhausted";
+
+    private final transient RetryProperties properties;
+    private final transient MeterRegistry meterRegistry;
+    private final transient AtomicReference<RetryBudget> budget;
+
+    public UpstreamRetryPolicy(final MeterRegistry meterRegistry, final RetryProperties properties) {
+        validate(properties);
+        this.properties = properties;
+        this.budget = new AtomicReference<>(newBudget(properties));
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("audition.upstream.retry.budget", this, policy -> policy.budget.get().available())
+            .description("Retries currently available in the upstream retry budget")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the budget when a configuration refresh changed it; attempts, delays and statuses are read on every
+     * call.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        validate(properties);
+        if (!budget.get().hasSettings(properties.getBudget().getRatio(), properties.getBudget().getMaxBurst())) {
+            budget.set(newBudget(properties));
+        }
+    }
+
+    public int getMaxAttempts() {
+        return properties.getMaxAttempts();
+    }
+
+    public boolean isRetryable(final HttpMethod method) {
+        return getMaxAttempts() > 1 && (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method));
+    }
+
+    /**
+     * Called once per logical request, before the first attempt, so the budget tracks live traffic.
+     */
+    public void onRequest() {
+        budget.get().deposit();
+    }
+
+    /**
+     * Records the outcome of a failed attempt and returns whether another one should be made.
+     */
+    public boolean shouldRetry(final String uriTemplate, final int attempt, final SystemException failure) {
+        if (attempt >= getMaxAttempts() || !isRetryableFailure(failure)) {
+            recordAttempt(uriTemplate, attempt, FAILED);
+            return false;
+        }
+        if (!budget.get().tryWithdraw()) {
+            recordAttempt(uriTemplate, attempt, BUDGET_EXHAUSTED);
+            return false;
+        }
+        recordAttempt(uriTemplate, attempt, RETRIED);
+        return true;
+    }
+
+    public void onSuccess(final String uriTemplate, final int attempt) {
+        recordAttempt(uriTemplate, attempt, SUCCESS);
+    }
+
+    public Duration nextDelay(final Duration previous) {
+        final long baseDelayNanos = properties.getBaseDelay().toNanos();
+        final long maxDelayNanos = properties.getMaxDelay().toNanos();
+        final long floor = Math.max(baseDelayNanos, previous.toNanos());
+        final long upper = Math.min(maxDelayNanos, Math.max(baseDelayNanos, floor * 3));
+        final long delay = upper > baseDelayNanos
+            ? ThreadLocalRandom.current().nextLong(baseDelayNanos, upper + 1)
+            : baseDelayNanos;
+        return Duration.ofNanos(delay);
+    }
+
+    boolean isRetryableFailure(final SystemException failure) {
+        final Throwable cause = failure.getCause();
+        if (cause instanceof ResourceAccessException) {
+            return true;
+        }
+        return cause instanceof HttpServerErrorException serverError
+            && properties.getRetryOnStatus().contains(serverError.getStatusCode().value());
+    }
+
+    private static void validate(final RetryProperties properties) {
+        if (properties.getMaxAttempts() < 1 || properties.getBaseDelay().isNegative()
+            || properties.getMaxDelay().compareTo(properties.getBaseDelay()) < 0) {
+            throw new IllegalArgumentException("Retry policy needs maxAttempts >= 1 and 0 <= baseDelay <= maxDelay");
+        }
+    }
+
+    private static RetryBudget newBudget(final RetryProperties properties) {
+        return new RetryBudget(properties.getBudget().getRatio(), properties.getBudget().getMaxBurst());
+    }
+
+    private void recordAttempt(final String uriTemplate, final int attempt, final String outcome) {
+        Counter.builder(ATTEMPTS_METRIC)
+            .description("Upstream attempts by attempt number and outcome")
+            .tag(AuditionIntegrationClient.URI_TEMPLATE_KEY, uriTemplate)
+            .tag(ATTEMPT_TAG, String.valueOf(attempt))
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,20 @@
+package com.audition.model;
+
+import java.util.List;
+
+/**
+ * Aggregates over one user's posts: how many there are, how many comments they received and who wrote most of them.
+ */
+public record UserStats(int userId, int postCount, int commentCount, List<Commenter> topCommenters) {
+
+    public UserStats {
+        topCommenters = List.copyOf(topCommenters);
+    }
+
+    /**
+     * A comment author, identified by email, with the number of comments on the user's posts.
+     */
+    public record Commenter(String email, int commentCount) {
+
+    }
+}
@@ -0,0 +1,56 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionComment;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "comments", indexes = @Index(name = "idx_comments_post_id", columnList = "post_id"))
+public class CommentEntity {
+
+    @Id
+    private int id;
+
+    @Column(name = "post_id", nullable = false)
+    private int postId;
+
+    @Column(length = 1000)
+    private String name;
+
+    @Column(length = 320)
+    private String email;
+
+    @Column(length = 4000)
+    private String body;
+
+    public static CommentEntity from(final AuditionComment comment) {
+        final CommentEntity entity = new CommentEntity();
+        entity.setId(comment.getId());
+        entity.copyFrom(comment);
+        return entity;
+    }
+
+    public void copyFrom(final AuditionComment comment) {
+        this.postId = comment.getPostId();
+        this.name = comment.getName();
+        this.email = comment.getEmail();
+        this.body = comment.getBody();
+    }
+
+    public AuditionComment toModel() {
+        final AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName(name);
+        comment.setEmail(email);
+        comment.setBody(body);
+        return comment;
+    }
+}
@@ -0,0 +1,12 @@
+package com.audition.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CommentRepository extends JpaRepository<CommentEntity, Integer> {
+
+    List<CommentEntity> findByPostIdOrderByIdAsc(int postId);
+
+    List<CommentEntity> findByPostIdInOrderByIdAsc(Collection<Integer> postIds);
+}
@@ -0,0 +1,183 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionStore;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link AuditionStore} held in memory, used when the persistence profile is not active. Records are kept sorted by
+ * id, with secondary indexes from user id to post ids and from post id to comment ids. Writes are serialized; reads
+ * never lock and always return copies, since the models are mutable.
+ */
+@Component
+@ConditionalOnProperty(value = "audition.persistence.enabled", havingValue = "false", matchIfMissing = true)
+@SuppressWarnings("PMD.TooManyMethods")
+public class InMemoryAuditionStore implements AuditionStore {
+
+    private final ConcurrentNavigableMap<Integer, AuditionPost> posts = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Integer, AuditionComment> comments = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Set<Integer>> postIdsByUserId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<Integer>> commentIdsByPostId = new ConcurrentHashMap<>();
+    private final AtomicBoolean populated = new AtomicBoolean();
+    private final Object writeLock = new Object();
+
+    @Override
+    public Optional<AuditionPost> findPost(final int postId) {
+        return Optional.ofNullable(posts.get(postId)).map(InMemoryAuditionStore::copy);
+    }
+
+    @Override
+    public List<AuditionPost> findPosts() {
+        return posts.values().stream().map(InMemoryAuditionStore::copy).toList();
+    }
+
+    @Override
+    public List<AuditionPost> findPostsByUserId(final int userId) {
+        return lookup(postIdsByUserId, userId, posts, InMemoryAuditionStore::copy);
+    }
+
+    @Override
+    public List<AuditionPost> findPostsAfter(final int afterId, final int limit) {
+        return posts.tailMap(afterId, false).values().stream().limit(limit).map(InMemoryAuditionStore::copy)
+            .toList();
+    }
+
+    @Override
+    public List<AuditionComment> findCommentsByPostId(final int postId) {
+        return lookup(commentIdsByPostId, postId, comments, InMemoryAuditionStore::copy);
+    }
+
+    @Override
+    public List<AuditionComment> findCommentsByPostIds(final Collection<Integer> postIds) {
+        return postIds.stream()
+            .flatMap(postId -> commentIdsByPostId.getOrDefault(postId, Set.of()).stream())
+            .sorted()
+            .map(comments::get)
+            .filter(Objects::nonNull)
+            .map(InMemoryAuditionStore::copy)
+            .toList();
+    }
+
+    @Override
+    public Optional<AuditionComment> findComment(final int commentId) {
+        return Optional.ofNullable(comments.get(commentId)).map(InMemoryAuditionStore::copy);
+    }
+
+    @Override
+    public List<AuditionComment> findComments() {
+        return comments.values().stream().map(InMemoryAuditionStore::copy).toList();
+    }
+
+    @Override
+    public void upsertPosts(final Collection<AuditionPost> updated) {
+        synchronized (writeLock) {
+            for (final AuditionPost post : updated) {
+                put(posts, postIdsByUserId, post.getId(), copy(post), AuditionPost::getUserId);
+            }
+            if (!updated.isEmpty()) {
+                populated.set(true);
+            }
+        }
+    }
+
+    @Override
+    public void upsertComments(final Collection<AuditionComment> updated) {
+        synchronized (writeLock) {
+            for (final AuditionComment comment : updated) {
+                put(comments, commentIdsByPostId, comment.getId(), copy(comment), AuditionComment::getPostId);
+            }
+        }
+    }
+
+    @Override
+    public void deletePosts(final Collection<Integer> postIds) {
+        synchronized (writeLock) {
+            for (final Integer postId : postIds) {
+                remove(posts, postIdsByUserId, postId, AuditionPost::getUserId);
+            }
+        }
+    }
+
+    @Override
+    public void deleteComments(final Collection<Integer> commentIds) {
+        synchronized (writeLock) {
+            for (final Integer commentId : commentIds) {
+                remove(comments, commentIdsByPostId, commentId, AuditionComment::getPostId);
+            }
+        }
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return populated.get();
+    }
+
+    private static <T> void put(final Map<Integer, T> records, final Map<Integer, Set<Integer>> index, final int id,
+        final T record, final ToIntFunction<T> indexKey) {
+        final T previous = records.put(id, record);
+        final int key = indexKey.applyAsInt(record);
+        if (previous != null && indexKey.applyAsInt(previous) != key) {
+            unindex(index, indexKey.applyAsInt(previous), id);
+        }
+        index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+    }
+
+    private static <T> void remove(final Map<Integer, T> records, final Map<Integer, Set<Integer>> index,
+        final Integer id, final ToIntFunction<T> indexKey) {
+        final T previous = records.remove(id);
+        if (previous != null) {
+            unindex(index, indexKey.applyAsInt(previous), id);
+        }
+    }
+
+    private static void unindex(final Map<Integer, Set<Integer>> index, final int key, final int id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static <T> List<T> lookup(final Map<Integer, Set<Integer>> index, final int key,
+        final Map<Integer, T> records, final UnaryOperator<T> copy) {
+        final Set<Integer> ids = index.get(key);
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().map(records::get).filter(Objects::nonNull).map(copy).toList();
+    }
+
+    private static AuditionPost copy(final AuditionPost post) {
+        final AuditionPost copy = new AuditionPost();
+        copy.setId(post.getId());
+        copy.setUserId(post.getUserId());
+        copy.setTitle(post.getTitle());
+        copy.setBody(post.getBody());
+        return copy;
+    }
+
+    private static AuditionComment copy(final AuditionComment comment) {
+        final AuditionComment copy = new AuditionComment();
+        copy.setId(comment.getId());
+        copy.setPostId(comment.getPostId());
+        copy.setName(comment.getName());
+        copy.setEmail(comment.getEmail());
+        copy.setBody(comment.getBody());
+        return copy;
+    }
+}
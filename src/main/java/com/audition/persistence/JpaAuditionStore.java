@@ -0,0 +1,184 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionStore;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link AuditionStore} backed by any JDBC database through JPA. Upserts run in chunks: existing rows of a chunk are
+ * loaded with one IN query and updated through dirty checking, new rows are persisted without a lookup, and the
+ * persistence context is flushed and cleared per chunk so that JDBC batching applies and memory stays flat.
+ */
+@Component
+@ConditionalOnProperty(value = "audition.persistence.enabled", havingValue = "true")
+@SuppressWarnings("PMD.TooManyMethods")
+public class JpaAuditionStore implements AuditionStore {
+
+    private final transient PostRepository postRepository;
+    private final transient CommentRepository commentRepository;
+    private final transient EntityManager entityManager;
+    private final int batchSize;
+    private final AtomicBoolean populated = new AtomicBoolean();
+
+    public JpaAuditionStore(final PostRepository postRepository, final CommentRepository commentRepository,
+        final EntityManager entityManager,
+        @Value("${audition.persistence.batch-size:500}") final int batchSize) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AuditionPost> findPost(final int postId) {
+        return postRepository.findById(postId).map(PostEntity::toModel);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditionPost> findPosts() {
+        return postRepository.findAll().stream().map(PostEntity::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditionPost> findPostsByUserId(final int userId) {
+        return postRepository.findByUserIdOrderByIdAsc(userId).stream().map(PostEntity::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditionPost> findPostsAfter(final int afterId, final int limit) {
+        return postRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit)).stream()
+            .map(PostEntity::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditionComment> findCommentsByPostId(final int postId) {
+        return commentRepository.findByPostIdOrderByIdAsc(postId).stream().map(CommentEntity::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditionComment> findCommentsByPostIds(final Collection<Integer> postIds) {
+        return commentRepository.findByPostIdInOrderByIdAsc(postIds).stream().map(CommentEntity::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AuditionComment> findComment(final int commentId) {
+        return commentRepository.findById(commentId).map(CommentEntity::toModel);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditionComment> findComments() {
+        return commentRepository.findAll().stream().map(CommentEntity::toModel).toList();
+    }
+
+    @Override
+    @Transactional
+    public void upsertPosts(final Collection<AuditionPost> posts) {
+        upsert(posts, AuditionPost::getId, postRepository, PostEntity::getId, PostEntity::from, PostEntity::copyFrom);
+        if (!posts.isEmpty()) {
+            populated.set(true);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void upsertComments(final Collection<AuditionComment> comments) {
+        upsert(comments, AuditionComment::getId, commentRepository, CommentEntity::getId, CommentEntity::from,
+            CommentEntity::copyFrom);
+    }
+
+    @Override
+    @Transactional
+    public void deletePosts(final Collection<Integer> postIds) {
+        delete(postIds, postRepository);
+    }
+
+    @Override
+    @Transactional
+    public void deleteComments(final Collection<Integer> commentIds) {
+        delete(commentIds, commentRepository);
+    }
+
+    @Override
+    public boolean isPopulated() {
+        if (!populated.get() && postRepository.count() > 0) {
+            populated.set(true);
+        }
+        return populated.get();
+    }
+
+    private <M, E> void upsert(final Collection<M> items, final ToIntFunction<M> idOf,
+        final JpaRepository<E, Integer> repository, final Function<E, Integer> entityId,
+        final Function<M, E> create, final BiConsumer<E, M> update) {
+        final List<M> chunk = new ArrayList<>(Math.min(items.size(), batchSize));
+        for (final M item : items) {
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                upsertChunk(chunk, idOf, repository, entityId, create, update);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            upsertChunk(chunk, idOf, repository, entityId, create, update);
+        }
+    }
+
+    private void delete(final Collection<Integer> ids, final JpaRepository<?, Integer> repository) {
+        final List<Integer> chunk = new ArrayList<>(Math.min(ids.size(), batchSize));
+        for (final Integer id : ids) {
+            chunk.add(id);
+            if (chunk.size() == batchSize) {
+                repository.deleteAllByIdInBatch(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            repository.deleteAllByIdInBatch(chunk);
+        }
+    }
+
+    private <M, E> void upsertChunk(final List<M> chunk, final ToIntFunction<M> idOf,
+        final JpaRepository<E, Integer> repository, final Function<E, Integer> entityId,
+        final Function<M, E> create, final BiConsumer<E, M> update) {
+        final List<Integer> ids = chunk.stream().map(idOf::applyAsInt).toList();
+        final Map<Integer, E> existing = repository.findAllById(ids).stream()
+            .collect(Collectors.toMap(entityId, Function.identity(), (first, second) -> first, HashMap::new));
+        for (final M item : chunk) {
+            final E entity = existing.get(idOf.applyAsInt(item));
+            if (entity == null) {
+                final E created = create.apply(item);
+                entityManager.persist(created);
+                existing.put(idOf.applyAsInt(item), created);
+            } else {
+                update.accept(entity, item);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionPost;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "posts", indexes = @Index(name = "idx_posts_user_id", columnList = "user_id"))
+public class PostEntity {
+
+    // Ids come from the upstream, so they are assigned rather than generated.
+    @Id
+    private int id;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(length = 1000)
+    private String title;
+
+    @Column(length = 4000)
+    private String body;
+
+    public static PostEntity from(final AuditionPost post) {
+        final PostEntity entity = new PostEntity();
+        entity.setId(post.getId());
+        entity.copyFrom(post);
+        return entity;
+    }
+
+    public void copyFrom(final AuditionPost post) {
+        this.userId = post.getUserId();
+        this.title = post.getTitle();
+        this.body = post.getBody();
+    }
+
+    public AuditionPost toModel() {
+        final AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle(title);
+        post.setBody(body);
+        return post;
+    }
+}
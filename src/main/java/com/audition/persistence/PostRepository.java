@@ -0,0 +1,12 @@
+package com.audition.persistence;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PostRepository extends JpaRepository<PostEntity, Integer> {
+
+    List<PostEntity> findByUserIdOrderByIdAsc(int userId);
+
+    List<PostEntity> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+}
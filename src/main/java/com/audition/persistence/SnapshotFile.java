@@ -0,0 +1,180 @@
+package com.audition.persistence;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary snapshot of posts and comments. A fixed header holds a magic number, the format version, the record
+ * counts, the payload length and a CRC32 of the payload; records follow as big-endian ints and length-prefixed UTF-8
+ * strings. Files are written to a sibling and moved into place atomically, and read through a read-only memory
+ * mapping, so restoring does not copy the file through the heap before decoding it.
+ */
+public final class SnapshotFile {
+
+    static final int MAGIC = 0x41554453;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int NULL_LENGTH = -1;
+    private static final int MIN_RECORD_BYTES = 16;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * The decoded content of a snapshot.
+     */
+    public record Snapshot(List<AuditionPost> posts, List<AuditionComment> comments) {
+
+    }
+
+    public static void write(final Path path, final Collection<AuditionPost> posts,
+        final Collection<AuditionComment> comments) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        final CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temp)), crc))) {
+            out.write(new byte[HEADER_BYTES]);
+            crc.reset();
+            for (final AuditionPost post : posts) {
+                out.writeInt(post.getId());
+                out.writeInt(post.getUserId());
+                writeString(out, post.getTitle());
+                writeString(out, post.getBody());
+            }
+            for (final AuditionComment comment : comments) {
+                out.writeInt(comment.getId());
+                out.writeInt(comment.getPostId());
+                writeString(out, comment.getName());
+                writeString(out, comment.getEmail());
+                writeString(out, comment.getBody());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(posts.size())
+                .putInt(comments.size())
+                .putLong(channel.size() - HEADER_BYTES)
+                .putLong(crc.getValue())
+                .flip();
+            channel.write(header, 0);
+            channel.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps and decodes a snapshot; throws if the file is truncated, corrupt or of another format version.
+     */
+    public static Snapshot read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw invalid(path, "is too short");
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final Header header = readHeader(path, buffer, size);
+            final CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_BYTES, (int) header.payloadBytes()));
+            if (crc.getValue() != header.checksum()) {
+                throw invalid(path, "failed its checksum");
+            }
+            return decode(buffer, header.postCount(), header.commentCount());
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Snapshot " + path + " is truncated", e);
+        }
+    }
+
+    private record Header(int postCount, int commentCount, long payloadBytes, long checksum) {
+
+        boolean fits(final long fileSize) {
+            return payloadBytes == fileSize - HEADER_BYTES && postCount >= 0 && commentCount >= 0
+                && (long) postCount + commentCount <= payloadBytes / MIN_RECORD_BYTES;
+        }
+    }
+
+    private static Header readHeader(final Path path, final ByteBuffer buffer, final long size) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw invalid(path, "has an unknown format");
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw invalid(path, "has version " + version + ", expected " + VERSION);
+        }
+        final Header header = new Header(buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong());
+        if (!header.fits(size)) {
+            throw invalid(path, "has an inconsistent header");
+        }
+        return header;
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static Snapshot decode(final ByteBuffer buffer, final int postCount, final int commentCount) {
+        final List<AuditionPost> posts = new ArrayList<>(postCount);
+        for (int i = 0; i < postCount; i++) {
+            final AuditionPost post = new AuditionPost();
+            post.setId(buffer.getInt());
+            post.setUserId(buffer.getInt());
+            post.setTitle(readString(buffer));
+            post.setBody(readString(buffer));
+            posts.add(post);
+        }
+        final List<AuditionComment> comments = new ArrayList<>(commentCount);
+        for (int i = 0; i < commentCount; i++) {
+            final AuditionComment comment = new AuditionComment();
+            comment.setId(buffer.getInt());
+            comment.setPostId(buffer.getInt());
+            comment.setName(readString(buffer));
+            comment.setEmail(readString(buffer));
+            comment.setBody(readString(buffer));
+            comments.add(comment);
+        }
+        return new Snapshot(posts, comments);
+    }
+
+    private static IOException invalid(final Path path, final String reason) {
+        return new IOException("Snapshot " + path + " " + reason);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+package com.audition.persistence;
+
+import com.audition.service.AuditionStore;
+import com.audition.service.StoreSyncedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Restores the {@link AuditionStore} from a {@link SnapshotFile} while the context refreshes, before the web server
+ * accepts requests, and rewrites the snapshot in the background once data changed. A save covers the whole store, so
+ * changes are collected for {@code save-delay} and saved together rather than on the thread of each sync or write. An
+ * empty store is restored only; a store that already holds data, such as a persistent database, is left alone. A
+ * missing, corrupt or outdated snapshot is skipped and the store fills through the regular sync instead.
+ */
+@Component
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class StoreSnapshotter implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StoreSnapshotter.class);
+
+    private final boolean enabled;
+    private final transient Path path;
+    private final transient AuditionStore auditionStore;
+    private final transient MeterRegistry meterRegistry;
+    private final Duration saveDelay;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final Object saveLock = new Object();
+    private final transient ScheduledThreadPoolExecutor scheduler;
+
+    public StoreSnapshotter(final AuditionStore auditionStore, final MeterRegistry meterRegistry,
+        @Value("${audition.snapshot.enabled:true}") final boolean enabled,
+        @Value("${audition.snapshot.path:./data/audition.snapshot}") final Path path,
+        @Value("${audition.snapshot.save-delay:5s}") final Duration saveDelay) {
+        this.enabled = enabled;
+        this.path = path;
+        this.auditionStore = auditionStore;
+        this.meterRegistry = meterRegistry;
+        this.saveDelay = saveDelay;
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audition-snapshot-");
+        threadFactory.setDaemon(true);
+        // The thread is only started by the first scheduled save.
+        this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        restore();
+    }
+
+    /**
+     * Loads the snapshot into an empty store; returns whether anything was restored.
+     */
+    public boolean restore() {
+        if (!enabled || !Files.isRegularFile(path) || auditionStore.isPopulated()) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        try {
+            final SnapshotFile.Snapshot snapshot = SnapshotFile.read(path);
+            auditionStore.upsertComments(snapshot.comments());
+            auditionStore.upsertPosts(snapshot.posts());
+            final long elapsed = record("restore", start);
+            if (LOG.isInfoEnabled()) {
+                LOG.info("Restored {} posts and {} comments from {} in {} ms", snapshot.posts().size(),
+                    snapshot.comments().size(), path, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable snapshot {}; the store fills from the upstream instead", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Schedules a save unless one is already pending, which then covers these changes too.
+     */
+    @EventListener
+    public void onStoreSynced(final StoreSyncedEvent event) {
+        if (enabled && saveScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::scheduledSave, saveDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the current store content to the snapshot; returns false if it could not be written.
+     */
+    public boolean save() {
+        if (!enabled) {
+            return false;
+        }
+        synchronized (saveLock) {
+            final long start = System.nanoTime();
+            try {
+                SnapshotFile.write(path, auditionStore.findPosts(), auditionStore.findComments());
+                record("save", start);
+                return true;
+            } catch (IOException e) {
+                LOG.warn("Could not write snapshot {}", path, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Waits for a running save and writes changes still waiting for one, so a restart restores them.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        if (saveScheduled.getAndSet(false)) {
+            save();
+        }
+    }
+
+    // Cleared before reading the store, so changes made during the save schedule the next one.
+    private void scheduledSave() {
+        saveScheduled.set(false);
+        save();
+    }
+
+    private long record(final String operation, final long start) {
+        final long elapsed = System.nanoTime() - start;
+        Timer.builder("audition.snapshot.duration")
+            .description("Time to restore or save the store snapshot")
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+}
@@ -1,12 +1,20 @@
 package com.audition.service;
 
+import static com.audition.common.exception.SystemException.NOT_FOUND_ERROR_TITLE;
+
+import com.audition.common.exception.StacklessSystemException;
 import com.audition.integration.AuditionIntegrationClient;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.model.UserStats;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,30 +22,146 @@ public class AuditionService {
 
     @Autowired
     private transient AuditionIntegrationClient auditionIntegrationClient;
+    @Autowired
+    private transient PostExistenceGuard postExistenceGuard;
+    @Autowired(required = false)
+    private transient AuditionStore auditionStore;
+    @Autowired(required = false)
+    private transient PostSearchIndex postSearchIndex;
+    @Autowired(required = false)
+    private transient UserStatsAggregator userStatsAggregator;
+    @Autowired(required = false)
+    private transient PostExporter postExporter;
     private static final Logger logger = LoggerFactory.getLogger(AuditionService.class);
+    private static final String STORE_NOT_LOADED_TITLE = "Local Store Not Loaded";
 
     public List<AuditionPost> getPosts() {
         logger.info("Fetching all posts from the audition service");
+        if (servesFromStore()) {
+            return auditionStore.findPosts();
+        }
         return auditionIntegrationClient.getPosts();
     }
 
     public List<AuditionPost> getPostsByUserId(Integer userId) {
         logger.info("Fetching all posts by user id {} from the audition service", userId);
+        if (servesFromStore()) {
+            return auditionStore.findPostsByUserId(userId);
+        }
         return auditionIntegrationClient.getPostsByUserId(userId);
     }
 
+    /**
+     * Returns all posts with their comments attached, using one comments lookup for the whole list.
+     */
+    public List<AuditionPost> getPostsWithComments() {
+        logger.info("Fetching all posts with comments from the audition service");
+        if (servesFromStore()) {
+            return attachComments(auditionStore.findPosts(), auditionStore.findComments());
+        }
+        return attachComments(auditionIntegrationClient.getPosts(), auditionIntegrationClient.getComments());
+    }
+
+    /**
+     * Returns a user's posts with their comments attached, using one comments lookup for the whole list.
+     */
+    public List<AuditionPost> getPostsWithCommentsByUserId(final Integer userId) {
+        logger.info("Fetching all posts with comments by user id {} from the audition service", userId);
+        if (servesFromStore()) {
+            final List<AuditionPost> posts = auditionStore.findPostsByUserId(userId);
+            return posts.isEmpty() ? posts : attachComments(posts,
+                auditionStore.findCommentsByPostIds(posts.stream().map(AuditionPost::getId).toList()));
+        }
+        final List<AuditionPost> posts = auditionIntegrationClient.getPostsByUserId(userId);
+        // The upstream cannot filter comments by several posts in one call, so all comments are fetched once.
+        return posts.isEmpty() ? posts : attachComments(posts, auditionIntegrationClient.getComments());
+    }
+
     public AuditionPost getPostById(final int postId) {
         logger.info("Fetching a specific post from the audition service by id {}", postId);
-        return auditionIntegrationClient.getPostById(postId);
+        final Optional<AuditionPost> stored = findStoredPost(postId);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        return postExistenceGuard.lookup(postId, auditionIntegrationClient::getPostById);
     }
 
     public AuditionPost getPostWithCommentsByPostId(final int postId) {
         logger.info("Fetching all comments for a specific post from the audition service by id {}", postId);
-        return auditionIntegrationClient.getPostWithCommentsByPostId(postId);
+        final Optional<AuditionPost> stored = findStoredPost(postId);
+        if (stored.isPresent()) {
+            final AuditionPost post = stored.get();
+            post.setComments(auditionStore.findCommentsByPostId(postId));
+            return post;
+        }
+        return postExistenceGuard.lookup(postId, auditionIntegrationClient::getPostWithCommentsByPostId);
     }
 
     public List<AuditionComment> getCommentsByPostId(final int postId) {
         logger.info("Fetching all comments for a specific post from the audition service ");
+        if (servesFromStore()) {
+            return auditionStore.findCommentsByPostId(postId);
+        }
         return auditionIntegrationClient.getCommentsByPostId(postId);
     }
+
+    /**
+     * Ranks the stored posts against {@code query} and returns one page of them; never calls the upstream.
+     */
+    public PostSearchPage searchPosts(final String query, final int page, final int size) {
+        logger.info("Searching posts in the audition service, page {} of size {}", page, size);
+        requireLoadedStore("Search", postSearchIndex);
+        final int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE);
+        final PostSearchIndex.Hits hits = postSearchIndex.search(query, offset, size);
+        final List<AuditionPost> posts = hits.postIds().stream()
+            .map(auditionStore::findPost)
+            .flatMap(Optional::stream)
+            .toList();
+        return new PostSearchPage(hits.total(), posts);
+    }
+
+    /**
+     * Returns the precomputed post and comment aggregates of a user; never calls the upstream.
+     */
+    public UserStats getUserStats(final int userId) {
+        logger.info("Fetching stats for user id {} from the audition service", userId);
+        requireLoadedStore("User stats", userStatsAggregator);
+        return userStatsAggregator.find(userId).orElseThrow(() -> new StacklessSystemException(
+            "No posts found for user id " + userId, NOT_FOUND_ERROR_TITLE, HttpStatus.NOT_FOUND.value()));
+    }
+
+    /**
+     * Checks that an export can be served and returns it for streaming; never calls the upstream.
+     */
+    public PostExport exportPosts(final int afterId, final int toId) {
+        logger.info("Exporting posts with ids after {} up to {} from the audition service", afterId, toId);
+        requireLoadedStore("Export", postExporter);
+        return out -> postExporter.export(afterId, toId, out);
+    }
+
+    // Groups the comments by post id in one pass; posts without comments get an empty list.
+    private static List<AuditionPost> attachComments(final List<AuditionPost> posts,
+        final List<AuditionComment> comments) {
+        final Map<Integer, List<AuditionComment>> byPostId = comments.stream()
+            .collect(Collectors.groupingBy(AuditionComment::getPostId));
+        posts.forEach(post -> post.setComments(byPostId.getOrDefault(post.getId(), List.of())));
+        return posts;
+    }
+
+    // Features served only from local data are unavailable until the first sync or snapshot restore.
+    private void requireLoadedStore(final String feature, final Object localView) {
+        if (!servesFromStore() || localView == null) {
+            throw new StacklessSystemException(feature + " is available once the local store has loaded.",
+                STORE_NOT_LOADED_TITLE, HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    // Reads go to the local store once it holds a dataset; ids it does not know still fall back to the upstream.
+    private boolean servesFromStore() {
+        return auditionStore != null && auditionStore.isPopulated();
+    }
+
+    private Optional<AuditionPost> findStoredPost(final int postId) {
+        return servesFromStore() ? auditionStore.findPost(postId) : Optional.empty();
+    }
 }
@@ -0,0 +1,56 @@
+package com.audition.service;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local copy of the upstream posts and comments. When a populated store is available, AuditionService serves reads
+ * from it instead of calling the upstream.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public interface AuditionStore {
+
+    Optional<AuditionPost> findPost(int postId);
+
+    List<AuditionPost> findPosts();
+
+    List<AuditionPost> findPostsByUserId(int userId);
+
+    /**
+     * Returns up to {@code limit} posts with ids greater than {@code afterId}, in id order, for keyset paging.
+     */
+    List<AuditionPost> findPostsAfter(int afterId, int limit);
+
+    List<AuditionComment> findCommentsByPostId(int postId);
+
+    /**
+     * Returns the comments of all the given posts, in id order.
+     */
+    List<AuditionComment> findCommentsByPostIds(Collection<Integer> postIds);
+
+    Optional<AuditionComment> findComment(int commentId);
+
+    List<AuditionComment> findComments();
+
+    /**
+     * Inserts new posts and updates existing ones, matched by id.
+     */
+    void upsertPosts(Collection<AuditionPost> posts);
+
+    /**
+     * Inserts new comments and updates existing ones, matched by id.
+     */
+    void upsertComments(Collection<AuditionComment> comments);
+
+    void deletePosts(Collection<Integer> postIds);
+
+    void deleteComments(Collection<Integer> commentIds);
+
+    /**
+     * Whether the store holds a loaded dataset that reads can be served from.
+     */
+    boolean isPopulated();
+}
@@ -0,0 +1,408 @@
+package com.audition.service;
+
+import com.audition.common.util.ContentHash;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link AuditionStore} in step with the upstream so that reads are served locally. Every run pages through
+ * all posts and comments, compares each record's {@link ContentHash} with the one recorded on the previous run, and
+ * writes only created and changed records; ids that disappeared from a complete listing are deleted. The first run
+ * after a restart seeds the hashes from the store, so a persistent store is not rewritten. Store writes therefore
+ * scale with the change rate rather than with the dataset. A pass that changed anything publishes a
+ * {@link StoreSyncedEvent}. The startup pass runs before any other application runner, so readiness waits for it,
+ * unless the store already holds data, restored from a snapshot or kept in a database: that data is served right
+ * away and the first pass starts immediately in the background instead.
+ *
+ * <p>Records the service writes itself are reported here too, so the hashes keep describing what the store holds:
+ * a written record takes the hash of the written content and a deleted one loses its hash, so the next pass puts
+ * back whatever the upstream actually kept. Records with writes still queued for the upstream are held out of the
+ * passes until those writes are sent or rejected, and are then re-applied from the upstream.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException", "PMD.ExcessiveImports",
+    "PMD.TooManyMethods"})
+public class AuditionStoreSync implements ApplicationRunner, DisposableBean {
+
+    static final String ITEMS_METRIC = "audition.sync.items";
+    static final String KIND_TAG = "kind";
+    static final String CHANGE_TAG = "change";
+    static final String POST = "post";
+    static final String COMMENT = "comment";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuditionStoreSync.class);
+
+    private final boolean enabled;
+    private final boolean syncOnStartup;
+    private final Duration interval;
+    private final transient Clock clock;
+    private final transient AuditionStore auditionStore;
+    private final transient MeterRegistry meterRegistry;
+    private final transient ApplicationEventPublisher eventPublisher;
+    private final transient SyncedKind<AuditionPost> posts;
+    private final transient SyncedKind<AuditionComment> comments;
+    private final transient ScheduledExecutorService scheduler;
+    private final AtomicLong lastSuccessMillis = new AtomicLong();
+    private final long startedMillis;
+    private final Object syncLock = new Object();
+    private boolean seeded;
+
+    @Autowired
+    public AuditionStoreSync(final AuditionStore auditionStore, final AuditionIntegrationClient client,
+        final MeterRegistry meterRegistry, final ApplicationEventPublisher eventPublisher,
+        @Value("${audition.sync.enabled:true}") final boolean enabled,
+        @Value("${audition.sync.on-startup:true}") final boolean syncOnStartup,
+        @Value("${audition.sync.interval:60s}") final Duration interval,
+        @Value("${audition.sync.page-size:100}") final int pageSize) {
+        this(auditionStore, client, meterRegistry, eventPublisher, enabled, syncOnStartup, interval, pageSize,
+            Clock.systemUTC());
+    }
+
+    AuditionStoreSync(final AuditionStore auditionStore, final AuditionIntegrationClient client,
+        final MeterRegistry meterRegistry, final ApplicationEventPublisher eventPublisher, final boolean enabled,
+        final boolean syncOnStartup, final Duration interval, final int pageSize, final Clock clock) {
+        if (pageSize < 1 || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Sync needs a positive interval and page size");
+        }
+        this.enabled = enabled;
+        this.syncOnStartup = syncOnStartup;
+        this.interval = interval;
+        this.clock = clock;
+        this.auditionStore = auditionStore;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.startedMillis = clock.millis();
+        this.posts = new SyncedKind<>(POST, pageSize, client::getPostsPage, AuditionPost::getId,
+            post -> ContentHash.hash(post.getUserId(), post.getTitle(), post.getBody()),
+            auditionStore::upsertPosts, auditionStore::deletePosts, auditionStore::findPosts,
+            id -> auditionStore.findPost(id).isPresent());
+        this.comments = new SyncedKind<>(COMMENT, pageSize, client::getCommentsPage, AuditionComment::getId,
+            comment -> ContentHash.hash(comment.getPostId(), comment.getName(), comment.getEmail(),
+                comment.getBody()),
+            auditionStore::upsertComments, auditionStore::deleteComments, auditionStore::findComments,
+            id -> auditionStore.findComment(id).isPresent());
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audition-sync-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        Gauge.builder("audition.sync.last-success", lastSuccessMillis, millis -> millis.get() / 1000.0)
+            .description("Epoch seconds of the last successful sync, 0 before the first one")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("audition.sync.lag", this, AuditionStoreSync::lagSeconds)
+            .description("Seconds since the local store last matched the upstream")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        final long intervalMillis = interval.toMillis();
+        long firstDelayMillis = intervalMillis;
+        if (syncOnStartup && auditionStore.isPopulated()) {
+            firstDelayMillis = 0;
+        } else if (syncOnStartup) {
+            sync();
+        }
+        scheduler.scheduleWithFixedDelay(this::sync, firstDelayMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs one sync pass; returns false if it failed, in which case nothing is deleted.
+     */
+    public boolean sync() {
+        synchronized (syncLock) {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                if (!seeded) {
+                    posts.seed();
+                    comments.seed();
+                    seeded = true;
+                }
+                // Comments first, so that a post is never served before its comments are available.
+                final RecordChanges commentChanges = comments.sync();
+                final RecordChanges postChanges = posts.sync();
+                lastSuccessMillis.set(clock.millis());
+                final StoreSyncedEvent event = new StoreSyncedEvent(postChanges, commentChanges);
+                if (event.changes() > 0) {
+                    eventPublisher.publishEvent(event);
+                }
+                sample.stop(syncTimer("success"));
+                return true;
+            } catch (RuntimeException e) {
+                // Upstream and store failures alike; an escaping exception would cancel the scheduled task.
+                sample.stop(syncTimer("failure"));
+                LOG.warn("Sync with the upstream failed; serving the last synced data", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Records a post the service wrote to the upstream and the store; the next pass changes it only if the upstream
+     * kept something else, and deletes it if the upstream does not list it.
+     */
+    public void postWritten(final AuditionPost post) {
+        posts.written(post);
+    }
+
+    /**
+     * Records a comment the service wrote to the upstream and the store, as {@link #postWritten} does for posts.
+     */
+    public void commentWritten(final AuditionComment comment) {
+        comments.written(comment);
+    }
+
+    /**
+     * Records a {@code post} or {@code comment} the service deleted; the next pass adds it back if the upstream still
+     * lists it.
+     */
+    public void deleted(final String kind, final int id) {
+        kind(kind).deletedLocally(id);
+    }
+
+    /**
+     * Keeps passes from changing or deleting a record whose local change is still queued for the upstream.
+     */
+    public void hold(final String kind, final int id) {
+        kind(kind).hold(id);
+    }
+
+    /**
+     * Ends a {@link #hold}: the next pass re-applies the record from the upstream even if its content hash did not
+     * change, deletes it if the upstream no longer lists it, and adds it back if it was deleted locally only.
+     */
+    public void invalidate(final String kind, final int id) {
+        kind(kind).invalidate(id);
+    }
+
+    private SyncedKind<?> kind(final String kind) {
+        return switch (kind) {
+            case POST -> posts;
+            case COMMENT -> comments;
+            default -> throw new IllegalArgumentException("Unknown record kind " + kind);
+        };
+    }
+
+    double lagSeconds() {
+        final long since = lastSuccessMillis.get() == 0 ? startedMillis : lastSuccessMillis.get();
+        return (clock.millis() - since) / 1000.0;
+    }
+
+    private Timer syncTimer(final String outcome) {
+        return Timer.builder("audition.sync.duration")
+            .description("Duration of a full sync pass")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Counter itemCounter(final String kind, final String change) {
+        return Counter.builder(ITEMS_METRIC)
+            .description("Synced records by kind and change")
+            .tag(KIND_TAG, kind)
+            .tag(CHANGE_TAG, change)
+            .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface PageFetcher<T> {
+
+        List<T> fetch(int start, int limit);
+    }
+
+    /**
+     * Sync state and store operations of one record kind.
+     */
+    @SuppressWarnings("PMD.TooManyFields")
+    private final class SyncedKind<T> {
+
+        private final String kind;
+        private final int pageSize;
+        private final PageFetcher<T> fetcher;
+        private final ToIntFunction<T> idOf;
+        private final ToLongFunction<T> hashOf;
+        private final Consumer<List<T>> upsert;
+        private final Consumer<Set<Integer>> delete;
+        private final Supplier<List<T>> stored;
+        private final IntPredicate present;
+        private final Map<Integer, Long> hashes = new ConcurrentHashMap<>();
+        private final Set<Integer> held = ConcurrentHashMap.newKeySet();
+        private final Set<Integer> recheck = ConcurrentHashMap.newKeySet();
+        // Orders store writes of a pass against the service's own writes and holds.
+        private final Object lock = new Object();
+        private final Counter created;
+        private final Counter updated;
+        private final Counter unchanged;
+        private final Counter deleted;
+
+        SyncedKind(final String kind, final int pageSize, final PageFetcher<T> fetcher, final ToIntFunction<T> idOf,
+            final ToLongFunction<T> hashOf, final Consumer<List<T>> upsert, final Consumer<Set<Integer>> delete,
+            final Supplier<List<T>> stored, final IntPredicate present) {
+            this.kind = kind;
+            this.pageSize = pageSize;
+            this.fetcher = fetcher;
+            this.idOf = idOf;
+            this.hashOf = hashOf;
+            this.upsert = upsert;
+            this.delete = delete;
+            this.stored = stored;
+            this.present = present;
+            this.created = itemCounter(kind, "created");
+            this.updated = itemCounter(kind, "updated");
+            this.unchanged = itemCounter(kind, "unchanged");
+            this.deleted = itemCounter(kind, "deleted");
+        }
+
+        void seed() {
+            for (final T item : stored.get()) {
+                hashes.put(idOf.applyAsInt(item), hashOf.applyAsLong(item));
+            }
+        }
+
+        void written(final T item) {
+            final int id = idOf.applyAsInt(item);
+            hashes.put(id, hashOf.applyAsLong(item));
+            recheck.remove(id);
+        }
+
+        void deletedLocally(final int id) {
+            hashes.remove(id);
+            recheck.remove(id);
+        }
+
+        void hold(final int id) {
+            synchronized (lock) {
+                held.add(id);
+            }
+        }
+
+        void invalidate(final int id) {
+            synchronized (lock) {
+                held.remove(id);
+                if (present.test(id)) {
+                    recheck.add(id);
+                } else {
+                    hashes.remove(id);
+                }
+            }
+        }
+
+        /**
+         * Returns the ids of the records this pass created, updated and deleted.
+         */
+        RecordChanges sync() {
+            final Set<Integer> createdIds = new HashSet<>();
+            final Set<Integer> updatedIds = new HashSet<>();
+            final Set<Integer> seen = new HashSet<>();
+            for (int start = 0; ; start += pageSize) {
+                final List<T> page = fetcher.fetch(start, pageSize);
+                final int seenBefore = seen.size();
+                apply(page, seen, createdIds, updatedIds);
+                // A repeated id means the upstream ignored the paging parameters and returned everything.
+                if (page.size() < pageSize || seen.size() - seenBefore < page.size()) {
+                    break;
+                }
+            }
+            final Set<Integer> removed = new HashSet<>(hashes.keySet());
+            removed.removeAll(seen);
+            synchronized (lock) {
+                removed.removeAll(held);
+                if (!removed.isEmpty()) {
+                    delete.accept(removed);
+                    hashes.keySet().removeAll(removed);
+                    recheck.removeAll(removed);
+                    deleted.increment(removed.size());
+                }
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Synced {} {} records, {} deleted", seen.size(), kind, removed.size());
+            }
+            return new RecordChanges(createdIds, updatedIds, removed);
+        }
+
+        private void apply(final List<T> page, final Set<Integer> seen, final Set<Integer> createdIds,
+            final Set<Integer> updatedIds) {
+            final List<T> changed = new ArrayList<>();
+            final List<Long> changedHashes = new ArrayList<>();
+            final Set<Integer> pageCreated = new HashSet<>();
+            synchronized (lock) {
+                for (final T item : page) {
+                    final int id = idOf.applyAsInt(item);
+                    if (!seen.add(id) || held.contains(id)) {
+                        continue;
+                    }
+                    final long hash = hashOf.applyAsLong(item);
+                    final Long previous = hashes.get(id);
+                    final boolean rechecked = recheck.remove(id);
+                    if (previous != null && previous == hash && !rechecked) {
+                        unchanged.increment();
+                        continue;
+                    }
+                    if (previous == null) {
+                        pageCreated.add(id);
+                    }
+                    changed.add(item);
+                    changedHashes.add(hash);
+                }
+                store(changed, changedHashes, pageCreated, createdIds, updatedIds);
+            }
+        }
+
+        private void store(final List<T> changed, final List<Long> changedHashes, final Set<Integer> pageCreated,
+            final Set<Integer> createdIds, final Set<Integer> updatedIds) {
+            if (!changed.isEmpty()) {
+                upsert.accept(changed);
+                for (int i = 0; i < changed.size(); i++) {
+                    final int id = idOf.applyAsInt(changed.get(i));
+                    hashes.put(id, changedHashes.get(i));
+                    (pageCreated.contains(id) ? createdIds : updatedIds).add(id);
+                }
+                created.increment(pageCreated.size());
+                updated.increment(changed.size() - pageCreated.size());
+            }
+        }
+    }
+}
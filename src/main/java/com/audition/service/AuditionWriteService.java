@@ -0,0 +1,262 @@
+package com.audition.service;
+
+import static com.audition.common.exception.SystemException.NOT_FOUND_ERROR_TITLE;
+
+import com.audition.common.exception.StacklessSystemException;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates, updates and deletes posts and comments. Creates always go to the upstream, which assigns the id. Updates
+ * and deletes go to the upstream as well, unless write-behind is enabled and the local store is loaded: then they are
+ * queued on the {@link WriteBehindQueue}, applied to the store and acknowledged; a full queue rejects the write
+ * before anything changes locally, and a write the upstream rejects later is reverted. Whenever the store is loaded
+ * it is updated with the result, and a {@link StoreSyncedEvent} brings the search index, user stats and change feed
+ * along. Every local change is reported to the {@link AuditionStoreSync}, so later passes still converge on what the
+ * upstream actually kept. A patch is merged into the current record and written as a full update.
+ */
+@Service
+@SuppressWarnings("PMD.TooManyMethods")
+public class AuditionWriteService {
+
+    private static final String POST = "post";
+    private static final String COMMENT = "comment";
+    private static final Logger LOG = LoggerFactory.getLogger(AuditionWriteService.class);
+
+    @Autowired
+    private transient AuditionIntegrationClient auditionIntegrationClient;
+    @Autowired
+    private transient AuditionService auditionService;
+    @Autowired
+    private transient PostExistenceGuard postExistenceGuard;
+    @Autowired
+    private transient WriteBehindQueue writeBehindQueue;
+    @Autowired
+    private transient ApplicationEventPublisher eventPublisher;
+    @Autowired(required = false)
+    private transient AuditionStore auditionStore;
+    @Autowired(required = false)
+    private transient AuditionStoreSync auditionStoreSync;
+
+    public AuditionPost createPost(final AuditionPost post) {
+        LOG.info("Creating a post in the audition service");
+        post.setComments(null);
+        final AuditionPost created = auditionIntegrationClient.createPost(post);
+        postExistenceGuard.recordExists(created.getId());
+        if (servesFromStore()) {
+            auditionStore.upsertPosts(List.of(created));
+            auditionStoreSync.postWritten(created);
+            publishPostChanges(new RecordChanges(Set.of(created.getId()), Set.of(), Set.of()));
+        }
+        return created;
+    }
+
+    public WriteResult<AuditionPost> updatePost(final int postId, final AuditionPost post) {
+        LOG.info("Updating post with id {} in the audition service", postId);
+        post.setId(postId);
+        post.setComments(null);
+        if (writesBehind()) {
+            writeBehindQueue.submit(POST, postId, () -> auditionIntegrationClient.updatePost(postId, post), () -> {
+                final AuditionPost previous = storedPost(postId);
+                auditionStoreSync.hold(POST, postId);
+                auditionStore.upsertPosts(List.of(post));
+                publishPostChanges(new RecordChanges(Set.of(), Set.of(postId), Set.of()));
+                return revertTo(previous);
+            });
+            return new WriteResult<>(post, true);
+        }
+        final AuditionPost updated = auditionIntegrationClient.updatePost(postId, post);
+        if (servesFromStore()) {
+            auditionStore.upsertPosts(List.of(updated));
+            auditionStoreSync.postWritten(updated);
+            publishPostChanges(new RecordChanges(Set.of(), Set.of(updated.getId()), Set.of()));
+        }
+        return new WriteResult<>(updated, false);
+    }
+
+    /**
+     * Applies the given title, body and user id, where set, to the current post.
+     */
+    public WriteResult<AuditionPost> patchPost(final int postId, final AuditionPost patch) {
+        final AuditionPost current = auditionService.getPostById(postId);
+        if (patch.getUserId() != 0) {
+            current.setUserId(patch.getUserId());
+        }
+        if (patch.getTitle() != null) {
+            current.setTitle(patch.getTitle());
+        }
+        if (patch.getBody() != null) {
+            current.setBody(patch.getBody());
+        }
+        return updatePost(postId, current);
+    }
+
+    /**
+     * Deletes a post; returns true if the delete is still queued for the upstream.
+     */
+    public boolean deletePost(final int postId) {
+        LOG.info("Deleting post with id {} in the audition service", postId);
+        if (writesBehind()) {
+            writeBehindQueue.submit(POST, postId, () -> auditionIntegrationClient.deletePost(postId), () -> {
+                final AuditionPost previous = storedPost(postId);
+                auditionStoreSync.hold(POST, postId);
+                auditionStore.deletePosts(List.of(postId));
+                publishPostChanges(new RecordChanges(Set.of(), Set.of(), Set.of(postId)));
+                return revertTo(previous);
+            });
+            return true;
+        }
+        auditionIntegrationClient.deletePost(postId);
+        if (servesFromStore()) {
+            auditionStore.deletePosts(List.of(postId));
+            auditionStoreSync.deleted(POST, postId);
+            publishPostChanges(new RecordChanges(Set.of(), Set.of(), Set.of(postId)));
+        }
+        return false;
+    }
+
+    public AuditionComment createComment(final AuditionComment comment) {
+        LOG.info("Creating a comment in the audition service");
+        final AuditionComment created = auditionIntegrationClient.createComment(comment);
+        if (servesFromStore()) {
+            auditionStore.upsertComments(List.of(created));
+            auditionStoreSync.commentWritten(created);
+            publishCommentChanges(new RecordChanges(Set.of(created.getId()), Set.of(), Set.of()));
+        }
+        return created;
+    }
+
+    public WriteResult<AuditionComment> updateComment(final int commentId, final AuditionComment comment) {
+        LOG.info("Updating comment with id {} in the audition service", commentId);
+        comment.setId(commentId);
+        if (writesBehind()) {
+            writeBehindQueue.submit(COMMENT, commentId,
+                () -> auditionIntegrationClient.updateComment(commentId, comment), () -> {
+                    final AuditionComment previous = storedComment(commentId);
+                    auditionStoreSync.hold(COMMENT, commentId);
+                    auditionStore.upsertComments(List.of(comment));
+                    publishCommentChanges(new RecordChanges(Set.of(), Set.of(commentId), Set.of()));
+                    return revertTo(previous);
+                });
+            return new WriteResult<>(comment, true);
+        }
+        final AuditionComment updated = auditionIntegrationClient.updateComment(commentId, comment);
+        if (servesFromStore()) {
+            auditionStore.upsertComments(List.of(updated));
+            auditionStoreSync.commentWritten(updated);
+            publishCommentChanges(new RecordChanges(Set.of(), Set.of(updated.getId()), Set.of()));
+        }
+        return new WriteResult<>(updated, false);
+    }
+
+    /**
+     * Applies the given post id, name, email and body, where set, to the current comment.
+     */
+    public WriteResult<AuditionComment> patchComment(final int commentId, final AuditionComment patch) {
+        final AuditionComment current = servesFromStore()
+            ? auditionStore.findComment(commentId).orElseThrow(() -> notFound(COMMENT, commentId))
+            : auditionIntegrationClient.getCommentById(commentId);
+        if (patch.getPostId() != 0) {
+            current.setPostId(patch.getPostId());
+        }
+        if (patch.getName() != null) {
+            current.setName(patch.getName());
+        }
+        if (patch.getEmail() != null) {
+            current.setEmail(patch.getEmail());
+        }
+        if (patch.getBody() != null) {
+            current.setBody(patch.getBody());
+        }
+        return updateComment(commentId, current);
+    }
+
+    /**
+     * Deletes a comment; returns true if the delete is still queued for the upstream.
+     */
+    public boolean deleteComment(final int commentId) {
+        LOG.info("Deleting comment with id {} in the audition service", commentId);
+        if (writesBehind()) {
+            writeBehindQueue.submit(COMMENT, commentId, () -> auditionIntegrationClient.deleteComment(commentId),
+                () -> {
+                    final AuditionComment previous = storedComment(commentId);
+                    auditionStoreSync.hold(COMMENT, commentId);
+                    auditionStore.deleteComments(List.of(commentId));
+                    publishCommentChanges(new RecordChanges(Set.of(), Set.of(), Set.of(commentId)));
+                    return revertTo(previous);
+                });
+            return true;
+        }
+        auditionIntegrationClient.deleteComment(commentId);
+        if (servesFromStore()) {
+            auditionStore.deleteComments(List.of(commentId));
+            auditionStoreSync.deleted(COMMENT, commentId);
+            publishCommentChanges(new RecordChanges(Set.of(), Set.of(), Set.of(commentId)));
+        }
+        return false;
+    }
+
+    private void publishPostChanges(final RecordChanges changes) {
+        eventPublisher.publishEvent(new StoreSyncedEvent(changes, RecordChanges.NONE));
+    }
+
+    private void publishCommentChanges(final RecordChanges changes) {
+        eventPublisher.publishEvent(new StoreSyncedEvent(RecordChanges.NONE, changes));
+    }
+
+    // Deferred writes are acknowledged against the local store, so records it does not hold cannot be written.
+    private AuditionPost storedPost(final int postId) {
+        return auditionStore.findPost(postId).orElseThrow(() -> notFound(POST, postId));
+    }
+
+    private AuditionComment storedComment(final int commentId) {
+        return auditionStore.findComment(commentId).orElseThrow(() -> notFound(COMMENT, commentId));
+    }
+
+    // Puts back the record as it was before its first unsent write, and hands it back to the sync either way.
+    private WriteBehindQueue.LocalChange revertTo(final AuditionPost previous) {
+        final int postId = previous.getId();
+        return new WriteBehindQueue.LocalChange(() -> {
+            final boolean present = auditionStore.findPost(postId).isPresent();
+            auditionStore.upsertPosts(List.of(previous));
+            publishPostChanges(restored(postId, present));
+        }, () -> auditionStoreSync.invalidate(POST, postId));
+    }
+
+    private WriteBehindQueue.LocalChange revertTo(final AuditionComment previous) {
+        final int commentId = previous.getId();
+        return new WriteBehindQueue.LocalChange(() -> {
+            final boolean present = auditionStore.findComment(commentId).isPresent();
+            auditionStore.upsertComments(List.of(previous));
+            publishCommentChanges(restored(commentId, present));
+        }, () -> auditionStoreSync.invalidate(COMMENT, commentId));
+    }
+
+    private static RecordChanges restored(final int id, final boolean present) {
+        return present ? new RecordChanges(Set.of(), Set.of(id), Set.of())
+            : new RecordChanges(Set.of(id), Set.of(), Set.of());
+    }
+
+    private static StacklessSystemException notFound(final String kind, final int id) {
+        return new StacklessSystemException("No " + kind + " found with id " + id, NOT_FOUND_ERROR_TITLE,
+            HttpStatus.NOT_FOUND.value());
+    }
+
+    // Acknowledging locally needs a loaded store; before that, writes go straight to the upstream.
+    private boolean writesBehind() {
+        return writeBehindQueue.isEnabled() && servesFromStore();
+    }
+
+    private boolean servesFromStore() {
+        return auditionStore != null && auditionStore.isPopulated();
+    }
+}
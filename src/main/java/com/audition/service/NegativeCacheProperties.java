@@ -0,0 +1,32 @@
+package com.audition.service;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link PostExistenceGuard}. The TTL of remembered misses can be changed by a configuration
+ * refresh and applies to misses remembered from then on; the rest is fixed at startup.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("audition.negative-cache")
+public class NegativeCacheProperties {
+
+    private boolean enabled = true;
+    private Duration ttl = Duration.ofSeconds(30);
+    private int maxEntries = 10_000;
+    private final Bloom bloom = new Bloom();
+
+    @Getter
+    @Setter
+    public static class Bloom {
+
+        private boolean enabled;
+        private int knownIdMin = 1;
+        private int knownIdMax = 100;
+        private int expectedIds = 10_000;
+        private double falsePositiveProbability = 0.01;
+    }
+}
@@ -0,0 +1,125 @@
+package com.audition.service;
+
+import com.audition.common.cache.BloomFilter;
+import com.audition.common.cache.NegativeCache;
+import com.audition.common.exception.StacklessSystemException;
+import com.audition.common.exception.SystemException;
+import com.audition.common.profiling.CacheLookupEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.IntFunction;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers lookups for post ids that are known not to exist without calling the upstream. Ids the upstream recently
+ * answered with 404 are remembered in a short-lived {@link NegativeCache}. Optionally, a {@link BloomFilter} of existing
+ * ids, seeded from the configured known id range, rejects ids that were never seen; enable it only when the id space
+ * is known up front, because ids outside the filter are never fetched.
+ */
+@Component
+public class PostExistenceGuard {
+
+    static final String HITS_METRIC = "audition.negative-cache.hits";
+    static final String SOURCE_TAG = "source";
+
+    private final boolean enabled;
+    private final boolean bloomEnabled;
+    private final transient NegativeCacheProperties properties;
+    private final transient NegativeCache missingPosts;
+    private final transient BloomFilter knownPosts;
+    private final transient Counter cacheHits;
+    private final transient Counter bloomHits;
+
+    public PostExistenceGuard(final MeterRegistry meterRegistry, final NegativeCacheProperties properties) {
+        final NegativeCacheProperties.Bloom bloom = properties.getBloom();
+        this.enabled = properties.isEnabled();
+        this.properties = properties;
+        this.missingPosts = new NegativeCache(properties.getTtl().toNanos(), properties.getMaxEntries(),
+            System::nanoTime);
+        this.bloomEnabled = enabled && bloom.isEnabled();
+        this.knownPosts = seededFilter(bloom.getKnownIdMin(), bloom.getKnownIdMax(), bloom.getExpectedIds(),
+            bloom.getFalsePositiveProbability());
+        this.cacheHits = hitCounter(meterRegistry, "cache");
+        this.bloomHits = hitCounter(meterRegistry, "bloom");
+        Gauge.builder("audition.negative-cache.size", missingPosts, NegativeCache::size)
+            .description("Post ids currently remembered as missing")
+            .register(meterRegistry);
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        missingPosts.setTtlNanos(properties.getTtl().toNanos());
+    }
+
+    /**
+     * Loads the post unless it is known to be missing, and remembers the id if the upstream answers 404.
+     */
+    public <T> T lookup(final int postId, final IntFunction<T> loader) {
+        if (!enabled) {
+            return loader.apply(postId);
+        }
+        if (isKnownMissing(postId)) {
+            throw notFound(postId);
+        }
+        try {
+            return loader.apply(postId);
+        } catch (SystemException e) {
+            if (Integer.valueOf(HttpStatus.NOT_FOUND.value()).equals(e.getStatusCode())) {
+                missingPosts.put(postId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Records that a post exists, e.g. after it was created locally.
+     */
+    public void recordExists(final int postId) {
+        missingPosts.invalidate(postId);
+        knownPosts.put(postId);
+    }
+
+    private boolean isKnownMissing(final int postId) {
+        if (bloomEnabled) {
+            final CacheLookupEvent event = CacheLookupEvent.start("post-bloom-filter");
+            final boolean rejected = !knownPosts.mightContain(postId);
+            event.finish(rejected);
+            if (rejected) {
+                bloomHits.increment();
+                return true;
+            }
+        }
+        final CacheLookupEvent event = CacheLookupEvent.start("post-negative-cache");
+        final boolean missing = missingPosts.contains(postId);
+        event.finish(missing);
+        if (missing) {
+            cacheHits.increment();
+        }
+        return missing;
+    }
+
+    private static BloomFilter seededFilter(final int knownIdMin, final int knownIdMax, final int expectedIds,
+        final double fpp) {
+        final BloomFilter filter = new BloomFilter(Math.max(expectedIds, knownIdMax - knownIdMin + 1), fpp);
+        for (int id = knownIdMin; id <= knownIdMax; id++) {
+            filter.put(id);
+        }
+        return filter;
+    }
+
+    private static Counter hitCounter(final MeterRegistry meterRegistry, final String source) {
+        return Counter.builder(HITS_METRIC)
+            .description("Post lookups answered locally as not found")
+            .tag(SOURCE_TAG, source)
+            .register(meterRegistry);
+    }
+
+    private static SystemException notFound(final int postId) {
+        return new StacklessSystemException("No post found with id " + postId, SystemException.NOT_FOUND_ERROR_TITLE,
+            HttpStatus.NOT_FOUND.value());
+    }
+}
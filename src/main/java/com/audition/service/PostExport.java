@@ -0,0 +1,16 @@
+package com.audition.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An export whose checks have passed and whose data is read only while it is written, so the caller can stream it.
+ */
+@FunctionalInterface
+public interface PostExport {
+
+    /**
+     * Writes the export to {@code out} without closing it.
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
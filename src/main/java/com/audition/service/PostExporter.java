@@ -0,0 +1,74 @@
+package com.audition.service;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes posts with their comments attached as newline-delimited JSON, one post per line in id order. The store is
+ * read in keyset pages of {@code page-size} posts with one comments lookup per page, so memory stays flat however
+ * large the dataset is. Ids are stable, so a client that lost the connection resumes after the last id it received;
+ * a post changed while an export runs is written as it was when its page was read.
+ */
+@Component
+public class PostExporter {
+
+    private final transient AuditionStore auditionStore;
+    private final transient ObjectWriter writer;
+    private final int pageSize;
+    private final Counter exported;
+
+    public PostExporter(final AuditionStore auditionStore, final ObjectMapper objectMapper,
+        final MeterRegistry meterRegistry, @Value("${audition.export.page-size:500}") final int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Export needs a positive page size");
+        }
+        this.auditionStore = auditionStore;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.pageSize = pageSize;
+        this.exported = Counter.builder("audition.export.posts")
+            .description("Posts written by exports")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Writes the posts with ids greater than {@code afterId} and at most {@code toId}; does not close {@code out}.
+     */
+    public void export(final int afterId, final int toId, final OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int cursor = afterId;
+            boolean more = cursor < toId;
+            while (more) {
+                final List<AuditionPost> fetched = auditionStore.findPostsAfter(cursor, pageSize);
+                final List<AuditionPost> page = fetched.stream().filter(post -> post.getId() <= toId).toList();
+                if (page.isEmpty()) {
+                    break;
+                }
+                final Map<Integer, List<AuditionComment>> comments = auditionStore.findCommentsByPostIds(
+                    page.stream().map(AuditionPost::getId).toList()).stream()
+                    .collect(Collectors.groupingBy(AuditionComment::getPostId));
+                for (final AuditionPost post : page) {
+                    post.setComments(comments.getOrDefault(post.getId(), List.of()));
+                    writer.writeValue(generator, post);
+                    generator.writeRaw('\n');
+                }
+                exported.increment(page.size());
+                cursor = page.get(page.size() - 1).getId();
+                more = fetched.size() == pageSize && cursor < toId;
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.audition.service;
+
+import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over post titles and bodies, answering searches without touching the store or the upstream.
+ * Text is split into lower-cased runs of letters and digits; each term maps to the ids of the posts containing it,
+ * sorted, and their term frequencies, held in primitive arrays. Title terms count {@value #TITLE_WEIGHT} times. Hits
+ * are ranked with BM25 and ties go to the lower post id.
+ *
+ * <p>The index is built from the store on first use and then follows {@link StoreSyncedEvent}s, re-tokenizing only
+ * the posts that changed. Writes are serialized; a posting list is never modified in place but replaced, so searches
+ * run without locking.
+ */
+@Component
+public class PostSearchIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedPost> indexed = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+    private final Object writeLock = new Object();
+    private final transient AuditionStore auditionStore;
+    private final AtomicBoolean built = new AtomicBoolean();
+
+    public PostSearchIndex(final AuditionStore auditionStore, final MeterRegistry meterRegistry) {
+        this.auditionStore = auditionStore;
+        Gauge.builder("audition.search.posts", indexed, Map::size)
+            .description("Posts in the search index")
+            .register(meterRegistry);
+        Gauge.builder("audition.search.terms", postings, Map::size)
+            .description("Distinct terms in the search index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * One page of ranked post ids, with the number of matching posts across all pages.
+     */
+    public record Hits(int total, List<Integer> postIds) {
+
+        public Hits {
+            postIds = List.copyOf(postIds);
+        }
+    }
+
+    /**
+     * Returns the posts matching any term of {@code query}, best first; empty while the store holds no data yet.
+     */
+    public Hits search(final String query, final int offset, final int limit) {
+        ensureBuilt();
+        final int postCount = indexed.size();
+        if (postCount == 0) {
+            return new Hits(0, List.of());
+        }
+        final double averageLength = (double) totalLength.get() / postCount;
+        Scores scores = Scores.NONE;
+        for (final String term : new LinkedHashSet<>(tokenize(query))) {
+            final Postings list = postings.get(term);
+            if (list != null) {
+                scores = scores.plus(list, postCount, averageLength);
+            }
+        }
+        return new Hits(scores.size(), scores.top(offset, limit));
+    }
+
+    @EventListener
+    public void onStoreSynced(final StoreSyncedEvent event) {
+        synchronized (writeLock) {
+            if (!built.get()) {
+                rebuild();
+                return;
+            }
+            event.deletedPostIds().forEach(this::remove);
+            for (final Integer postId : event.changedPostIds()) {
+                auditionStore.findPost(postId).ifPresentOrElse(this::index, () -> remove(postId));
+            }
+        }
+    }
+
+    int size() {
+        return indexed.size();
+    }
+
+    static List<String> tokenize(final String text) {
+        if (text == null) {
+            return List.of();
+        }
+        final List<String> terms = new ArrayList<>();
+        final StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            final char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(c);
+                }
+            } else if (term.length() > 0) {
+                terms.add(term.toString().toLowerCase(Locale.ROOT));
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    private void ensureBuilt() {
+        if (!built.get()) {
+            synchronized (writeLock) {
+                if (!built.get()) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    // Stays unbuilt while the store is empty, so the first sync or search after it fills builds the index.
+    private void rebuild() {
+        if (!auditionStore.isPopulated()) {
+            return;
+        }
+        postings.clear();
+        indexed.clear();
+        totalLength.set(0);
+        auditionStore.findPosts().forEach(this::index);
+        built.set(true);
+    }
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    private void index(final AuditionPost post) {
+        remove(post.getId());
+        final Map<String, Integer> frequencies = new HashMap<>();
+        for (final String term : tokenize(post.getTitle())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (final String term : tokenize(post.getBody())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        final int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        frequencies.forEach((term, frequency) -> postings.compute(term, (key, list) -> list == null
+            ? Postings.single(post.getId(), frequency, length)
+            : list.with(post.getId(), frequency, length)));
+        indexed.put(post.getId(), new IndexedPost(Set.copyOf(frequencies.keySet()), length));
+        totalLength.addAndGet(length);
+    }
+
+    private void remove(final int postId) {
+        final IndexedPost previous = indexed.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        for (final String term : previous.terms()) {
+            postings.computeIfPresent(term, (key, list) -> list.without(postId));
+        }
+        totalLength.addAndGet(-previous.length());
+    }
+
+    private record IndexedPost(Set<String> terms, int length) {
+
+    }
+
+    /**
+     * Immutable posting list: ascending post ids, with the term frequency and the post length at the same index so
+     * scoring needs no lookups. Updates return a copy.
+     */
+    @SuppressWarnings({"PMD.ArrayIsStoredDirectly", "PMD.UseVarargs"})
+    private static final class Postings {
+
+        private final int[] postIds;
+        private final int[] frequencies;
+        private final int[] lengths;
+
+        private Postings(final int[] postIds, final int[] frequencies, final int[] lengths) {
+            this.postIds = postIds;
+            this.frequencies = frequencies;
+            this.lengths = lengths;
+        }
+
+        static Postings single(final int postId, final int frequency, final int length) {
+            return new Postings(new int[] {postId}, new int[] {frequency}, new int[] {length});
+        }
+
+        Postings with(final int postId, final int frequency, final int length) {
+            final int index = Arrays.binarySearch(postIds, postId);
+            if (index >= 0) {
+                final int[] updatedFrequencies = frequencies.clone();
+                final int[] updatedLengths = lengths.clone();
+                updatedFrequencies[index] = frequency;
+                updatedLengths[index] = length;
+                return new Postings(postIds, updatedFrequencies, updatedLengths);
+            }
+            final int at = -index - 1;
+            return new Postings(insert(postIds, at, postId), insert(frequencies, at, frequency),
+                insert(lengths, at, length));
+        }
+
+        /**
+         * Returns null once the last post is removed, which drops the term from the index.
+         */
+        Postings without(final int postId) {
+            final int index = Arrays.binarySearch(postIds, postId);
+            if (index < 0) {
+                return this;
+            }
+            final int[] ids = delete(postIds, index);
+            if (ids.length == 0) {
+                return null;
+            }
+            return new Postings(ids, delete(frequencies, index), delete(lengths, index));
+        }
+
+        int size() {
+            return postIds.length;
+        }
+
+        double score(final int index, final double idf, final double averageLength) {
+            final int frequency = frequencies[index];
+            final double norm = K1 * (1 - B + B * lengths[index] / averageLength);
+            return idf * frequency * (K1 + 1) / (frequency + norm);
+        }
+
+        private static int[] insert(final int[] values, final int at, final int value) {
+            final int[] copy = new int[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            return copy;
+        }
+
+        private static int[] delete(final int[] values, final int at) {
+            final int[] copy = new int[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            System.arraycopy(values, at + 1, copy, at, copy.length - at);
+            return copy;
+        }
+    }
+
+    /**
+     * Scores of the posts matched so far, ascending by post id like the posting lists merged into them. Only the
+     * requested page is ranked, through a bounded heap, rather than sorting every hit.
+     */
+    @SuppressWarnings({"PMD.ArrayIsStoredDirectly", "PMD.UseVarargs"})
+    private static final class Scores {
+
+        static final Scores NONE = new Scores(new int[0], new double[0]);
+
+        private final int[] postIds;
+        private final double[] values;
+
+        private Scores(final int[] postIds, final double[] values) {
+            this.postIds = postIds;
+            this.values = values;
+        }
+
+        int size() {
+            return postIds.length;
+        }
+
+        Scores plus(final Postings list, final int postCount, final double averageLength) {
+            final int documentFrequency = list.size();
+            final double idf = Math.log(1 + (postCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            final int[] ids = new int[postIds.length + documentFrequency];
+            final double[] merged = new double[ids.length];
+            int mine = 0;
+            int theirs = 0;
+            int size = 0;
+            while (mine < postIds.length || theirs < documentFrequency) {
+                if (theirs == documentFrequency || mine < postIds.length && postIds[mine] < list.postIds[theirs]) {
+                    ids[size] = postIds[mine];
+                    merged[size] = values[mine];
+                    mine++;
+                } else {
+                    ids[size] = list.postIds[theirs];
+                    merged[size] = list.score(theirs, idf, averageLength);
+                    if (mine < postIds.length && postIds[mine] == list.postIds[theirs]) {
+                        merged[size] += values[mine];
+                        mine++;
+                    }
+                    theirs++;
+                }
+                size++;
+            }
+            return new Scores(Arrays.copyOf(ids, size), Arrays.copyOf(merged, size));
+        }
+
+        List<Integer> top(final int offset, final int limit) {
+            final int wanted = (int) Math.min((long) offset + limit, postIds.length);
+            if (wanted <= offset) {
+                return List.of();
+            }
+            // Keeps the best `wanted` entries with the one that ranks last at the root.
+            final int[] heap = new int[wanted];
+            int size = 0;
+            for (int i = 0; i < postIds.length; i++) {
+                if (size < wanted) {
+                    heap[size] = i;
+                    siftUp(heap, size);
+                    size++;
+                } else if (ranksBefore(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, size);
+                }
+            }
+            final Integer[] ranked = new Integer[wanted - offset];
+            for (int remaining = wanted; remaining > offset; remaining--) {
+                ranked[remaining - 1 - offset] = postIds[heap[0]];
+                heap[0] = heap[remaining - 1];
+                siftDown(heap, remaining - 1);
+            }
+            return Arrays.asList(ranked);
+        }
+
+        private boolean ranksBefore(final int first, final int second) {
+            final int byScore = Double.compare(values[first], values[second]);
+            return byScore > 0 || byScore == 0 && postIds[first] < postIds[second];
+        }
+
+        private void siftUp(final int[] heap, final int from) {
+            int child = from;
+            while (child > 0) {
+                final int parent = (child - 1) / 2;
+                if (!ranksBefore(heap[parent], heap[child])) {
+                    return;
+                }
+                swap(heap, parent, child);
+                child = parent;
+            }
+        }
+
+        private void siftDown(final int[] heap, final int size) {
+            int parent = 0;
+            while (2 * parent + 1 < size) {
+                int worst = 2 * parent + 1;
+                if (worst + 1 < size && ranksBefore(heap[worst], heap[worst + 1])) {
+                    worst++;
+                }
+                if (!ranksBefore(heap[parent], heap[worst])) {
+                    return;
+                }
+                swap(heap, parent, worst);
+                parent = worst;
+            }
+        }
+
+        private static void swap(final int[] heap, final int first, final int second) {
+            final int swapped = heap[first];
+            heap[first] = heap[second];
+            heap[second] = swapped;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.audition.service;
+
+import com.audition.model.AuditionPost;
+import java.util.List;
+
+/**
+ * One page of search results, best match first, with the number of matching posts across all pages.
+ */
+public record PostSearchPage(int total, List<AuditionPost> posts) {
+
+    public PostSearchPage {
+        posts = List.copyOf(posts);
+    }
+}
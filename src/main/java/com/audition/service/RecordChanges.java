@@ -0,0 +1,31 @@
+package com.audition.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Ids of the records of one kind that a sync pass created, updated and deleted.
+ */
+public record RecordChanges(Set<Integer> created, Set<Integer> updated, Set<Integer> deleted) {
+
+    public static final RecordChanges NONE = new RecordChanges(Set.of(), Set.of(), Set.of());
+
+    public RecordChanges {
+        created = Set.copyOf(created);
+        updated = Set.copyOf(updated);
+        deleted = Set.copyOf(deleted);
+    }
+
+    /**
+     * Ids of records that were written, whether created or updated.
+     */
+    public Set<Integer> changed() {
+        final Set<Integer> changed = new HashSet<>(created);
+        changed.addAll(updated);
+        return Set.copyOf(changed);
+    }
+
+    public int size() {
+        return created.size() + updated.size() + deleted.size();
+    }
+}
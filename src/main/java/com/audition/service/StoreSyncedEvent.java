@@ -0,0 +1,30 @@
+package com.audition.service;
+
+import java.util.Set;
+
+/**
+ * Published after a sync pass that created, updated or deleted records in the {@link AuditionStore}. Carries the ids
+ * of posts and comments by change, so listeners can follow changes without rereading the whole store.
+ */
+public record StoreSyncedEvent(RecordChanges posts, RecordChanges comments) {
+
+    public int changes() {
+        return posts.size() + comments.size();
+    }
+
+    public Set<Integer> changedPostIds() {
+        return posts.changed();
+    }
+
+    public Set<Integer> deletedPostIds() {
+        return posts.deleted();
+    }
+
+    public Set<Integer> changedCommentIds() {
+        return comments.changed();
+    }
+
+    public Set<Integer> deletedCommentIds() {
+        return comments.deleted();
+    }
+}
@@ -0,0 +1,180 @@
+package com.audition.service;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.model.UserStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user post count, comment count and top commenters, kept ready for reads so a dashboard needs one call instead
+ * of one per post. Built from the store on first use, then maintained from {@link StoreSyncedEvent}s: only users
+ * whose posts or comments changed are recomputed, and readers always see a complete {@link UserStats} snapshot.
+ */
+@Component
+@SuppressWarnings("PMD.TooManyMethods")
+public class UserStatsAggregator {
+
+    private final Map<Integer, Integer> postOwners = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> postIdsByUserId = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> commentIdsByPostId = new ConcurrentHashMap<>();
+    private final Map<Integer, CommentRef> comments = new ConcurrentHashMap<>();
+    private final Map<Integer, UserStats> stats = new ConcurrentHashMap<>();
+    private final AtomicBoolean built = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private final transient AuditionStore auditionStore;
+    private final int topCommenters;
+
+    public UserStatsAggregator(final AuditionStore auditionStore, final MeterRegistry meterRegistry,
+        @Value("${audition.user-stats.top-commenters:5}") final int topCommenters) {
+        this.auditionStore = auditionStore;
+        this.topCommenters = topCommenters;
+        Gauge.builder("audition.user-stats.users", stats, Map::size)
+            .description("Users with precomputed post and comment aggregates")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the aggregates of a user with at least one post; empty while the store holds no data yet.
+     */
+    public Optional<UserStats> find(final int userId) {
+        ensureBuilt();
+        return Optional.ofNullable(stats.get(userId));
+    }
+
+    @EventListener
+    public void onStoreSynced(final StoreSyncedEvent event) {
+        synchronized (writeLock) {
+            if (!built.get()) {
+                rebuild();
+                return;
+            }
+            final Set<Integer> changedUsers = new HashSet<>();
+            event.deletedCommentIds().forEach(commentId -> removeComment(commentId, changedUsers));
+            for (final Integer commentId : event.changedCommentIds()) {
+                auditionStore.findComment(commentId).ifPresentOrElse(comment -> putComment(comment, changedUsers),
+                    () -> removeComment(commentId, changedUsers));
+            }
+            event.deletedPostIds().forEach(postId -> removePost(postId, changedUsers));
+            for (final Integer postId : event.changedPostIds()) {
+                auditionStore.findPost(postId).ifPresentOrElse(post -> putPost(post, changedUsers),
+                    () -> removePost(postId, changedUsers));
+            }
+            changedUsers.forEach(this::recompute);
+        }
+    }
+
+    private void ensureBuilt() {
+        if (!built.get()) {
+            synchronized (writeLock) {
+                if (!built.get()) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    // Stays unbuilt while the store is empty, so the first sync or read after it fills builds the aggregates.
+    private void rebuild() {
+        if (!auditionStore.isPopulated()) {
+            return;
+        }
+        postOwners.clear();
+        postIdsByUserId.clear();
+        commentIdsByPostId.clear();
+        comments.clear();
+        stats.clear();
+        final Set<Integer> users = new HashSet<>();
+        auditionStore.findComments().forEach(comment -> putComment(comment, users));
+        auditionStore.findPosts().forEach(post -> putPost(post, users));
+        users.forEach(this::recompute);
+        built.set(true);
+    }
+
+    private void putPost(final AuditionPost post, final Set<Integer> changedUsers) {
+        removePost(post.getId(), changedUsers);
+        postOwners.put(post.getId(), post.getUserId());
+        postIdsByUserId.computeIfAbsent(post.getUserId(), userId -> new HashSet<>()).add(post.getId());
+        changedUsers.add(post.getUserId());
+    }
+
+    private void removePost(final int postId, final Set<Integer> changedUsers) {
+        final Integer owner = postOwners.remove(postId);
+        if (owner != null) {
+            removeFrom(postIdsByUserId, owner, postId);
+            changedUsers.add(owner);
+        }
+    }
+
+    private void putComment(final AuditionComment comment, final Set<Integer> changedUsers) {
+        removeComment(comment.getId(), changedUsers);
+        comments.put(comment.getId(), new CommentRef(comment.getPostId(), comment.getEmail()));
+        commentIdsByPostId.computeIfAbsent(comment.getPostId(), postId -> new HashSet<>()).add(comment.getId());
+        addOwner(comment.getPostId(), changedUsers);
+    }
+
+    private void removeComment(final int commentId, final Set<Integer> changedUsers) {
+        final CommentRef previous = comments.remove(commentId);
+        if (previous != null) {
+            removeFrom(commentIdsByPostId, previous.postId(), commentId);
+            addOwner(previous.postId(), changedUsers);
+        }
+    }
+
+    // Comments are applied before posts, so a comment on a post that is new in the same sync has no owner yet;
+    // adding the post marks its user anyway.
+    private void addOwner(final int postId, final Set<Integer> changedUsers) {
+        final Integer owner = postOwners.get(postId);
+        if (owner != null) {
+            changedUsers.add(owner);
+        }
+    }
+
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    private void recompute(final int userId) {
+        final Set<Integer> postIds = postIdsByUserId.get(userId);
+        if (postIds == null) {
+            stats.remove(userId);
+            return;
+        }
+        final Map<String, Integer> commentsByEmail = new HashMap<>();
+        int commentCount = 0;
+        for (final Integer postId : postIds) {
+            for (final Integer commentId : commentIdsByPostId.getOrDefault(postId, Set.of())) {
+                commentCount++;
+                final String email = comments.get(commentId).email();
+                if (email != null) {
+                    commentsByEmail.merge(email, 1, Integer::sum);
+                }
+            }
+        }
+        final List<UserStats.Commenter> top = commentsByEmail.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(topCommenters)
+            .map(entry -> new UserStats.Commenter(entry.getKey(), entry.getValue()))
+            .toList();
+        stats.put(userId, new UserStats(userId, postIds.size(), commentCount, top));
+    }
+
+    private static void removeFrom(final Map<Integer, Set<Integer>> index, final int key, final int id) {
+        index.computeIfPresent(key, (ignored, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private record CommentRef(int postId, String email) {
+
+    }
+}
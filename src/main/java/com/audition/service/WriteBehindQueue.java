@@ -0,0 +1,280 @@
+package com.audition.service;
+
+import com.audition.common.exception.ServiceOverloadedException;
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upstream writes that were already applied to the local store and acknowledged, waiting to be sent. Writes are keyed
+ * by record, so a record written several times before a flush is sent once, in its latest state. A scheduled flush
+ * sends up to {@code batch-size} writes in the order their records were first queued; writes the upstream failed on
+ * with a server or connection error go back to the head of the queue unless the record was written meanwhile, while
+ * rejected ones are dropped and logged, and their local change is reverted to the record as it was before its first
+ * unsent write. Queuing a write and applying it locally happen under a per-record lock, as do the revert and the
+ * {@link LocalChange#settled()} notice once a record has nothing left queued.
+ */
+@Component
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.AvoidCatchingGenericException", "PMD.UseConcurrentHashMap"})
+public class WriteBehindQueue implements DisposableBean {
+
+    static final String WRITES_METRIC = "audition.write-behind.writes";
+    static final String OUTCOME_TAG = "outcome";
+
+    private static final Logger LOG = LoggerFactory.getLogger(WriteBehindQueue.class);
+    private static final String OVERLOADED_MESSAGE = "Too many writes waiting for the upstream, please retry later";
+    private static final int RECORD_LOCKS = 64;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+    private final transient MeterRegistry meterRegistry;
+    private final Map<Key, QueuedWrite> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private final Object[] recordLocks = new Object[RECORD_LOCKS];
+    private final transient ScheduledExecutorService scheduler;
+    private final Counter coalesced;
+    private final Counter flushed;
+    private final Counter retried;
+    private final Counter failed;
+
+    @Autowired
+    public WriteBehindQueue(final MeterRegistry meterRegistry,
+        @Value("${audition.write-behind.enabled:false}") final boolean enabled,
+        @Value("${audition.write-behind.flush-interval:1s}") final Duration flushInterval,
+        @Value("${audition.write-behind.batch-size:100}") final int batchSize,
+        @Value("${audition.write-behind.max-pending:10000}") final int maxPending) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.meterRegistry = meterRegistry;
+        for (int i = 0; i < RECORD_LOCKS; i++) {
+            recordLocks[i] = new Object();
+        }
+        this.coalesced = writeCounter("coalesced");
+        this.flushed = writeCounter("flushed");
+        this.retried = writeCounter("retried");
+        this.failed = writeCounter("failed");
+        Gauge.builder("audition.write-behind.queue-depth", this, WriteBehindQueue::depth)
+            .description("Acknowledged writes not yet sent to the upstream")
+            .register(meterRegistry);
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audition-write-behind-");
+        threadFactory.setDaemon(true);
+        // The thread is only started by the first scheduled task, so a disabled queue costs none.
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        if (enabled) {
+            final long intervalMillis = flushInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * How a queued write changed the local store: {@code revert} undoes it after the upstream rejected the write, and
+     * {@code settled} runs once the record has no writes left in the queue, sent or reverted.
+     */
+    public record LocalChange(Runnable revert, Runnable settled) {
+
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the upstream write of one record, replacing a write of the same record that has not been sent yet, and
+     * then applies it locally. A full queue rejects the write before {@code apply} runs; while the queue is near its
+     * limit, concurrent writes of different records may overshoot it by a few.
+     */
+    public void submit(final String kind, final int id, final Runnable write, final Supplier<LocalChange> apply) {
+        final Key key = new Key(kind, id);
+        synchronized (lockFor(key)) {
+            synchronized (pending) {
+                if (!pending.containsKey(key) && pending.size() >= maxPending) {
+                    throw new ServiceOverloadedException(OVERLOADED_MESSAGE, 1);
+                }
+            }
+            final LocalChange change = apply.get();
+            synchronized (pending) {
+                final QueuedWrite replaced = pending.get(key);
+                // The oldest unsent write knows the state to revert to.
+                pending.put(key, new QueuedWrite(write, replaced == null ? change : replaced.change()));
+                if (replaced != null) {
+                    coalesced.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends one batch of queued writes; returns how many the upstream accepted.
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            final List<Map.Entry<Key, QueuedWrite>> batch = takeBatch();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            int sent = 0;
+            boolean upstreamFailing = false;
+            final List<Map.Entry<Key, QueuedWrite>> retries = new ArrayList<>();
+            for (final Map.Entry<Key, QueuedWrite> write : batch) {
+                // Once the upstream fails, the rest of the batch waits for the next flush instead of failing too.
+                final Outcome outcome = upstreamFailing ? Outcome.RETRY
+                    : send(write.getKey(), write.getValue().write());
+                if (outcome == Outcome.RETRY) {
+                    upstreamFailing = true;
+                    retries.add(write);
+                } else {
+                    sent += outcome == Outcome.SENT ? 1 : 0;
+                    settle(write.getKey(), write.getValue().change(), outcome == Outcome.REJECTED);
+                }
+            }
+            requeue(retries);
+            sample.stop(Timer.builder("audition.write-behind.flush")
+                .description("Duration of sending one batch of queued writes")
+                .register(meterRegistry));
+            return sent;
+        }
+    }
+
+    public int depth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        // Best effort: writes still queued at shutdown are lost, so send what the upstream takes now.
+        while (depth() > 0 && flush() > 0) {
+            LOG.debug("Flushed queued writes on shutdown");
+        }
+    }
+
+    private List<Map.Entry<Key, QueuedWrite>> takeBatch() {
+        final List<Map.Entry<Key, QueuedWrite>> batch = new ArrayList<>();
+        synchronized (pending) {
+            final Iterator<Map.Entry<Key, QueuedWrite>> writes = pending.entrySet().iterator();
+            while (writes.hasNext() && batch.size() < batchSize) {
+                final Map.Entry<Key, QueuedWrite> write = writes.next();
+                batch.add(Map.entry(write.getKey(), write.getValue()));
+                writes.remove();
+            }
+        }
+        return batch;
+    }
+
+    // An escaping exception would cancel the scheduled flush, so every failure is handled here.
+    private Outcome send(final Key key, final Runnable write) {
+        try {
+            write.run();
+            flushed.increment();
+            return Outcome.SENT;
+        } catch (SystemException e) {
+            if (e.getStatusCode() != null && e.getStatusCode() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                failed.increment();
+                LOG.warn("Upstream rejected the queued write of {}; dropping it", key, e);
+                return Outcome.REJECTED;
+            }
+            LOG.warn("Queued write of {} failed; retrying on the next flush", key, e);
+            return Outcome.RETRY;
+        } catch (RuntimeException e) {
+            LOG.warn("Queued write of {} failed; retrying on the next flush", key, e);
+            return Outcome.RETRY;
+        }
+    }
+
+    // A write left the queue for good. If the record was written again meanwhile, the newer write carries on, taking
+    // over the state to revert to if this one was rejected; otherwise the record is settled.
+    private void settle(final Key key, final LocalChange change, final boolean rejected) {
+        synchronized (lockFor(key)) {
+            synchronized (pending) {
+                final QueuedWrite newer = pending.get(key);
+                if (newer != null) {
+                    if (rejected) {
+                        pending.put(key, new QueuedWrite(newer.write(), change));
+                    }
+                    return;
+                }
+            }
+            try {
+                if (rejected) {
+                    change.revert().run();
+                }
+                change.settled().run();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not settle the local change of {}", key, e);
+            }
+        }
+    }
+
+    // Retried writes go back to the head of the queue, ahead of records first queued after them.
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private void requeue(final List<Map.Entry<Key, QueuedWrite>> retries) {
+        if (retries.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            final Map<Key, QueuedWrite> queuedMeanwhile = new LinkedHashMap<>(pending);
+            pending.clear();
+            for (final Map.Entry<Key, QueuedWrite> retry : retries) {
+                final QueuedWrite newer = queuedMeanwhile.get(retry.getKey());
+                if (newer == null) {
+                    pending.put(retry.getKey(), retry.getValue());
+                } else {
+                    // A newer write of the same record supersedes the failed one, but reverts to the older state.
+                    queuedMeanwhile.put(retry.getKey(), new QueuedWrite(newer.write(), retry.getValue().change()));
+                }
+            }
+            pending.putAll(queuedMeanwhile);
+        }
+        retried.increment(retries.size());
+    }
+
+    private Object lockFor(final Key key) {
+        return recordLocks[Math.floorMod(key.hashCode(), RECORD_LOCKS)];
+    }
+
+    private Counter writeCounter(final String outcome) {
+        return Counter.builder(WRITES_METRIC)
+            .description("Queued upstream writes by outcome")
+            .tag(OUTCOME_TAG, outcome)
+            .register(meterRegistry);
+    }
+
+    private enum Outcome { SENT, REJECTED, RETRY }
+
+    private record QueuedWrite(Runnable write, LocalChange change) {
+
+    }
+
+    private record Key(String kind, int id) {
+
+        @Override
+        public String toString() {
+            return kind + " " + id;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.audition.service;
+
+/**
+ * The record as written, and whether it was only applied locally and is still queued for the upstream.
+ */
+public record WriteResult<T>(T value, boolean deferred) {
+
+}
@@ -2,27 +2,40 @@ package com.audition.web;
 
 import static com.audition.common.exception.SystemException.BAD_REQUEST_ERROR_TITLE;
 
-import com.audition.common.exception.SystemException;
+import com.audition.common.exception.StacklessSystemException;
+import com.audition.common.util.IdParser;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.model.UserStats;
 import com.audition.service.AuditionService;
+import com.audition.service.AuditionWriteService;
+import com.audition.service.PostExport;
+import com.audition.service.PostSearchPage;
+import com.audition.service.WriteResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.net.URI;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @Validated
@@ -31,28 +44,92 @@ public class AuditionController {
 
     private static final String POST_ID_VALIDATION_ERROR = "Post Id must contain only digits (0-9).";
     private static final String USER_ID_VALIDATION_ERROR = "UserId must contain only digits (0-9).";
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final String QUERY_VALIDATION_ERROR =
+        "Search query must be 1 to " + MAX_QUERY_LENGTH + " characters and not blank.";
+    private static final String PAGE_VALIDATION_ERROR = "Page must contain only digits (0-9).";
+    private static final String SIZE_VALIDATION_ERROR = "Size must be a number from 1 to " + MAX_PAGE_SIZE + ".";
+    static final String EXPAND_COMMENTS = "comments";
+    private static final String EXPAND_VALIDATION_ERROR = "Expand must be '" + EXPAND_COMMENTS + "'.";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String AFTER_ID_VALIDATION_ERROR = "AfterId must contain only digits (0-9).";
+    private static final String TO_ID_VALIDATION_ERROR = "ToId must contain only digits (0-9).";
+    private static final String COMMENT_ID_VALIDATION_ERROR = "Comment Id must contain only digits (0-9).";
+    private static final String POST_CONTENT_ERROR = "A post needs a title and a body.";
+    private static final String COMMENT_CONTENT_ERROR = "A comment needs a post id and a body.";
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
     private static final String OK = "200";
+    private static final String CREATED = "201";
+    private static final String ACCEPTED = "202";
+    private static final String NO_CONTENT = "204";
     private static final String BAD_REQUEST = "400";
     private static final String NOT_FOUND = "404";
+    private static final String SERVICE_UNAVAILABLE = "503";
     @Autowired
     transient AuditionService auditionService;
+    @Autowired
+    transient AuditionWriteService auditionWriteService;
 
     // TODO Add a query param that allows data filtering. The intent of the filter is at developers discretion.
-    @Operation(summary = "Get all posts", description = "Retrieves all posts or filters posts by user ID")
+    @Operation(summary = "Get all posts", description = "Retrieves all posts or filters posts by user ID; "
+        + "expand=comments attaches each post's comments")
     @ApiResponses(value = {
         @ApiResponse(responseCode = OK, description = "Successfully retrieved posts",
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-                schema = @Schema(implementation = AuditionPost.class)))
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid user ID format or expand value",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
     })
     @RequestMapping(value = "/posts", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody List<AuditionPost> getPosts(
-        @RequestParam(value = "userId", required = false) final String userId) {
+        @RequestParam(value = "userId", required = false) final String userId,
+        @RequestParam(value = "expand", required = false) final String expand) {
         // TODO Add logic that filters response data based on the query param
 
+        final boolean withComments = expand != null;
+        if (withComments && !EXPAND_COMMENTS.equals(expand)) {
+            throw badRequest(EXPAND_VALIDATION_ERROR);
+        }
         if (userId != null) {
-            return auditionService.getPostsByUserId(validateAndParseId(userId, USER_ID_VALIDATION_ERROR));
+            final int parsedUserId = validateAndParseId(userId, USER_ID_VALIDATION_ERROR);
+            return withComments
+                ? auditionService.getPostsWithCommentsByUserId(parsedUserId)
+                : auditionService.getPostsByUserId(parsedUserId);
         }
-        return auditionService.getPosts();
+        return withComments ? auditionService.getPostsWithComments() : auditionService.getPosts();
+    }
+
+    @Operation(summary = "Search posts",
+        description = "Ranks posts by relevance of their title and body to the query, served from the local index")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "One page of matching posts, best first; the total number "
+            + "of matches is in the " + TOTAL_COUNT_HEADER + " header",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid query, page or size",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = SERVICE_UNAVAILABLE, description = "Local post store not loaded yet",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/posts/search", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AuditionPost>> searchPosts(@RequestParam(value = "q") final String query,
+        @RequestParam(value = "page", required = false) final String page,
+        @RequestParam(value = "size", required = false) final String size) {
+        if (query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw badRequest(QUERY_VALIDATION_ERROR);
+        }
+        final int pageNumber = page == null ? 0 : validateAndParseId(page, PAGE_VALIDATION_ERROR);
+        final int pageSize = size == null ? DEFAULT_PAGE_SIZE : validateAndParseId(size, SIZE_VALIDATION_ERROR);
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw badRequest(SIZE_VALIDATION_ERROR);
+        }
+        final PostSearchPage result = auditionService.searchPosts(query, pageNumber, pageSize);
+        return ResponseEntity.ok()
+            .header(TOTAL_COUNT_HEADER, String.valueOf(result.total()))
+            .body(result.posts());
     }
 
     @Operation(summary = "Get post by ID", description = "Retrieves a specific post by its ID")
@@ -108,14 +185,242 @@ public class AuditionController {
         return auditionService.getCommentsByPostId(validateAndParseId(postId, POST_ID_VALIDATION_ERROR));
     }
 
-    private Integer validateAndParseId(final String id, final String errorMessage) {
-        if (id == null || id.trim().isEmpty()) {
-            throw new SystemException(errorMessage, BAD_REQUEST_ERROR_TITLE, HttpStatus.BAD_REQUEST.value());
+    @Operation(summary = "Get user stats",
+        description = "Returns a user's post count, comment count and top commenters, precomputed from local data")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "Successfully retrieved user stats",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = UserStats.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid user ID format",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "User has no posts",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = SERVICE_UNAVAILABLE, description = "Local post store not loaded yet",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/users/{userId}/stats", method = RequestMethod.GET,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody UserStats getUserStats(@PathVariable("userId") final String userId) {
+        return auditionService.getUserStats(validateAndParseId(userId, USER_ID_VALIDATION_ERROR));
+    }
+
+    @Operation(summary = "Export posts with comments",
+        description = "Streams posts with their comments attached as newline-delimited JSON in id order, gzip "
+            + "compressed for clients that accept it. afterId and toId bound the ids; an interrupted export resumes "
+            + "with afterId set to the last id received")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "One post per line",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid afterId or toId",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = SERVICE_UNAVAILABLE, description = "Local post store not loaded yet",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/export", method = RequestMethod.GET, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+        @RequestParam(value = "afterId", required = false) final String afterId,
+        @RequestParam(value = "toId", required = false) final String toId,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        final int after = afterId == null ? 0 : validateAndParseId(afterId, AFTER_ID_VALIDATION_ERROR);
+        final int to = toId == null ? Integer.MAX_VALUE : validateAndParseId(toId, TO_ID_VALIDATION_ERROR);
+        final PostExport export = auditionService.exportPosts(after, to);
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"posts.ndjson\"");
+        if (acceptEncoding == null || !acceptEncoding.contains(GZIP)) {
+            return response.body(export::writeTo);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(out -> {
+            final GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            export.writeTo(compressed);
+            compressed.finish();
+        });
+    }
+
+    @Operation(summary = "Create post", description = "Creates a post upstream, which assigns its id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = CREATED, description = "Post created",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Missing title or body",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/posts", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuditionPost> createPost(@RequestBody final AuditionPost post) {
+        requireContent(post);
+        final AuditionPost created = auditionWriteService.createPost(post);
+        return ResponseEntity.created(URI.create("/posts/" + created.getId())).body(created);
+    }
+
+    @Operation(summary = "Replace post", description = "Replaces a post; with write-behind enabled the change is "
+        + "applied locally and sent to the upstream asynchronously")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "Post replaced upstream",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = ACCEPTED, description = "Post replaced locally, upstream write queued",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid post ID, missing title or body",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "Post not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/posts/{id}", method = RequestMethod.PUT, consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuditionPost> updatePost(@PathVariable("id") final String id,
+        @RequestBody final AuditionPost post) {
+        final int postId = validateAndParseId(id, POST_ID_VALIDATION_ERROR);
+        requireContent(post);
+        return written(auditionWriteService.updatePost(postId, post));
+    }
+
+    @Operation(summary = "Update post fields", description = "Changes the given title, body and user ID of a post")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "Post updated upstream",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = ACCEPTED, description = "Post updated locally, upstream write queued",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionPost.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid post ID format",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "Post not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/posts/{id}", method = RequestMethod.PATCH, consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuditionPost> patchPost(@PathVariable("id") final String id,
+        @RequestBody final AuditionPost patch) {
+        return written(auditionWriteService.patchPost(validateAndParseId(id, POST_ID_VALIDATION_ERROR), patch));
+    }
+
+    @Operation(summary = "Delete post", description = "Deletes a post; with write-behind enabled the delete is "
+        + "applied locally and sent to the upstream asynchronously")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = NO_CONTENT, description = "Post deleted upstream"),
+        @ApiResponse(responseCode = ACCEPTED, description = "Post deleted locally, upstream delete queued"),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid post ID format",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "Post not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/posts/{id}", method = RequestMethod.DELETE)
+    public ResponseEntity<Void> deletePost(@PathVariable("id") final String id) {
+        return deleted(auditionWriteService.deletePost(validateAndParseId(id, POST_ID_VALIDATION_ERROR)));
+    }
+
+    @Operation(summary = "Create comment", description = "Creates a comment upstream, which assigns its id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = CREATED, description = "Comment created",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionComment.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Missing post ID or body",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/comments", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuditionComment> createComment(@RequestBody final AuditionComment comment) {
+        requireContent(comment);
+        final AuditionComment created = auditionWriteService.createComment(comment);
+        return ResponseEntity.created(URI.create("/comments/" + created.getId())).body(created);
+    }
+
+    @Operation(summary = "Replace comment", description = "Replaces a comment; with write-behind enabled the change "
+        + "is applied locally and sent to the upstream asynchronously")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "Comment replaced upstream",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionComment.class))),
+        @ApiResponse(responseCode = ACCEPTED, description = "Comment replaced locally, upstream write queued",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionComment.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid comment ID, missing post ID or body",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "Comment not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/comments/{id}", method = RequestMethod.PUT,
+        consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuditionComment> updateComment(@PathVariable("id") final String id,
+        @RequestBody final AuditionComment comment) {
+        final int commentId = validateAndParseId(id, COMMENT_ID_VALIDATION_ERROR);
+        requireContent(comment);
+        return written(auditionWriteService.updateComment(commentId, comment));
+    }
+
+    @Operation(summary = "Update comment fields",
+        description = "Changes the given post ID, name, email and body of a comment")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = OK, description = "Comment updated upstream",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionComment.class))),
+        @ApiResponse(responseCode = ACCEPTED, description = "Comment updated locally, upstream write queued",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = AuditionComment.class))),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid comment ID format",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "Comment not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/comments/{id}", method = RequestMethod.PATCH,
+        consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuditionComment> patchComment(@PathVariable("id") final String id,
+        @RequestBody final AuditionComment patch) {
+        return written(auditionWriteService.patchComment(validateAndParseId(id, COMMENT_ID_VALIDATION_ERROR), patch));
+    }
+
+    @Operation(summary = "Delete comment", description = "Deletes a comment; with write-behind enabled the delete "
+        + "is applied locally and sent to the upstream asynchronously")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = NO_CONTENT, description = "Comment deleted upstream"),
+        @ApiResponse(responseCode = ACCEPTED, description = "Comment deleted locally, upstream delete queued"),
+        @ApiResponse(responseCode = BAD_REQUEST, description = "Invalid comment ID format",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+        @ApiResponse(responseCode = NOT_FOUND, description = "Comment not found",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+    })
+    @RequestMapping(value = "/comments/{id}", method = RequestMethod.DELETE)
+    public ResponseEntity<Void> deleteComment(@PathVariable("id") final String id) {
+        return deleted(auditionWriteService.deleteComment(validateAndParseId(id, COMMENT_ID_VALIDATION_ERROR)));
+    }
+
+    private static <T> ResponseEntity<T> written(final WriteResult<T> result) {
+        return ResponseEntity.status(result.deferred() ? HttpStatus.ACCEPTED : HttpStatus.OK).body(result.value());
+    }
+
+    private static ResponseEntity<Void> deleted(final boolean deferred) {
+        return ResponseEntity.status(deferred ? HttpStatus.ACCEPTED : HttpStatus.NO_CONTENT).build();
+    }
+
+    private static void requireContent(final AuditionPost post) {
+        if (isBlank(post.getTitle()) || isBlank(post.getBody())) {
+            throw badRequest(POST_CONTENT_ERROR);
+        }
+    }
+
+    private static void requireContent(final AuditionComment comment) {
+        if (comment.getPostId() <= 0 || isBlank(comment.getBody())) {
+            throw badRequest(COMMENT_CONTENT_ERROR);
         }
-        try {
-            return Integer.parseInt(id.trim());
-        } catch (NumberFormatException e) {
-            throw new SystemException(errorMessage, BAD_REQUEST_ERROR_TITLE, HttpStatus.BAD_REQUEST.value());
+    }
+
+    private static boolean isBlank(final String value) {
+        return value == null || value.isBlank();
+    }
+
+    private int validateAndParseId(final String id, final String errorMessage) {
+        final int parsed = IdParser.parse(id);
+        if (parsed == IdParser.INVALID) {
+            throw badRequest(errorMessage);
         }
+        return parsed;
+    }
+
+    private static StacklessSystemException badRequest(final String detail) {
+        return new StacklessSystemException(detail, BAD_REQUEST_ERROR_TITLE, HttpStatus.BAD_REQUEST.value());
     }
-}
\ No newline at end of file
+}
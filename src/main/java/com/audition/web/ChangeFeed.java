@@ -0,0 +1,383 @@
+package com.audition.web;
+
+import com.audition.common.exception.ServiceOverloadedException;
+import com.audition.common.util.IdParser;
+import com.audition.service.AuditionStore;
+import com.audition.service.RecordChanges;
+import com.audition.service.StoreSyncedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent change feed derived from sync diffs. Every created, updated or deleted post or comment becomes one
+ * {@link ChangeEvent} with an id of the form {@code <epoch>-<sequence>}, where the epoch identifies this process. The
+ * last {@code history} events are retained, so a client reconnecting with {@code Last-Event-ID} gets what it missed;
+ * if that is no longer possible it is sent a {@value #RESET_EVENT} event and should reload the collections.
+ *
+ * <p>Each subscriber has its own queue and at most one send in flight. Sends run on a pool that keeps
+ * {@code dispatch-threads} threads and starts more while several subscribers send at once, so a client that stops
+ * reading holds up only its own thread, never the sync thread or other clients. A subscriber whose queue grows past
+ * {@code subscriber-buffer}, or whose send has not finished within {@code send-timeout}, is disconnected and can
+ * resume from its last event; a reconnect that missed more than {@code subscriber-buffer} events is sent
+ * {@value #RESET_EVENT} instead of the replay.
+ */
+@Component
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.ExcessiveImports", "PMD.TooManyMethods", "PMD.TooManyFields"})
+public class ChangeFeed implements DisposableBean {
+
+    static final String RESET_EVENT = "reset";
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeFeed.class);
+    private static final String POST = "post";
+    private static final String COMMENT = "comment";
+    private static final String CREATED = "created";
+    private static final String UPDATED = "updated";
+    private static final String DELETED = "deleted";
+    private static final String OVERLOADED_MESSAGE = "Too many change feed subscribers, please retry later";
+
+    private final String epoch;
+    private final int historySize;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final transient AuditionStore auditionStore;
+    private final Deque<ChangeEvent> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final Object publishLock = new Object();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor senders;
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter stalled;
+    private long sequence;
+
+    public ChangeFeed(final AuditionStore auditionStore, final MeterRegistry meterRegistry,
+        @Value("${audition.feed.history:1000}") final int historySize,
+        @Value("${audition.feed.subscriber-buffer:256}") final int bufferSize,
+        @Value("${audition.feed.max-subscribers:1000}") final int maxSubscribers,
+        @Value("${audition.feed.timeout:30m}") final Duration timeout,
+        @Value("${audition.feed.heartbeat:15s}") final Duration heartbeat,
+        @Value("${audition.feed.dispatch-threads:2}") final int dispatchThreads,
+        @Value("${audition.feed.send-timeout:10s}") final Duration sendTimeout) {
+        this.auditionStore = auditionStore;
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audition-feed-");
+        threadFactory.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        // Each subscriber has at most one send in flight, so the pool never needs more threads than subscribers;
+        // threads of disconnected subscribers whose send is still stuck are the only excess.
+        this.senders = new ThreadPoolExecutor(dispatchThreads, maxSubscribers + dispatchThreads, 1, TimeUnit.MINUTES,
+            new SynchronousQueue<>(), threadFactory);
+        this.published = Counter.builder("audition.feed.events")
+            .description("Change events published to the feed")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("audition.feed.dropped")
+            .description("Subscribers disconnected because they fell more than the buffer size behind")
+            .register(meterRegistry);
+        this.stalled = Counter.builder("audition.feed.stalled")
+            .description("Subscribers disconnected because a send did not finish within the send timeout")
+            .register(meterRegistry);
+        Gauge.builder("audition.feed.subscribers", subscribers, Set::size)
+            .description("Open change feed connections")
+            .register(meterRegistry);
+        final long heartbeatMillis = heartbeat.toMillis();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        final long checkMillis = Math.max(1, sendTimeout.toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::disconnectStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * One change to one record; {@code data} is the record as stored after the change, absent for deletions.
+     */
+    public record ChangeEvent(String id, String kind, String change, int recordId, Object data) {
+
+        String name() {
+            return kind + "." + change;
+        }
+    }
+
+    /**
+     * Opens a stream that first replays the events after {@code lastEventId}, if given, and then follows new ones.
+     */
+    public SseEmitter subscribe(final String lastEventId) {
+        final SseEmitter emitter = newEmitter(timeout.toMillis());
+        final Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        synchronized (publishLock) {
+            // Checked under the lock so that concurrent subscribes cannot overshoot the limit together.
+            if (subscribers.size() >= maxSubscribers) {
+                throw new ServiceOverloadedException(OVERLOADED_MESSAGE, 1);
+            }
+            if (lastEventId != null) {
+                final Optional<List<ChangeEvent>> missed = eventsAfter(lastEventId);
+                // A replay larger than the buffer would only be cut off again, so the client reloads instead.
+                if (missed.isPresent() && missed.get().size() <= bufferSize) {
+                    subscriber.enqueue(missed.get());
+                } else {
+                    subscriber.resetDue.set(true);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @EventListener
+    public void onStoreSynced(final StoreSyncedEvent event) {
+        // Posts before their comments, deletions of comments before their posts. The records are looked up before
+        // taking the lock, which then only numbers and hands out the events.
+        final List<ChangeEvent> events = new ArrayList<>();
+        addWrites(events, POST, event.posts(), id -> auditionStore.findPost(id).orElse(null));
+        addWrites(events, COMMENT, event.comments(), id -> auditionStore.findComment(id).orElse(null));
+        addDeletes(events, COMMENT, event.comments());
+        addDeletes(events, POST, event.posts());
+        synchronized (publishLock) {
+            events.replaceAll(change -> new ChangeEvent(nextId(), change.kind(), change.change(), change.recordId(),
+                change.data()));
+            for (final ChangeEvent change : events) {
+                history.addLast(change);
+                if (history.size() > historySize) {
+                    history.removeFirst();
+                }
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(events));
+        }
+        published.increment(events.size());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter newEmitter(final long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void addWrites(final List<ChangeEvent> events, final String kind, final RecordChanges changes,
+        final IntFunction<Object> lookup) {
+        for (final Integer id : sorted(changes.created())) {
+            events.add(new ChangeEvent(null, kind, CREATED, id, lookup.apply(id)));
+        }
+        for (final Integer id : sorted(changes.updated())) {
+            events.add(new ChangeEvent(null, kind, UPDATED, id, lookup.apply(id)));
+        }
+    }
+
+    private void addDeletes(final List<ChangeEvent> events, final String kind, final RecordChanges changes) {
+        for (final Integer id : sorted(changes.deleted())) {
+            events.add(new ChangeEvent(null, kind, DELETED, id, null));
+        }
+    }
+
+    private static List<Integer> sorted(final Set<Integer> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private String nextId() {
+        sequence++;
+        return epoch + "-" + sequence;
+    }
+
+    // Empty when the id is from another process, malformed, or older than the retained history.
+    private Optional<List<ChangeEvent>> eventsAfter(final String lastEventId) {
+        final int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return Optional.empty();
+        }
+        final long last = IdParser.parseLong(lastEventId, separator + 1, lastEventId.length());
+        if (last == IdParser.INVALID) {
+            return Optional.empty();
+        }
+        final long oldestRetained = sequence - history.size() + 1;
+        if (last > sequence || last < oldestRetained - 1) {
+            return Optional.empty();
+        }
+        // Usually only a few events were missed, so they are taken from the tail rather than copying the history.
+        final ChangeEvent[] missed = new ChangeEvent[(int) (sequence - last)];
+        final Iterator<ChangeEvent> newestFirst = history.descendingIterator();
+        for (int i = missed.length - 1; i >= 0; i--) {
+            missed[i] = newestFirst.next();
+        }
+        return Optional.of(List.of(missed));
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(subscriber -> {
+            subscriber.heartbeatDue.set(true);
+            subscriber.schedule();
+        });
+    }
+
+    private void disconnectStalled() {
+        final long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.disconnectIfStalled(now));
+    }
+
+    /**
+     * Per-connection queue with a single active drainer, so events reach each client in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<ChangeEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean resetDue = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Object sendLock = new Object();
+        private Thread sender;
+        private boolean sending;
+        private long sendStartedNanos;
+
+        Subscriber(final SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Called under the publish lock, so only the drainer changes the count concurrently.
+        void offer(final List<ChangeEvent> events) {
+            if (queued.get() + events.size() > bufferSize) {
+                dropped.increment();
+                disconnect();
+                return;
+            }
+            enqueue(events);
+            schedule();
+        }
+
+        void enqueue(final List<ChangeEvent> events) {
+            queued.addAndGet(events.size());
+            queue.addAll(events);
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, or more stuck sends than the pool allows.
+                    draining.set(false);
+                    disconnect();
+                }
+            }
+        }
+
+        // The emitter is left alone here, since its methods wait for the stuck send. The interrupt ends a send that
+        // waits interruptibly, otherwise the container's write timeout does; the drainer then completes the emitter.
+        void disconnectIfStalled(final long now) {
+            synchronized (sendLock) {
+                if (sending && now - sendStartedNanos > sendTimeoutNanos) {
+                    stalled.increment();
+                    close();
+                    sender.interrupt();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                sendPending();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, the send was interrupted as stalled, or the emitter already completed.
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Dropping change feed subscriber: {}", e.getMessage());
+                }
+                closed.set(true);
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                disconnect();
+            } else if (!queue.isEmpty() || heartbeatDue.get()) {
+                schedule();
+            }
+        }
+
+        private void sendPending() throws IOException {
+            if (resetDue.getAndSet(false)) {
+                send(SseEmitter.event().name(RESET_EVENT).data(RESET_EVENT));
+            }
+            ChangeEvent next = queue.poll();
+            while (next != null && !closed.get()) {
+                queued.decrementAndGet();
+                send(SseEmitter.event().id(next.id()).name(next.name()).data(next, MediaType.APPLICATION_JSON));
+                next = queue.poll();
+            }
+            if (heartbeatDue.getAndSet(false) && !closed.get()) {
+                send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+
+        private void send(final SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (sendLock) {
+                sender = Thread.currentThread();
+                sending = true;
+                sendStartedNanos = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                synchronized (sendLock) {
+                    sending = false;
+                }
+            }
+        }
+
+        private void disconnect() {
+            close();
+            emitter.complete();
+        }
+
+        private void close() {
+            closed.set(true);
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
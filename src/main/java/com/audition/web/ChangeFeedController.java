@@ -0,0 +1,41 @@
+package com.audition.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@Tag(name = "Audition API", description = "API endpoints for managing posts and comments")
+public class ChangeFeedController {
+
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    @Autowired
+    transient ChangeFeed changeFeed;
+
+    @Operation(summary = "Follow post and comment changes",
+        description = "Server-sent events named <post|comment>.<created|updated|deleted> with the record as data. "
+            + "Reconnect with Last-Event-ID to receive missed events; a 'reset' event means they are no longer "
+            + "available and the collections should be reloaded")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream"),
+        @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    @RequestMapping(value = "/feed", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter follow(
+        @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) final String lastEventIdHeader,
+        @Parameter(description = "Alternative to the Last-Event-ID header for clients that cannot set headers")
+        @RequestParam(value = "lastEventId", required = false) final String lastEventId) {
+        return changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
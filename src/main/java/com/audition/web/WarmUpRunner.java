@@ -0,0 +1,168 @@
+package com.audition.web;
+
+import com.audition.common.exception.SystemException;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the application up before it reports ready. Spring Boot flips the readiness state to ACCEPTING_TRAFFIC only
+ * after all application runners have returned, so this runner, ordered last, delays readiness until it is done. It
+ * primes the ObjectMapper for the model types in both directions, opens an upstream connection (DNS, TLS and the
+ * keep-alive cache) while the store is still empty, and calls every {@link AuditionController} endpoint against posts
+ * already in the local store, including the invalid-id path. A store that already holds data is served without
+ * waiting for the upstream; the background sync started with it opens the connection instead. Controller calls stop after {@code iterations} rounds or {@code max-duration},
+ * whichever comes first; they are skipped when the store is still empty, so warm-up never adds upstream load.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmUpRunner.class);
+    private static final int SAMPLE_POSTS = 10;
+    private static final String INVALID_ID = "warm-up";
+    private static final String SAMPLE_TEXT = "warm-up sample";
+
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final boolean openUpstream;
+    private final transient AuditionController controller;
+    private final transient AuditionStore auditionStore;
+    private final transient AuditionIntegrationClient client;
+    private final transient ObjectMapper objectMapper;
+    private final transient MeterRegistry meterRegistry;
+
+    public WarmUpRunner(final AuditionController controller, final AuditionStore auditionStore,
+        final AuditionIntegrationClient client, final ObjectMapper objectMapper, final MeterRegistry meterRegistry,
+        @Value("${audition.warm-up.enabled:true}") final boolean enabled,
+        @Value("${audition.warm-up.iterations:100}") final int iterations,
+        @Value("${audition.warm-up.max-duration:5s}") final Duration maxDuration,
+        @Value("${audition.warm-up.upstream:true}") final boolean openUpstream) {
+        this.controller = controller;
+        this.auditionStore = auditionStore;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.openUpstream = openUpstream;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final List<AuditionPost> sample = auditionStore.isPopulated()
+            ? auditionStore.findPosts().stream().limit(SAMPLE_POSTS).toList()
+            : List.of();
+        primeObjectMapper();
+        if (openUpstream && sample.isEmpty()) {
+            openUpstreamConnection();
+        }
+        final int rounds = exerciseController(sample, start + maxDuration.toNanos());
+        final long elapsed = System.nanoTime() - start;
+        Timer.builder("audition.warm-up.duration")
+            .description("Time spent warming up before reporting ready")
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Warm-up finished in {} ms after {} controller rounds", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                rounds);
+        }
+    }
+
+    void primeObjectMapper() {
+        // Every property is set, since empty values are left out of the JSON and would stay cold.
+        final AuditionComment comment = new AuditionComment();
+        comment.setId(1);
+        comment.setPostId(1);
+        comment.setName(SAMPLE_TEXT);
+        comment.setEmail(SAMPLE_TEXT);
+        comment.setBody(SAMPLE_TEXT);
+        final AuditionPost post = new AuditionPost();
+        post.setId(1);
+        post.setUserId(1);
+        post.setTitle(SAMPLE_TEXT);
+        post.setBody(SAMPLE_TEXT);
+        post.setComments(List.of(comment));
+        try {
+            final byte[] posts = objectMapper.writeValueAsBytes(List.of(post));
+            final byte[] comments = objectMapper.writeValueAsBytes(List.of(comment));
+            objectMapper.readValue(posts, new TypeReference<List<AuditionPost>>() {
+            });
+            objectMapper.readValue(comments, new TypeReference<List<AuditionComment>>() {
+            });
+            objectMapper.readValue(objectMapper.writeValueAsBytes(post), AuditionPost.class);
+        } catch (IOException e) {
+            LOG.warn("Could not prime the ObjectMapper", e);
+        }
+    }
+
+    private void openUpstreamConnection() {
+        try {
+            client.getPostsPage(0, 1);
+        } catch (SystemException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Could not open an upstream connection during warm-up: {}", e.getMessage());
+            }
+        }
+    }
+
+    int exerciseController(final List<AuditionPost> sample, final long deadlineNanos) {
+        if (sample.isEmpty()) {
+            LOG.debug("Skipping controller warm-up, the local store holds no posts yet");
+            return 0;
+        }
+        int round = 0;
+        while (round < iterations && System.nanoTime() < deadlineNanos) {
+            final AuditionPost post = sample.get(round % sample.size());
+            final String postId = String.valueOf(post.getId());
+            final String userId = String.valueOf(post.getUserId());
+            serialize(controller.getPosts(null, null));
+            serialize(controller.getPosts(userId, null));
+            serialize(controller.getPosts(userId, AuditionController.EXPAND_COMMENTS));
+            serialize(controller.getPostsById(postId));
+            serialize(controller.getPostWithCommentsByPostId(postId));
+            serialize(controller.getCommentsByPostId(postId));
+            serialize(controller.searchPosts(post.getTitle(), null, null).getBody());
+            serialize(controller.getUserStats(userId));
+            try {
+                controller.getPostsById(INVALID_ID);
+            } catch (SystemException expected) {
+                // The error path is part of what gets warmed up.
+            }
+            round++;
+        }
+        return round;
+    }
+
+    private void serialize(final Object body) {
+        try {
+            objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Could not serialize a warm-up response", e);
+        }
+    }
+}
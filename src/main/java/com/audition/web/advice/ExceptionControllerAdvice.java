@@ -2,7 +2,11 @@ package com.audition.web.advice;
 
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.METHOD_NOT_ALLOWED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 
+import com.audition.common.exception.RateLimitExceededException;
+import com.audition.common.exception.ServiceOverloadedException;
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
 import io.micrometer.common.util.StringUtils;
@@ -10,8 +14,10 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -56,6 +62,21 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
     }
 
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    ResponseEntity<ProblemDetail> handleServiceOverloadedException(final ServiceOverloadedException e) {
+        return ResponseEntity.status(SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(createProblemDetail(e, SERVICE_UNAVAILABLE));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    ResponseEntity<ProblemDetail> handleRateLimitExceededException(final RateLimitExceededException e) {
+        return ResponseEntity.status(TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(createProblemDetail(e, TOO_MANY_REQUESTS));
+    }
+
+
     private ProblemDetail createProblemDetail(final Exception exception,
         final HttpStatusCode statusCode) {
         final ProblemDetail problemDetail = ProblemDetail.forStatus(statusCode);
@@ -99,7 +120,5 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
         }
         return INTERNAL_SERVER_ERROR;
     }
-}
-
-
 
+}
@@ -0,0 +1,47 @@
+package com.audition.web.interceptor;
+
+import com.audition.common.profiling.RequestEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Emits a {@link RequestEvent} per handled request. The event is kept as a request attribute, so a streamed response
+ * is timed across its asynchronous dispatch until it completes.
+ */
+public class RequestEventInterceptor implements AsyncHandlerInterceptor {
+
+    static final String EVENT_ATTRIBUTE = RequestEventInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+        final Object handler) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) == null) {
+            final RequestEvent event = new RequestEvent();
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+        final Object handler, final Exception ex) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof RequestEvent event)) {
+            return;
+        }
+        request.removeAttribute(EVENT_ATTRIBUTE);
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        event.finish(request.getMethod(), handlerName(handler), pattern == null ? null : pattern.toString(),
+            response.getStatus(), ex == null ? null : ex.getClass().getName());
+    }
+
+    private static String handlerName(final Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + '.' + method.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
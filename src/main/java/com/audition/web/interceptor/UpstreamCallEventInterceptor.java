@@ -0,0 +1,26 @@
+package com.audition.web.interceptor;
+
+import com.audition.common.profiling.UpstreamCallEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Records the status and size of each upstream response on the {@link UpstreamCallEvent} in progress. The RestTemplate
+ * buffers responses, so the size is known without consuming the body.
+ */
+public class UpstreamCallEventInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+        final ClientHttpRequestExecution execution) throws IOException {
+        final ClientHttpResponse response = execution.execute(request, body);
+        try (InputStream buffered = response.getBody()) {
+            UpstreamCallEvent.recordResponse(response.getStatusCode().value(), buffered.available());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,202 @@
+package com.audition;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.jayway.jsonpath.JsonPath;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the packaged application as a separate process, given by the newline-separated
+ * {@value #COMMAND_PROPERTY} system property, against a WireMock upstream. Run through the nativeSmokeTest and
+ * jvmSmokeTest Gradle tasks; both log the same startup, RSS and throughput line for comparison.
+ */
+@Tag("smoke")
+@EnabledIfSystemProperty(named = ApplicationSmokeTest.COMMAND_PROPERTY, matches = "(?s).+")
+class ApplicationSmokeTest {
+
+    static final String COMMAND_PROPERTY = "audition.smoke.command";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ApplicationSmokeTest.class);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final Duration LOAD_DURATION = Duration.ofSeconds(5);
+    private static final int LOAD_WARM_UP_REQUESTS = 500;
+    private static final String POSTS = "[{\"userId\":1,\"id\":1,\"title\":\"first\",\"body\":\"one\"},"
+        + "{\"userId\":2,\"id\":2,\"title\":\"second\",\"body\":\"two\"}]";
+    private static final String COMMENTS =
+        "[{\"postId\":1,\"id\":1,\"name\":\"n\",\"email\":\"a@b.c\",\"body\":\"c\"}]";
+
+    private static WireMockServer upstream;
+    private static Process application;
+    private static Path log;
+    private static HttpClient http;
+    private static String baseUrl;
+    private static long startupMillis;
+
+    @BeforeAll
+    static void startApplication() throws IOException, InterruptedException {
+        upstream = new WireMockServer(options().dynamicPort());
+        upstream.start();
+        upstream.stubFor(get(urlPathEqualTo("/posts")).willReturn(json(POSTS)));
+        upstream.stubFor(get(urlPathEqualTo("/comments")).willReturn(json(COMMENTS)));
+        upstream.stubFor(get(urlPathEqualTo("/posts/999")).willReturn(aResponse().withStatus(404)));
+
+        final int port = freePort();
+        final List<String> command = new ArrayList<>(
+            Arrays.asList(System.getProperty(COMMAND_PROPERTY).split("\n")));
+        command.add("--server.port=" + port);
+        command.add("--jsonplaceholder.api.url=" + upstream.baseUrl());
+        command.add("--audition.snapshot.enabled=false");
+        // Per-client buckets would otherwise throttle the load loop.
+        command.add("--audition.rate-limit.posts.capacity=1000000000");
+        command.add("--audition.rate-limit.posts.refill-per-second=1000000000");
+        log = Files.createTempFile("audition-smoke", ".log");
+        http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+        baseUrl = "http://localhost:" + port;
+
+        final long start = System.nanoTime();
+        application = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        awaitReadiness();
+        startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @AfterAll
+    static void stopApplication() throws InterruptedException {
+        if (application != null) {
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly();
+            }
+        }
+        if (upstream != null) {
+            upstream.stop();
+        }
+    }
+
+    @Test
+    void shouldServeSyncedPosts() throws IOException, InterruptedException {
+        final HttpResponse<String> response = send("/posts");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(JsonPath.<Integer>read(response.body(), "$.length()")).isEqualTo(2);
+        assertThat(JsonPath.<String>read(response.body(), "$[0].title")).isEqualTo("first");
+        assertThat(JsonPath.<Integer>read(response.body(), "$[0].userId")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServePostWithComments() throws IOException, InterruptedException {
+        final HttpResponse<String> response = send("/posts/1/comments");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(JsonPath.<String>read(response.body(), "$.title")).isEqualTo("first");
+        assertThat(JsonPath.<Integer>read(response.body(), "$.comments.length()")).isEqualTo(1);
+        assertThat(JsonPath.<String>read(response.body(), "$.comments[0].email")).isEqualTo("a@b.c");
+    }
+
+    @Test
+    void shouldAnswerInvalidIdWithProblemDetail() throws IOException, InterruptedException {
+        final HttpResponse<String> response = send("/posts/abc");
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(JsonPath.<Integer>read(response.body(), "$.status")).isEqualTo(400);
+        assertThat(JsonPath.<String>read(response.body(), "$.detail")).contains("digits");
+    }
+
+    @Test
+    void shouldAnswerUnknownPostWithNotFound() throws IOException, InterruptedException {
+        final HttpResponse<String> response = send("/posts/999");
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(JsonPath.<Integer>read(response.body(), "$.status")).isEqualTo(404);
+    }
+
+    @Test
+    void shouldReportStartupRssAndThroughput() throws IOException, InterruptedException {
+        for (int i = 0; i < LOAD_WARM_UP_REQUESTS; i++) {
+            assertThat(send("/posts/1").statusCode()).isEqualTo(200);
+        }
+        final long deadline = System.nanoTime() + LOAD_DURATION.toNanos();
+        int requests = 0;
+        while (System.nanoTime() < deadline) {
+            assertThat(send("/posts/1").statusCode()).isEqualTo(200);
+            requests++;
+        }
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Smoke: ready after {} ms, RSS {}, {} requests/s on one connection; log {}", startupMillis,
+                residentSetSize(), requests / LOAD_DURATION.toSeconds(), log);
+        }
+        assertThat(application.isAlive()).isTrue();
+    }
+
+    private static void awaitReadiness() throws IOException, InterruptedException {
+        final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("Application exited during startup, see " + log);
+            }
+            try {
+                if (send("/actuator/health/readiness").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // Keep polling until the web server is up.
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        throw new IllegalStateException("Application was not ready within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static HttpResponse<String> send(final String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String residentSetSize() throws IOException {
+        final Path status = Path.of("/proc", String.valueOf(application.pid()), "status");
+        if (!Files.isReadable(status)) {
+            return "n/a";
+        }
+        return Files.readAllLines(status).stream()
+            .filter(line -> line.startsWith("VmRSS:"))
+            .map(line -> line.substring("VmRSS:".length()).trim())
+            .findFirst()
+            .orElse("n/a");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ResponseDefinitionBuilder json(final String body) {
+        return aResponse().withHeader("Content-Type", "application/json").withBody(body);
+    }
+}
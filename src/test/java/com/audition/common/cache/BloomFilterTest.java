@@ -0,0 +1,46 @@
+package com.audition.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldContainEveryInsertedKey() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        for (int i = 1; i <= 1000; i++) {
+            filter.put(i);
+        }
+
+        for (int i = 1; i <= 1000; i++) {
+            assertThat(filter.mightContain(i)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearConfiguredProbability() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 1; i <= 1000; i++) {
+            filter.put(i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 1_000_001; i <= 1_100_000; i++) {
+            if (filter.mightContain(i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.03);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
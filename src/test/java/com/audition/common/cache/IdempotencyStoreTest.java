@@ -0,0 +1,118 @@
+package com.audition.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.audition.common.cache.IdempotencyStore.Claim;
+import com.audition.common.cache.IdempotencyStore.Status;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyStoreTest {
+
+    private final transient AtomicLong clock = new AtomicLong();
+    private final transient IdempotencyStore<String> store =
+        new IdempotencyStore<>(100, 3, 10, String::length, clock::get);
+
+    @Test
+    void shouldClaimNewKey_andHandResultToDuplicates() {
+        final Claim<String> first = store.claim("a", "fp");
+        final Claim<String> duplicate = store.claim("a", "fp");
+
+        assertThat(first.status()).isEqualTo(Status.CLAIMED);
+        assertThat(duplicate.status()).isEqualTo(Status.DUPLICATE);
+        assertThat(duplicate.result()).isNotDone();
+
+        store.complete("a", "done");
+
+        assertThat(duplicate.result()).isCompletedWithValue("done");
+        assertThat(store.claim("a", "fp").result()).isCompletedWithValue("done");
+        assertThat(store.weight()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldReportMismatch_whenKeyIsReusedForOtherRequest() {
+        store.claim("a", "fp");
+
+        final Claim<String> claim = store.claim("a", "other");
+
+        assertThat(claim.status()).isEqualTo(Status.MISMATCH);
+        assertThat(claim.result()).isNull();
+    }
+
+    @Test
+    void shouldForgetCompletedResult_afterTtl() {
+        store.claim("a", "fp");
+        clock.set(50);
+        store.complete("a", "done");
+
+        clock.set(149);
+        assertThat(store.claim("a", "fp").status()).isEqualTo(Status.DUPLICATE);
+
+        clock.set(150);
+        assertThat(store.claim("a", "fp").status()).isEqualTo(Status.CLAIMED);
+        assertThat(store.weight()).isZero();
+    }
+
+    @Test
+    void shouldNotExpireInFlightClaims() {
+        store.claim("a", "fp");
+
+        clock.set(1_000);
+
+        assertThat(store.claim("a", "fp").status()).isEqualTo(Status.DUPLICATE);
+    }
+
+    @Test
+    void shouldEvictOldestCompleted_whenEntriesAreFull() {
+        store.claim("a", "fp");
+        store.complete("a", "1");
+        store.claim("b", "fp");
+        store.claim("c", "fp");
+
+        assertThat(store.claim("d", "fp").status()).isEqualTo(Status.CLAIMED);
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.claim("a", "fp").status()).isEqualTo(Status.FULL);
+    }
+
+    @Test
+    void shouldEvictOldestCompleted_whenWeightIsExceeded() {
+        store.claim("a", "fp");
+        store.complete("a", "12345");
+        store.claim("b", "fp");
+        store.complete("b", "123456");
+
+        assertThat(store.weight()).isEqualTo(6);
+        assertThat(store.claim("b", "fp").status()).isEqualTo(Status.DUPLICATE);
+        assertThat(store.claim("a", "fp").status()).isEqualTo(Status.CLAIMED);
+    }
+
+    @Test
+    void shouldNotKeepResultHeavierThanTheStore_butStillHandItToWaiters() {
+        store.claim("a", "fp");
+        final Claim<String> waiter = store.claim("a", "fp");
+
+        store.complete("a", "much too heavy");
+
+        assertThat(waiter.result()).isCompletedWithValue("much too heavy");
+        assertThat(store.size()).isZero();
+        assertThat(store.weight()).isZero();
+    }
+
+    @Test
+    void shouldReleaseClaim_soTheKeyCanRunAgain() {
+        store.claim("a", "fp");
+        final Claim<String> waiter = store.claim("a", "fp");
+
+        store.release("a");
+
+        assertThat(waiter.result()).isCompletedWithValue(null);
+        assertThat(store.claim("a", "fp").status()).isEqualTo(Status.CLAIMED);
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThatThrownBy(() -> new IdempotencyStore<String>(0, 1, 1, String::length, clock::get))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.audition.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class NegativeCacheTest {
+
+    private final transient AtomicLong clock = new AtomicLong();
+    private final transient NegativeCache cache = new NegativeCache(100, 3, clock::get);
+
+    @Test
+    void shouldRememberMissUntilTtlExpires() {
+        cache.put(7);
+
+        clock.set(99);
+        assertThat(cache.contains(7)).isTrue();
+
+        clock.set(100);
+        assertThat(cache.contains(7)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldApplyNewTtl_toMissesRememberedAfterwards() {
+        cache.put(1);
+        cache.setTtlNanos(10);
+        cache.put(2);
+
+        clock.set(10);
+
+        assertThat(cache.contains(1)).isTrue();
+        assertThat(cache.contains(2)).isFalse();
+    }
+
+    @Test
+    void shouldPurgeExpiredEntries_whenFull() {
+        cache.put(1);
+        cache.put(2);
+        clock.set(50);
+        cache.put(3);
+
+        clock.set(120);
+        cache.put(4);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains(3)).isTrue();
+        assertThat(cache.contains(4)).isTrue();
+    }
+
+    @Test
+    void shouldNotGrowPastMaxEntries() {
+        for (int i = 0; i < 10; i++) {
+            cache.put(i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidate_shouldForgetKey() {
+        cache.put(5);
+
+        cache.invalidate(5);
+
+        assertThat(cache.contains(5)).isFalse();
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new NegativeCache(0, 1, clock::get)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.audition.common.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long RTT = 10_000_000L;
+
+    @Test
+    void tryAcquire_shouldRejectOnceLimitIsReached() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, 0.2, 1.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release(RTT);
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void setBounds_shouldClampCurrentLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100, 0.2, 1.5);
+
+        limiter.setBounds(1, 10);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        limiter.setBounds(20, 100);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void onSample_shouldGrowLimit_whenLatencyIsStableAndLimitIsUsed() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 1, 100, 0.2, 1.5);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(RTT, limiter.getLimit());
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void onSample_shouldShrinkLimit_whenLatencyRises() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100, 0.2, 1.5);
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(RTT, limiter.getLimit());
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(RTT * 10, limiter.getLimit());
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void onSample_shouldNotGrow_whenLimitIsNotUsed() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 1, 100, 0.2, 1.5);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(RTT, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void onSample_shouldStayWithinBounds() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(5, 4, 8, 0.5, 1.5);
+
+        for (int i = 0; i < 500; i++) {
+            limiter.onSample(RTT, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(RTT * 100, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void constructor_shouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> new GradientConcurrencyLimiter(1, 2, 10, 0.2, 1.5))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
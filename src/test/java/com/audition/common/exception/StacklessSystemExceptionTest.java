@@ -0,0 +1,37 @@
+package com.audition.common.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class StacklessSystemExceptionTest {
+
+    @Test
+    void shouldCarryStatusTitleAndDetailWithoutStackTrace() {
+        IllegalStateException cause = new IllegalStateException("upstream");
+
+        StacklessSystemException exception = new StacklessSystemException("Post not found",
+            SystemException.NOT_FOUND_ERROR_TITLE, 404, cause);
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getStatusCode()).isEqualTo(404);
+        assertThat(exception.getTitle()).isEqualTo(SystemException.NOT_FOUND_ERROR_TITLE);
+        assertThat(exception.getDetail()).isEqualTo("Post not found");
+        assertThat(exception.getCause()).isSameAs(cause);
+    }
+
+    @Test
+    void shouldNotRecordSuppressedExceptions() {
+        StacklessSystemException exception = new StacklessSystemException("Bad id",
+            SystemException.BAD_REQUEST_ERROR_TITLE, 400);
+
+        exception.addSuppressed(new IllegalStateException("ignored"));
+
+        assertThat(exception.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    void regularSystemException_shouldKeepItsStackTrace() {
+        assertThat(new SystemException("failure", SystemException.DEFAULT_TITLE, 500).getStackTrace()).isNotEmpty();
+    }
+}
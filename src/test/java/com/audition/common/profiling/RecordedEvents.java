@@ -0,0 +1,48 @@
+package com.audition.common.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Runs an action under a flight recording of one event type and returns the events it emitted. Other recordings
+ * running at the same time add their events to the same file, so the result is filtered by type.
+ */
+public final class RecordedEvents {
+
+    private RecordedEvents() {
+    }
+
+    public static List<RecordedEvent> during(final Class<? extends Event> type, final Action action) throws Exception {
+        final Path file = Files.createTempFile("recorded-events-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(type).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return read(file, type);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public static List<RecordedEvent> read(final Path file, final Class<? extends Event> type) throws IOException {
+        final String name = EventType.getEventType(type).getName();
+        return RecordingFile.readAllEvents(file).stream()
+            .filter(event -> name.equals(event.getEventType().getName()))
+            .toList();
+    }
+
+    @FunctionalInterface
+    public interface Action {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,95 @@
+package com.audition.common.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long CLIENT = TokenBucketRateLimiter.keyOf("client-a");
+    private static final long OTHER_CLIENT = TokenBucketRateLimiter.keyOf("client-b");
+
+    private final transient AtomicLong clock = new AtomicLong(-5_000_000_000L);
+    private transient TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new TokenBucketRateLimiter(3, 1.0, 1000, 4, clock::get);
+    }
+
+    @Test
+    void shouldAllowBurstUpToCapacity_thenReject() {
+        assertThat(limiter.tryAcquire(CLIENT).remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(CLIENT).remaining()).isEqualTo(1);
+        assertThat(limiter.tryAcquire(CLIENT).remaining()).isZero();
+
+        RateLimitDecision rejected = limiter.tryAcquire(CLIENT);
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.limit()).isEqualTo(3);
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rejected.resetNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(3));
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(CLIENT);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(limiter.tryAcquire(CLIENT).allowed()).isTrue();
+        assertThat(limiter.tryAcquire(CLIENT).allowed()).isFalse();
+    }
+
+    @Test
+    void shouldKeepClientsIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(CLIENT);
+        }
+
+        assertThat(limiter.tryAcquire(CLIENT).allowed()).isFalse();
+        assertThat(limiter.tryAcquire(OTHER_CLIENT).allowed()).isTrue();
+    }
+
+    @Test
+    void shouldEvictRefilledBuckets_whenTableIsFull() {
+        TokenBucketRateLimiter small = new TokenBucketRateLimiter(1, 1.0, 8, 1, clock::get);
+        for (int i = 0; i < 8; i++) {
+            small.tryAcquire(i);
+        }
+        assertThat(small.trackedClients()).isEqualTo(8);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        small.tryAcquire(100);
+
+        assertThat(small.trackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStayBounded_whenAllClientsAreActive() {
+        TokenBucketRateLimiter small = new TokenBucketRateLimiter(1, 1.0, 8, 1, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            small.tryAcquire(i);
+        }
+
+        assertThat(small.trackedClients()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void keyOf_shouldBeStableForEqualIds() {
+        assertThat(TokenBucketRateLimiter.keyOf("client-a")).isEqualTo(CLIENT).isNotEqualTo(OTHER_CLIENT);
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(1, 1.0, 10, 3, clock::get))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
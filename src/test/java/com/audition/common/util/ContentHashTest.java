@@ -0,0 +1,37 @@
+package com.audition.common.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ContentHashTest {
+
+    @Test
+    void shouldBeStableForEqualContent() {
+        assertThat(ContentHash.hash(1, "title", "body")).isEqualTo(ContentHash.hash(1, "title", "body"));
+    }
+
+    @Test
+    void shouldChangeWhenAnyFieldChanges() {
+        long original = ContentHash.hash(1, "title", "body");
+
+        assertThat(ContentHash.hash(2, "title", "body")).isNotEqualTo(original);
+        assertThat(ContentHash.hash(1, "title!", "body")).isNotEqualTo(original);
+        assertThat(ContentHash.hash(1, "title", "Body")).isNotEqualTo(original);
+    }
+
+    @Test
+    void shouldSeparateFieldsAndNulls() {
+        assertThat(ContentHash.hash("ab", "c")).isNotEqualTo(ContentHash.hash("a", "bc"));
+        assertThat(ContentHash.hash((Object) null)).isNotEqualTo(ContentHash.hash("null"));
+        assertThat(ContentHash.hash((Object) null)).isNotEqualTo(ContentHash.hash(""));
+    }
+
+    @Test
+    void shouldUseBothBytesOfNonAsciiCharacters() {
+        String aWithMacron = String.valueOf((char) 0x0101);
+        String aWithDoubleGrave = String.valueOf((char) 0x0201);
+
+        assertThat(ContentHash.hash(aWithMacron)).isNotEqualTo(ContentHash.hash(aWithDoubleGrave));
+    }
+}
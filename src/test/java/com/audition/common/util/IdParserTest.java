@@ -0,0 +1,34 @@
+package com.audition.common.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IdParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "1", "42", "007", "2147483647"})
+    void shouldParseDigits(final String value) {
+        assertThat(IdParser.parse(value)).isEqualTo(Integer.parseInt(value));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", " 42", "42 ", "\t1", "+7", "-3", "-", "abc", "12a", "1 2", "1.0", "\uFF11\uFF12",
+        "2147483648", "99999999999", "-2147483648"})
+    void shouldRejectAnythingButDigits(final String value) {
+        assertThat(IdParser.parse(value)).isEqualTo(IdParser.INVALID);
+    }
+
+    @Test
+    void shouldParseLongFromRange() {
+        assertThat(IdParser.parseLong("epoch-123", 6, 9)).isEqualTo(123L);
+        assertThat(IdParser.parseLong("x9223372036854775807", 1, 20)).isEqualTo(Long.MAX_VALUE);
+        assertThat(IdParser.parseLong("9223372036854775808", 0, 19)).isEqualTo(IdParser.INVALID);
+        assertThat(IdParser.parseLong("epoch-", 6, 6)).isEqualTo(IdParser.INVALID);
+        assertThat(IdParser.parseLong("epoch-1x", 6, 8)).isEqualTo(IdParser.INVALID);
+    }
+}
@@ -0,0 +1,49 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.web.ChangeFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.http.ProblemDetail;
+
+class AuditionRuntimeHintsTest {
+
+    private transient RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new AuditionRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterModelsForJsonBinding() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuditionPost.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(AuditionPost.class.getMethod("getComments")))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(AuditionPost.class.getMethod("setUserId", int.class)))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuditionComment.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(AuditionComment.class.getMethod("getEmail")))
+            .accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterChangeEventsForJsonBinding() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ChangeFeed.ChangeEvent.class.getMethod("recordId")))
+            .accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterProblemDetailForJsonBinding() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ProblemDetail.class.getMethod("getDetail")))
+            .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(ProblemDetail.class.getMethod("getProperties")))
+            .accepts(hints);
+    }
+}
@@ -0,0 +1,74 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientIdentityTest {
+
+    private final transient ClientIdentity identity = new ClientIdentity(Set.of("partner-1"),
+        List.of("10.0.0.0/8", "192.0.2.10", "fd00::/8"));
+
+    @Test
+    void shouldIdentifyListedApiKeysOnly() {
+        assertThat(identity.resolve(request("198.51.100.7", "partner-1"))).isEqualTo("key partner-1");
+        assertThat(identity.resolve(request("198.51.100.7", "made-up"))).isEqualTo("198.51.100.7");
+    }
+
+    @Test
+    void shouldIgnoreForwardingHeadersFromUntrustedPeers() {
+        MockHttpServletRequest request = request("198.51.100.7", null);
+        request.addHeader(ClientIdentity.FORWARDED_FOR_HEADER, "203.0.113.1");
+
+        assertThat(identity.resolve(request)).isEqualTo("198.51.100.7");
+    }
+
+    @Test
+    void shouldTakeTheLastUntrustedHopBehindTrustedProxies() {
+        MockHttpServletRequest request = request("10.0.0.5", null);
+        // The client sent a spoofed first hop; the proxies appended the real one and each other.
+        request.addHeader(ClientIdentity.FORWARDED_FOR_HEADER, "1.2.3.4, 203.0.113.1");
+        request.addHeader(ClientIdentity.FORWARDED_FOR_HEADER, "192.0.2.10");
+
+        assertThat(identity.resolve(request)).isEqualTo("203.0.113.1");
+    }
+
+    @Test
+    void shouldReadTheStandardForwardedHeader() {
+        MockHttpServletRequest request = request("fd00::1", null);
+        request.addHeader(ClientIdentity.FORWARDED_HEADER,
+            "for=\"[2001:db8:cafe::17]:4711\";proto=https, for=10.1.1.1:8080");
+        request.addHeader(ClientIdentity.FORWARDED_FOR_HEADER, "203.0.113.9");
+
+        assertThat(identity.resolve(request)).isEqualTo("2001:db8:cafe::17");
+    }
+
+    @Test
+    void shouldFallBackToTheFirstHopWhenEveryHopIsTrusted() {
+        MockHttpServletRequest request = request("10.0.0.5", null);
+        request.addHeader(ClientIdentity.FORWARDED_FOR_HEADER, "10.2.0.1, 10.3.0.1");
+
+        assertThat(identity.resolve(request)).isEqualTo("10.2.0.1");
+    }
+
+    @Test
+    void shouldRejectTrustedProxiesThatAreNotAddresses() {
+        assertThatThrownBy(() -> new ClientIdentity(Set.of(), List.of("proxy.example.com")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ClientIdentity(Set.of(), List.of("10.0.0.0/33")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MockHttpServletRequest request(final String remoteAddress, final String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.setRemoteAddr(remoteAddress);
+        if (apiKey != null) {
+            request.addHeader(ClientIdentity.API_KEY_HEADER, apiKey);
+        }
+        return request;
+    }
+}
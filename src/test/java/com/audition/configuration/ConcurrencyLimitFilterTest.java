@@ -0,0 +1,105 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.audition.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitFilterTest {
+
+    @Mock
+    private transient HandlerExceptionResolver resolver;
+
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient ConcurrencyProperties properties;
+    private transient ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConcurrencyProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(1);
+        properties.setRetryAfterSeconds(2);
+        filter = new ConcurrencyLimitFilter(resolver, meterRegistry, properties);
+    }
+
+    @Test
+    void shouldAdmitRequest_andReleasePermitAfterwards() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(filter.getLimiter().getInFlight()).isZero();
+        verify(resolver, never()).resolveException(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldShedRequest_whenLimitIsReached() throws Exception {
+        MockHttpServletResponse shedResponse = new MockHttpServletResponse();
+        MockHttpServletRequest shedRequest = new MockHttpServletRequest("GET", "/posts/1");
+
+        // The outer request holds the only permit while the nested one arrives.
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts"), new MockHttpServletResponse(),
+            (request, response) -> filter.doFilter(shedRequest, shedResponse, new MockFilterChain()));
+
+        verify(resolver).resolveException(eq(shedRequest), eq(shedResponse), isNull(),
+            any(ServiceOverloadedException.class));
+        assertThat(meterRegistry.get("audition.concurrency.rejected").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("audition.concurrency.limit").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReleaseAsyncRequests_withoutALatencySample() throws Exception {
+        properties.setMaxLimit(10);
+        properties.setSmoothing(1.0);
+        filter = new ConcurrencyLimitFilter(resolver, meterRegistry, properties);
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/feed");
+        streaming.setAsyncSupported(true);
+
+        filter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertThat(streaming.isAsyncStarted()).isTrue();
+        assertThat(filter.getLimiter().getInFlight()).isZero();
+        assertThat(filter.getLimiter().getLimit()).isEqualTo(1);
+
+        // A regular request at the limit is a sample and lets it grow.
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts"), new MockHttpServletResponse(),
+            new MockFilterChain());
+
+        assertThat(filter.getLimiter().getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMoveLimitBounds_onRefresh() {
+        properties.setMinLimit(3);
+        properties.setMaxLimit(8);
+
+        filter.onRefresh();
+
+        assertThat(filter.getLimiter().getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotLimitActuatorRequests() {
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/posts"))).isFalse();
+    }
+}
@@ -0,0 +1,83 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.integration.HedgeProperties;
+import com.audition.integration.UpstreamProperties;
+import com.audition.integration.UpstreamRetryPolicy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.http.HttpMethod;
+
+/**
+ * A local file imported at startup stands in for the config server: rewriting it and refreshing the context must
+ * reach the running beans without a restart. The import is a command line argument because the refresh rebuilds the
+ * environment from those, not from inlined test properties.
+ */
+@SpringBootTest(args = "--spring.config.import=optional:file:" + ConfigurationRefreshTest.TUNING_FILE)
+class ConfigurationRefreshTest {
+
+    static final String TUNING_FILE = "build/configuration-refresh-test/tuning.properties";
+
+    @Autowired
+    private transient ContextRefresher contextRefresher;
+
+    @Autowired
+    private transient UpstreamProperties upstreamProperties;
+
+    @Autowired
+    private transient HedgeProperties hedgeProperties;
+
+    @Autowired
+    private transient ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private transient UpstreamRetryPolicy upstreamRetryPolicy;
+
+    @BeforeAll
+    static void writeInitialSettings() throws IOException {
+        writeSettings("audition.upstream.read-timeout=10s\naudition.concurrency.max-limit=200\n");
+    }
+
+    @AfterAll
+    static void deleteSettings() throws IOException {
+        Files.deleteIfExists(Path.of(TUNING_FILE));
+    }
+
+    @Test
+    void shouldApplyChangedSettings_withoutRestart() throws IOException {
+        assertThat(upstreamProperties.getReadTimeout()).isEqualTo(Duration.ofSeconds(10));
+
+        writeSettings("""
+            audition.upstream.read-timeout=3s
+            audition.upstream.hedge.max-delay=250ms
+            audition.concurrency.min-limit=2
+            audition.concurrency.max-limit=3
+            audition.upstream.retry.max-attempts=1
+            """);
+        final Set<String> changed = contextRefresher.refresh();
+
+        assertThat(changed).contains("audition.upstream.read-timeout", "audition.concurrency.max-limit");
+        assertThat(upstreamProperties.getReadTimeout()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(hedgeProperties.getMaxDelay()).isEqualTo(Duration.ofMillis(250));
+        assertThat(concurrencyLimitFilter.getLimiter().getLimit()).isEqualTo(3);
+        assertThat(upstreamRetryPolicy.getMaxAttempts()).isEqualTo(1);
+        assertThat(upstreamRetryPolicy.isRetryable(HttpMethod.GET)).isFalse();
+    }
+
+    private static void writeSettings(final String settings) throws IOException {
+        final Path file = Path.of(TUNING_FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, settings, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.audition.common.profiling.CacheLookupEvent;
+import com.audition.common.profiling.RecordedEvents;
+import com.audition.configuration.FlightRecorderEndpoint.RecordingStatus;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+class FlightRecorderEndpointTest {
+
+    private final transient FlightRecorderEndpoint endpoint =
+        new FlightRecorderEndpoint("default", Duration.ofMinutes(5), DataSize.ofMegabytes(10));
+
+    @TempDir
+    private transient Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void shouldReportNoRecording_beforeStart() {
+        assertThat(endpoint.status().state()).isEqualTo("NONE");
+        assertThat(endpoint.stop().getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void shouldStartOnce_andRejectSecondStart() {
+        final WebEndpointResponse<RecordingStatus> started = endpoint.start(null);
+        final WebEndpointResponse<RecordingStatus> again = endpoint.start("profile");
+
+        assertThat(started.getStatus()).isEqualTo(200);
+        assertThat(started.getBody().name()).isEqualTo(FlightRecorderEndpoint.RECORDING_NAME);
+        assertThat(started.getBody().state()).isEqualTo("RUNNING");
+        assertThat(again.getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void shouldDumpApplicationEvents_andDeleteTheTemporaryFile() throws Exception {
+        endpoint.start("profile");
+        CacheLookupEvent.start("test-cache").finish(true);
+
+        final Resource dump = endpoint.dump(FlightRecorderEndpoint.DUMP_SELECTOR).getBody();
+        final Path file = dump.getFile().toPath();
+        final Path copy = tempDir.resolve("copy.jfr");
+        try (InputStream in = dump.getInputStream()) {
+            Files.copy(in, copy);
+        }
+
+        assertThat(file).doesNotExist();
+        assertThat(RecordedEvents.read(copy, CacheLookupEvent.class))
+            .anyMatch(event -> "test-cache".equals(event.getString("cache")));
+    }
+
+    @Test
+    void shouldKeepStoppedRecordingForDump() throws Exception {
+        endpoint.start(null);
+
+        assertThat(endpoint.stop().getBody().state()).isEqualTo("STOPPED");
+        assertThat(endpoint.status().state()).isEqualTo("STOPPED");
+        assertThat(endpoint.dump(FlightRecorderEndpoint.DUMP_SELECTOR).getStatus()).isEqualTo(200);
+        assertThat(endpoint.start(null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldAnswerNotFound_forUnknownSelectorOrMissingRecording() throws Exception {
+        assertThat(endpoint.dump(FlightRecorderEndpoint.DUMP_SELECTOR).getStatus()).isEqualTo(404);
+        endpoint.start(null);
+        assertThat(endpoint.dump("other").getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void shouldRejectUnknownSettings() {
+        assertThatThrownBy(() -> endpoint.start("no-such-settings"))
+            .isInstanceOf(InvalidEndpointRequestException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionStore;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("http2")
+class Http2ServerConfigurationTest {
+
+    private final transient HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+    @LocalServerPort
+    private transient int port;
+
+    @Autowired
+    private transient ServletWebServerApplicationContext context;
+
+    @Autowired
+    private transient AuditionStore auditionStore;
+
+    @Test
+    void shouldServeCleartextHttp2() throws Exception {
+        final HttpResponse<String> response = client.send(request("/actuator/health").build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldCompressJsonResponses() throws Exception {
+        final List<AuditionPost> posts = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            final AuditionPost post = new AuditionPost();
+            post.setId(id);
+            post.setUserId(1);
+            post.setTitle("title " + id);
+            post.setBody("body of post " + id);
+            posts.add(post);
+        }
+        auditionStore.upsertPosts(posts);
+
+        final HttpResponse<byte[]> list = client.send(
+            request("/posts").header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(list.statusCode()).isEqualTo(200);
+        assertThat(list.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+    }
+
+    @Test
+    void shouldRunAllStreamsOfAConnectionConcurrently() {
+        final Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        final Http2Protocol http2 = Arrays.stream(connector.findUpgradeProtocols())
+            .filter(Http2Protocol.class::isInstance)
+            .map(Http2Protocol.class::cast)
+            .findFirst()
+            .orElseThrow();
+
+        assertThat(http2.getMaxConcurrentStreams()).isEqualTo(128);
+        assertThat(http2.getMaxConcurrentStreamExecution()).isEqualTo(128);
+        assertThat(http2.getInitialWindowSize()).isEqualTo(256 * 1024);
+        assertThat(http2.getKeepAliveTimeout()).isEqualTo(60_000);
+    }
+
+    private HttpRequest.Builder request(final String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+}
@@ -0,0 +1,273 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.audition.common.exception.StacklessSystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"title\":\"t\",\"body\":\"b\"}";
+    private static final int MAX_BODY_SIZE = 64;
+
+    @Mock
+    private transient HandlerExceptionResolver resolver;
+
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient IdempotencyFilter filter;
+    private final transient AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new IdempotencyFilter(resolver, meterRegistry, new ClientIdentity(Set.of("client-key"), List.of()),
+            Duration.ofHours(1), 100, DataSize.ofMegabytes(1), Duration.ofSeconds(5), DataSize.ofBytes(MAX_BODY_SIZE));
+    }
+
+    @Test
+    void shouldRunOnce_andReplayStoredResponse() throws Exception {
+        final MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", BODY), first, created());
+
+        final MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", BODY), second, created());
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getContentAsString()).isEqualTo("{\"id\":101}");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(second.getStatus()).isEqualTo(201);
+        assertThat(second.getContentAsString()).isEqualTo("{\"id\":101}");
+        assertThat(second.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(second.getHeader(HttpHeaders.LOCATION)).isEqualTo("/posts/101");
+        assertThat(second.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(meterRegistry.get(IdempotencyFilter.REQUESTS_METRIC)
+            .tag(IdempotencyFilter.OUTCOME_TAG, "replayed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPassBufferedBodyToHandler() throws Exception {
+        final StringBuilder seen = new StringBuilder();
+
+        filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(),
+            (request, response) -> seen.append(new String(request.getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8)));
+
+        assertThat(seen).hasToString(BODY);
+    }
+
+    @Test
+    void shouldScopeKeysByClient() throws Exception {
+        final MockHttpServletRequest other = post("key-1", BODY);
+        other.setRemoteAddr("192.0.2.1");
+        final MockHttpServletRequest listedKey = post("key-1", BODY);
+        listedKey.addHeader(ClientIdentity.API_KEY_HEADER, "client-key");
+
+        filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), created());
+        filter.doFilter(other, new MockHttpServletResponse(), created());
+        filter.doFilter(listedKey, new MockHttpServletResponse(), created());
+
+        assertThat(executions).hasValue(3);
+    }
+
+    @Test
+    void shouldNotLetAnUnlistedApiKeyReachAnotherClientsResponses() throws Exception {
+        final MockHttpServletRequest owner = post("key-1", BODY);
+        owner.setRemoteAddr("192.0.2.1");
+        owner.addHeader(ClientIdentity.API_KEY_HEADER, "owner-key");
+        filter.doFilter(owner, new MockHttpServletResponse(), created());
+        final MockHttpServletRequest impostor = post("key-1", BODY);
+        impostor.addHeader(ClientIdentity.API_KEY_HEADER, "owner-key");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(impostor, response, created());
+
+        assertThat(executions).hasValue(2);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentBody() throws Exception {
+        filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), created());
+        final MockHttpServletRequest reused = post("key-1", "{\"title\":\"other\",\"body\":\"b\"}");
+
+        filter.doFilter(reused, new MockHttpServletResponse(), created());
+
+        assertThat(executions).hasValue(1);
+        verify(resolver).resolveException(eq(reused), any(), isNull(),
+            argThat(e -> ((StacklessSystemException) e).getStatusCode() == 422));
+    }
+
+    @Test
+    void shouldRejectOverlongKey() throws Exception {
+        final MockHttpServletRequest request = post("k".repeat(256), BODY);
+
+        filter.doFilter(request, new MockHttpServletResponse(), created());
+
+        assertThat(executions).hasValue(0);
+        verify(resolver).resolveException(eq(request), any(), isNull(),
+            argThat(e -> ((StacklessSystemException) e).getStatusCode() == 400));
+    }
+
+    @Test
+    void shouldRejectOversizedBody_withoutRunningTheRequest() throws Exception {
+        final String oversized = "x".repeat(MAX_BODY_SIZE + 1);
+        final MockHttpServletRequest declared = post("key-1", oversized);
+        final MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/posts") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-2");
+        chunked.setContent(oversized.getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(declared, new MockHttpServletResponse(), created());
+        filter.doFilter(chunked, new MockHttpServletResponse(), created());
+
+        assertThat(executions).hasValue(0);
+        verify(resolver).resolveException(eq(declared), any(), isNull(),
+            argThat(e -> ((StacklessSystemException) e).getStatusCode() == 413));
+        verify(resolver).resolveException(eq(chunked), any(), isNull(),
+            argThat(e -> ((StacklessSystemException) e).getStatusCode() == 413));
+    }
+
+    @Test
+    void shouldNotifyReadListenerOfTheBufferedBody() throws Exception {
+        final StringBuilder seen = new StringBuilder();
+
+        filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), (request, response) -> {
+            final ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        seen.append((char) in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    seen.append('|');
+                }
+
+                @Override
+                public void onError(final Throwable failure) {
+                    seen.append(failure);
+                }
+            });
+        });
+
+        assertThat(seen).hasToString(BODY + '|');
+    }
+
+    @Test
+    void shouldRunAgain_afterServerError() throws Exception {
+        final FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(502);
+        };
+
+        filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), failing);
+        filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), created());
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void shouldParkConcurrentDuplicate_untilFirstRequestCompletes() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), (request, response) -> {
+                    entered.countDown();
+                    try {
+                        proceed.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    created().doFilter(request, response);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final MockHttpServletResponse duplicate = new MockHttpServletResponse();
+        final CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(post("key-1", BODY), duplicate, created());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        proceed.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(executions).hasValue(1);
+        assertThat(duplicate.getStatus()).isEqualTo(201);
+        assertThat(duplicate.getContentAsString()).isEqualTo("{\"id\":101}");
+        verify(resolver, never()).resolveException(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldOnlyFilterWritesWithKey() {
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/posts"))).isTrue();
+        final MockHttpServletRequest read = new MockHttpServletRequest("GET", "/posts");
+        read.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        assertThat(filter.shouldNotFilter(read)).isTrue();
+        assertThat(filter.shouldNotFilter(post("key-1", BODY))).isFalse();
+    }
+
+    private FilterChain created() {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            final HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            http.setHeader(HttpHeaders.LOCATION, "/posts/101");
+            http.getOutputStream().write("{\"id\":101}".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest post(final String key, final String body) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/posts");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
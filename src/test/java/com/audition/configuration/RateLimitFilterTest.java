@@ -0,0 +1,146 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.audition.common.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private transient HandlerExceptionResolver resolver;
+
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(resolver, meterRegistry, 2, 1.0, 1, 1.0, 1, 1.0, 1000,
+            new ClientIdentity(Set.of("key-1", "key-2"), List.of("10.0.0.0/8")));
+    }
+
+    @Test
+    void shouldSetRateLimitHeaders_whenAllowed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts/1"), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getHeader(RateLimitFilter.LIMIT_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("1");
+        assertThat(response.getHeader(RateLimitFilter.RESET_HEADER)).isEqualTo("1");
+        verify(resolver, never()).resolveException(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectWith429_whenClientExhaustsRouteBucket() throws Exception {
+        filter.doFilter(request("/comments", "key-1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletRequest request = request("/comments", "key-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getHeader(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+        verify(resolver).resolveException(eq(request), eq(response), isNull(), any(RateLimitExceededException.class));
+        assertThat(meterRegistry.get("audition.ratelimit.rejected").tag("route", "comments").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldTrackRoutesAndApiKeysSeparately() throws Exception {
+        filter.doFilter(request("/comments", "key-1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockFilterChain otherKey = new MockFilterChain();
+        MockFilterChain otherRoute = new MockFilterChain();
+
+        filter.doFilter(request("/comments", "key-2"), new MockHttpServletResponse(), otherKey);
+        filter.doFilter(request("/posts", "key-1"), new MockHttpServletResponse(), otherRoute);
+
+        assertThat(otherKey.getRequest()).isNotNull();
+        assertThat(otherRoute.getRequest()).isNotNull();
+    }
+
+    @Test
+    void shouldKeyUnknownApiKeysOnTheRemoteAddress() throws Exception {
+        filter.doFilter(request("/comments", "rotated-1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockFilterChain rotated = new MockFilterChain();
+
+        filter.doFilter(request("/comments", "rotated-2"), new MockHttpServletResponse(), rotated);
+
+        assertThat(rotated.getRequest()).isNull();
+        assertThat(meterRegistry.get("audition.ratelimit.clients").tag("route", "comments").gauge().value())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldShareTheStreamsLimitBetweenExportAndFeed() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/export"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        MockFilterChain feed = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/feed"), new MockHttpServletResponse(), feed);
+
+        assertThat(feed.getRequest()).isNull();
+        assertThat(meterRegistry.get("audition.ratelimit.rejected").tag("route", "streams").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeyClientsBehindATrustedProxyOnTheirForwardedAddress() throws Exception {
+        filter.doFilter(forwarded("203.0.113.1"), new MockHttpServletResponse(), new MockFilterChain());
+        MockFilterChain otherClient = new MockFilterChain();
+        MockFilterChain sameClient = new MockFilterChain();
+
+        filter.doFilter(forwarded("203.0.113.2"), new MockHttpServletResponse(), otherClient);
+        filter.doFilter(forwarded("203.0.113.1"), new MockHttpServletResponse(), sameClient);
+
+        assertThat(otherClient.getRequest()).isNotNull();
+        assertThat(sameClient.getRequest()).isNull();
+    }
+
+    @Test
+    void shouldOnlyLimitDataRoutes() {
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/posts"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/posts/1/comments"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/comments"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/users/1/stats"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/export"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/feed"))).isFalse();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/postsearch"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health"))).isTrue();
+    }
+
+    private static MockHttpServletRequest forwarded(final String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/comments");
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader(ClientIdentity.FORWARDED_FOR_HEADER, client);
+        return request;
+    }
+
+    private MockHttpServletRequest request(final String path, final String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(ClientIdentity.API_KEY_HEADER, apiKey);
+        return request;
+    }
+}
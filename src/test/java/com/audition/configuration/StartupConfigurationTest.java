@@ -0,0 +1,38 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.audition.persistence.StoreSnapshotter;
+import com.audition.web.WarmUpRunner;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+class StartupConfigurationTest {
+
+    @Test
+    void shouldKeepSnapshotRestoreEager() {
+        final LazyInitializationExcludeFilter filter = StartupConfiguration.eagerStartupBeans();
+
+        assertThat(filter.isExcluded("storeSnapshotter", new RootBeanDefinition(StoreSnapshotter.class),
+            StoreSnapshotter.class)).isTrue();
+        assertThat(filter.isExcluded("warmUpRunner", new RootBeanDefinition(WarmUpRunner.class),
+            WarmUpRunner.class)).isFalse();
+    }
+
+    @Test
+    void shouldCloseContext_whenTrainingRunIsReady() {
+        final ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+
+        new StartupConfiguration().trainingRunShutdown().onApplicationEvent(
+            new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ZERO));
+
+        verify(context).close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TailSamplingSpanHandlerTest {
+
+    private static final Duration SLOW = Duration.ofMillis(500);
+    private static final long START_MICROS = 1_000_000L;
+
+    private final transient List<String> exported = new ArrayList<>();
+    private transient Tracing tracing;
+    private transient TailSamplingSpanHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        if (tracing != null) {
+            tracing.close();
+        }
+    }
+
+    @Test
+    void shouldDropFastSuccessfulTrace_whenBaselineRejects() {
+        final Tracer tracer = tracer(Sampler.NEVER_SAMPLE);
+
+        final Span root = tracer.newTrace().name("root").start(START_MICROS);
+        tracer.newChild(root.context()).name("child").start(START_MICROS).finish(START_MICROS + 10);
+        root.finish(START_MICROS + 20);
+
+        assertThat(exported).isEmpty();
+        assertThat(handler.trackedTraces()).isZero();
+    }
+
+    @Test
+    void shouldKeepWholeTrace_whenBaselineAccepts() {
+        final Tracer tracer = tracer(Sampler.ALWAYS_SAMPLE);
+
+        final Span root = tracer.newTrace().name("root").start(START_MICROS);
+        tracer.newChild(root.context()).name("child").start(START_MICROS).finish(START_MICROS + 10);
+        root.finish(START_MICROS + 20);
+
+        assertThat(exported).containsExactly("child", "root");
+    }
+
+    @Test
+    void shouldKeepErrorSpanAndItsLocalRoot_whenBaselineRejects() {
+        final Tracer tracer = tracer(Sampler.NEVER_SAMPLE);
+
+        final Span root = tracer.newTrace().name("root").start(START_MICROS);
+        tracer.newChild(root.context()).name("ok").start(START_MICROS).finish(START_MICROS + 10);
+        tracer.newChild(root.context()).name("failed").start(START_MICROS)
+            .error(new IllegalStateException("boom")).finish(START_MICROS + 10);
+        root.finish(START_MICROS + 20);
+
+        assertThat(exported).containsExactly("failed", "root");
+        assertThat(handler.trackedTraces()).isZero();
+    }
+
+    @Test
+    void shouldKeepSlowRootSpan_whenBaselineRejects() {
+        final Tracer tracer = tracer(Sampler.NEVER_SAMPLE);
+
+        tracer.newTrace().name("slow").start(START_MICROS).finish(START_MICROS + SLOW.toNanos() / 1000L);
+
+        assertThat(exported).containsExactly("slow");
+    }
+
+    private Tracer tracer(final Sampler baseline) {
+        handler = new TailSamplingSpanHandler(baseline, SLOW, 16);
+        tracing = Tracing.newBuilder()
+            .sampler(Sampler.ALWAYS_SAMPLE)
+            .addSpanHandler(handler)
+            .addSpanHandler(new SpanHandler() {
+                @Override
+                public boolean end(final TraceContext context, final MutableSpan span, final Cause cause) {
+                    exported.add(span.name());
+                    return true;
+                }
+            })
+            .build();
+        return tracing.tracer();
+    }
+}
@@ -0,0 +1,68 @@
+package com.audition.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TracingConfigurationTest {
+
+    private transient SamplingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SamplingProperties();
+        properties.setSampler(TracingConfiguration.PROBABILITY);
+        properties.setProbability(1.0f);
+        properties.setTracesPerSecond(10);
+    }
+
+    @Test
+    void shouldUseProbabilitySampler_byDefault() {
+        assertThat(baseline(new TracingConfiguration(properties))).isSameAs(Sampler.ALWAYS_SAMPLE);
+    }
+
+    @Test
+    void shouldUseRateLimitingSampler_whenConfigured() {
+        properties.setSampler("Rate-Limited");
+
+        assertThat(baseline(new TracingConfiguration(properties))).isInstanceOf(RateLimitingSampler.class);
+    }
+
+    @Test
+    void shouldRebuildSampler_onRefresh() {
+        TracingConfiguration configuration = new TracingConfiguration(properties);
+        Sampler sampler = configuration.auditionSampler();
+
+        properties.setProbability(0.0f);
+        configuration.onRefresh();
+
+        assertThat(configuration.auditionSampler()).isSameAs(sampler);
+        assertThat(sampler.isSampled(42L)).isFalse();
+        assertThat(baseline(configuration)).isSameAs(Sampler.NEVER_SAMPLE);
+    }
+
+    @Test
+    void shouldRecordEverythingLocally_whenTailSamplingEnabled() {
+        properties.setSampler(TracingConfiguration.RATE_LIMITED);
+        properties.getTail().setEnabled(true);
+        TracingConfiguration configuration = new TracingConfiguration(properties);
+
+        assertThat(configuration.auditionSampler()).isSameAs(Sampler.ALWAYS_SAMPLE);
+        assertThat(configuration.tailSamplingSpanHandler()).isInstanceOf(TailSamplingSpanHandler.class);
+    }
+
+    @Test
+    void shouldRejectUnknownSampler() {
+        properties.setSampler("sometimes");
+
+        assertThatThrownBy(() -> new TracingConfiguration(properties)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Sampler baseline(final TracingConfiguration configuration) {
+        return ((RefreshableSampler) configuration.auditionSampler()).getDelegate();
+    }
+}
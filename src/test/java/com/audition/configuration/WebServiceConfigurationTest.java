@@ -5,7 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.audition.integration.UpstreamProperties;
 import com.audition.web.interceptor.LoggingRequestInterceptor;
+import com.audition.web.interceptor.UpstreamCallEventInterceptor;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -50,7 +52,7 @@ class WebServiceConfigurationTest {
     @Test
     void restTemplate_shouldBeConfiguredCorrectly() {
         ObjectMapper mapper = configuration.objectMapper();
-        RestTemplate restTemplate = configuration.restTemplate(mapper);
+        RestTemplate restTemplate = configuration.restTemplate(mapper, new UpstreamProperties());
 
         assertNotNull(restTemplate);
         assertTrue(restTemplate.getRequestFactory() instanceof InterceptingClientHttpRequestFactory);
@@ -63,8 +65,9 @@ class WebServiceConfigurationTest {
         assertEquals(mapper, converter.getObjectMapper());
 
         // Check interceptors
-        assertEquals(1, restTemplate.getInterceptors().size());
+        assertEquals(2, restTemplate.getInterceptors().size());
         assertTrue(restTemplate.getInterceptors().get(0) instanceof LoggingRequestInterceptor);
+        assertTrue(restTemplate.getInterceptors().get(1) instanceof UpstreamCallEventInterceptor);
     }
 
     @Test
@@ -12,13 +12,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.audition.common.exception.SystemException;
+import com.audition.common.profiling.RecordedEvents;
+import com.audition.common.profiling.UpstreamCallEvent;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.web.interceptor.UpstreamCallEventInterceptor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.observation.ObservationRegistry;
 import java.util.Arrays;
 import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +34,6 @@ import org.springframework.http.MediaType;
 import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 
@@ -72,10 +76,12 @@ class AuditionIntegrationClientIntegrationTest {
         restTemplate.setMessageConverters(List.of(
             new MappingJackson2HttpMessageConverter(objectMapper)
         ));
+        restTemplate.setInterceptors(List.of(new UpstreamCallEventInterceptor()));
 
         // Create client with RestTemplate
-        client = new AuditionIntegrationClient(restTemplate);
-        ReflectionTestUtils.setField(client, "baseUrl", wireMockServer.baseUrl());
+        client = new AuditionIntegrationClient(restTemplate, ObservationRegistry.NOOP,
+            AuditionIntegrationClientTest.noRetries(), AuditionIntegrationClientTest.noHedging(),
+            AuditionIntegrationClientTest.balancer(wireMockServer.baseUrl()));
     }
 
     @Test
@@ -254,6 +260,28 @@ class AuditionIntegrationClientIntegrationTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("Should record a flight recorder event per upstream call")
+    void shouldRecordUpstreamCallEvent() throws Exception {
+        final String body = objectMapper.writeValueAsString(createPost(7, 1, "Post", "Body"));
+        stubFor(get(urlEqualTo(POSTS_URI_PATH + 7))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .withBody(body)));
+
+        final List<RecordedEvent> events = RecordedEvents.during(UpstreamCallEvent.class, () -> client.getPostById(7));
+
+        assertThat(events).hasSize(1);
+        final RecordedEvent event = events.get(0);
+        assertThat(event.getString("method")).isEqualTo("GET");
+        assertThat(event.getString("uriTemplate")).isEqualTo("/posts/{id}");
+        assertThat(event.getString("endpoint")).isEqualTo(wireMockServer.baseUrl());
+        assertThat(event.getInt("attempt")).isEqualTo(1);
+        assertThat(event.getInt("status")).isEqualTo(200);
+        assertThat(event.getLong("bytes")).isEqualTo(body.length());
+    }
+
     private AuditionPost createPost(int id, int userId, String title, String body) {
         AuditionPost post = new AuditionPost();
         post.setId(id);
@@ -8,6 +8,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -15,9 +17,18 @@ import static org.mockito.Mockito.when;
 import com.audition.common.exception.SystemException;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -26,10 +37,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
@@ -50,9 +61,33 @@ class AuditionIntegrationClientTest {
 
     @BeforeEach
     void setUp() {
-        client = new AuditionIntegrationClient(restTemplate);
-        // Set the baseUrl using reflection (since it's @Value injected)
-        ReflectionTestUtils.setField(client, "baseUrl", BASE_URL);
+        client = new AuditionIntegrationClient(restTemplate, ObservationRegistry.NOOP, noRetries(), noHedging(),
+            balancer(BASE_URL));
+    }
+
+    static UpstreamBalancer balancer(String baseUrl) {
+        UpstreamProperties upstream = new UpstreamProperties();
+        upstream.setBaseUrl(baseUrl);
+        return new UpstreamBalancer(new SimpleMeterRegistry(), upstream);
+    }
+
+    static UpstreamRetryPolicy noRetries() {
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(1);
+        return new UpstreamRetryPolicy(new SimpleMeterRegistry(), properties);
+    }
+
+    static UpstreamRetryPolicy quickRetries(MeterRegistry meterRegistry, int maxBurst) {
+        RetryProperties properties = new RetryProperties();
+        properties.setBaseDelay(Duration.ofMillis(1));
+        properties.setMaxDelay(Duration.ofMillis(5));
+        properties.getBudget().setRatio(0.0);
+        properties.getBudget().setMaxBurst(maxBurst);
+        return new UpstreamRetryPolicy(meterRegistry, properties);
+    }
+
+    static UpstreamHedgingPolicy noHedging() {
+        return new UpstreamHedgingPolicy(new SimpleMeterRegistry(), new HedgeProperties());
     }
 
     private AuditionPost createMockPost(int id) {
@@ -418,6 +453,75 @@ class AuditionIntegrationClientTest {
         }
     }
 
+    @Nested
+    @DisplayName("Paged fetch Tests")
+    class PagedFetchTests {
+
+        @Test
+        @DisplayName("Should request a page of posts with start and limit")
+        void shouldFetchPostsPage() {
+            // Given
+            List<AuditionPost> expectedPosts = List.of(createMockPost(11), createMockPost(12));
+            when(restTemplate.exchange(
+                eq(BASE_URL + "/posts?_start={start}&_limit={limit}"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                eq(Map.of("start", 10, "limit", 2))
+            )).thenReturn(ResponseEntity.ok(expectedPosts));
+
+            // When
+            List<AuditionPost> result = client.getPostsPage(10, 2);
+
+            // Then
+            assertThat(result).isEqualTo(expectedPosts);
+        }
+
+        @Test
+        @DisplayName("Should request a page of comments with start and limit")
+        void shouldFetchCommentsPage() {
+            // Given
+            List<AuditionComment> expectedComments = List.of(createMockComment(1, 1));
+            when(restTemplate.exchange(
+                eq(BASE_URL + "/comments?_start={start}&_limit={limit}"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                eq(Map.of("start", 0, "limit", 100))
+            )).thenReturn(ResponseEntity.ok(expectedComments));
+
+            // When
+            List<AuditionComment> result = client.getCommentsPage(0, 100);
+
+            // Then
+            assertThat(result).isEqualTo(expectedComments);
+        }
+    }
+
+    @Nested
+    @DisplayName("getComments() Tests")
+    class GetCommentsTests {
+
+        @Test
+        @DisplayName("Should fetch all comments in one call")
+        void shouldFetchAllComments() {
+            // Given
+            List<AuditionComment> expectedComments = List.of(createMockComment(1, 1), createMockComment(2, 2));
+            when(restTemplate.exchange(
+                eq(BASE_URL + "/comments"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenReturn(ResponseEntity.ok(expectedComments));
+
+            // When
+            List<AuditionComment> result = client.getComments();
+
+            // Then
+            assertThat(result).isEqualTo(expectedComments);
+        }
+    }
+
     @Nested
     @DisplayName("getCommentsByPostId() Tests")
     class GetCommentsByPostIdTests {
@@ -495,6 +599,83 @@ class AuditionIntegrationClientTest {
     }
 
 
+    @Nested
+    @DisplayName("Write Tests")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Should post a new post and return the upstream's copy")
+        void shouldCreatePost() {
+            // Given
+            AuditionPost post = createMockPost(0);
+            AuditionPost created = createMockPost(101);
+            when(restTemplate.exchange(
+                eq(BASE_URL + "/posts"),
+                eq(HttpMethod.POST),
+                eq(new HttpEntity<>(post)),
+                any(ParameterizedTypeReference.class)
+            )).thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(created));
+
+            // When/Then
+            assertThat(client.createPost(post)).isSameAs(created);
+        }
+
+        @Test
+        @DisplayName("Should put a comment by id")
+        void shouldUpdateComment() {
+            // Given
+            AuditionComment comment = createMockComment(5, 1);
+            when(restTemplate.exchange(
+                eq(BASE_URL + "/comments/{id}"),
+                eq(HttpMethod.PUT),
+                eq(new HttpEntity<>(comment)),
+                any(ParameterizedTypeReference.class),
+                eq(Map.of("id", 5))
+            )).thenReturn(ResponseEntity.ok(comment));
+
+            // When/Then
+            assertThat(client.updateComment(5, comment)).isSameAs(comment);
+        }
+
+        @Test
+        @DisplayName("Should accept an empty response to a delete")
+        void shouldDeletePostWithoutResponseBody() {
+            // Given
+            when(restTemplate.exchange(
+                eq(BASE_URL + POSTS_URI_PATH),
+                eq(HttpMethod.DELETE),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                eq(Map.of("id", 7))
+            )).thenReturn(ResponseEntity.noContent().build());
+
+            // When
+            client.deletePost(7);
+
+            // Then
+            verify(restTemplate).exchange(eq(BASE_URL + POSTS_URI_PATH), eq(HttpMethod.DELETE), isNull(),
+                any(ParameterizedTypeReference.class), eq(Map.of("id", 7)));
+        }
+
+        @Test
+        @DisplayName("Should throw SystemException when a write is rejected")
+        void shouldThrowExceptionWhenWriteIsRejected() {
+            // Given
+            when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.DELETE),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                anyMap()
+            )).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+            // When/Then
+            assertThatThrownBy(() -> client.deleteComment(9))
+                .isInstanceOf(SystemException.class)
+                .extracting(STATUS_CODE).isEqualTo(404);
+        }
+    }
+
     @Nested
     @DisplayName("Error Handling Edge Cases")
     class ErrorHandlingTests {
@@ -569,4 +750,274 @@ class AuditionIntegrationClientTest {
                 .hasMessageContaining("Unexpected error occurred");
         }
     }
+
+    @Nested
+    @DisplayName("Tracing Tests")
+    class TracingTests {
+
+        private final transient List<Observation.Context> observed = new ArrayList<>();
+        private transient AuditionIntegrationClient tracedClient;
+
+        @BeforeEach
+        void setUp() {
+            ObservationRegistry registry = ObservationRegistry.create();
+            registry.observationConfig().observationHandler(new ObservationHandler<>() {
+                @Override
+                public void onStop(Observation.Context context) {
+                    observed.add(context);
+                }
+
+                @Override
+                public boolean supportsContext(Observation.Context context) {
+                    return true;
+                }
+            });
+            tracedClient = new AuditionIntegrationClient(restTemplate, registry, noRetries(), noHedging(),
+                balancer(BASE_URL));
+        }
+
+        @Test
+        @DisplayName("Should record url template and status for successful calls")
+        void shouldRecordTemplateAndStatus() {
+            // Given
+            when(restTemplate.exchange(
+                eq(BASE_URL + POSTS_URI_PATH),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                eq(Map.of("id", 1))
+            )).thenReturn(ResponseEntity.ok(createMockPost(1)));
+
+            // When
+            tracedClient.getPostById(1);
+
+            // Then
+            assertThat(observed).hasSize(1);
+            Observation.Context context = observed.get(0);
+            assertThat(context.getName()).isEqualTo(AuditionIntegrationClient.UPSTREAM_OBSERVATION);
+            assertThat(context.getLowCardinalityKeyValue(AuditionIntegrationClient.URI_TEMPLATE_KEY).getValue())
+                .isEqualTo(POSTS_URI_PATH);
+            assertThat(context.getLowCardinalityKeyValue(AuditionIntegrationClient.STATUS_KEY).getValue())
+                .isEqualTo("200");
+            assertThat(context.getLowCardinalityKeyValue(AuditionIntegrationClient.ENDPOINT_KEY).getValue())
+                .isEqualTo(BASE_URL);
+            assertThat(context.getError()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should record upstream status and error for failed calls")
+        void shouldRecordStatusAndErrorOnFailure() {
+            // Given
+            when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+            // When/Then
+            assertThatThrownBy(() -> tracedClient.getPosts()).isInstanceOf(SystemException.class);
+            Observation.Context context = observed.get(0);
+            assertThat(context.getLowCardinalityKeyValue(AuditionIntegrationClient.STATUS_KEY).getValue())
+                .isEqualTo("502");
+            assertThat(context.getError()).isInstanceOf(SystemException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry Tests")
+    class RetryTests {
+
+        private transient SimpleMeterRegistry meterRegistry;
+        private transient AuditionIntegrationClient retryingClient;
+
+        @BeforeEach
+        void setUp() {
+            meterRegistry = new SimpleMeterRegistry();
+            retryingClient = clientWithBudget(10);
+        }
+
+        private AuditionIntegrationClient clientWithBudget(int maxBurst) {
+            UpstreamRetryPolicy policy = quickRetries(meterRegistry, maxBurst);
+            AuditionIntegrationClient retrying = new AuditionIntegrationClient(restTemplate, ObservationRegistry.NOOP,
+                policy, noHedging(), balancer(BASE_URL));
+            return retrying;
+        }
+
+        private double attempts(String attempt, String outcome) {
+            return meterRegistry.get(UpstreamRetryPolicy.ATTEMPTS_METRIC)
+                .tag(UpstreamRetryPolicy.ATTEMPT_TAG, attempt)
+                .tag(UpstreamRetryPolicy.OUTCOME_TAG, outcome)
+                .counter().count();
+        }
+
+        @Test
+        @DisplayName("Should retry on another mirror and avoid the failing one while it is ejected")
+        void shouldRouteAroundFailingMirror() {
+            // Given
+            String mirror = "https://mirror.example.com";
+            UpstreamProperties upstream = new UpstreamProperties();
+            upstream.setBaseUrl(BASE_URL);
+            upstream.setMirrors(List.of(mirror));
+            upstream.getBalancer().setFailuresToEject(1);
+            UpstreamRetryPolicy policy = quickRetries(meterRegistry, 10);
+            AuditionIntegrationClient balanced = new AuditionIntegrationClient(restTemplate, ObservationRegistry.NOOP,
+                policy, noHedging(), new UpstreamBalancer(meterRegistry, upstream));
+            // The first attempt may or may not land on the mirror.
+            lenient().when(restTemplate.exchange(
+                eq(mirror + "/posts"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+            when(restTemplate.exchange(
+                eq(BASE_URL + "/posts"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenReturn(ResponseEntity.ok(List.of(createMockPost(1))));
+
+            // When
+            for (int i = 0; i < 5; i++) {
+                assertThat(balanced.getPosts()).hasSize(1);
+            }
+
+            // Then
+            verify(restTemplate, atMost(1)).exchange(eq(mirror + "/posts"), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+        }
+
+        @Test
+        @DisplayName("Should retry transient network errors and succeed")
+        void shouldRetryNetworkErrorThenSucceed() {
+            // Given
+            when(restTemplate.exchange(
+                eq(BASE_URL + POSTS_URI_PATH),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                eq(Map.of("id", 1))
+            )).thenThrow(new ResourceAccessException("Connection reset"))
+                .thenReturn(ResponseEntity.ok(createMockPost(1)));
+
+            // When
+            AuditionPost result = retryingClient.getPostById(1);
+
+            // Then
+            assertThat(result.getId()).isEqualTo(1);
+            assertThat(attempts("1", UpstreamRetryPolicy.RETRIED)).isEqualTo(1.0);
+            assertThat(attempts("2", UpstreamRetryPolicy.SUCCESS)).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should stop after max attempts on retryable status")
+        void shouldStopAfterMaxAttempts() {
+            // Given
+            when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+            // When/Then
+            assertThatThrownBy(() -> retryingClient.getPosts()).isInstanceOf(SystemException.class);
+            verify(restTemplate, times(3)).exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+            assertThat(attempts("3", UpstreamRetryPolicy.FAILED)).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should not retry statuses outside the retry set")
+        void shouldNotRetryNonRetryableStatus() {
+            // Given
+            when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+            // When/Then
+            assertThatThrownBy(() -> retryingClient.getPosts()).isInstanceOf(SystemException.class);
+            verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+        }
+
+        @Test
+        @DisplayName("Should stop retrying once the retry budget is spent")
+        void shouldStopRetryingWhenBudgetIsExhausted() {
+            // Given
+            AuditionIntegrationClient budgeted = clientWithBudget(1);
+            when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+            // When/Then
+            assertThatThrownBy(() -> budgeted.getPosts()).isInstanceOf(SystemException.class);
+            verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class));
+            assertThat(attempts("2", UpstreamRetryPolicy.BUDGET_EXHAUSTED)).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Hedging Tests")
+    class HedgingTests {
+
+        @Test
+        @DisplayName("Should not count the cancelled leg of a hedged call against its endpoint")
+        void shouldNotCountCancelledHedgeLegAsFailure() throws InterruptedException {
+            // Given
+            UpstreamProperties upstream = new UpstreamProperties();
+            upstream.setBaseUrl(BASE_URL);
+            upstream.setMirrors(List.of("https://mirror.example.com"));
+            upstream.getBalancer().setFailuresToEject(1);
+            UpstreamBalancer balancer = new UpstreamBalancer(new SimpleMeterRegistry(), upstream);
+            HedgeProperties hedge = new HedgeProperties();
+            hedge.setEnabled(true);
+            hedge.setMinDelay(Duration.ofMillis(5));
+            hedge.setMaxDelay(Duration.ofMillis(5));
+            UpstreamHedgingPolicy hedging = new UpstreamHedgingPolicy(new SimpleMeterRegistry(), hedge);
+            AuditionIntegrationClient hedged = new AuditionIntegrationClient(restTemplate, ObservationRegistry.NOOP,
+                noRetries(), hedging, balancer);
+            AtomicInteger calls = new AtomicInteger();
+            // The first leg hangs until hedging cancels it, then fails the way an interrupted socket read does.
+            when(restTemplate.exchange(
+                anyString(),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+            )).thenAnswer(invocation -> {
+                if (calls.getAndIncrement() > 0) {
+                    return ResponseEntity.ok(List.of(createMockPost(1)));
+                }
+                try {
+                    Thread.sleep(10_000);
+                    return ResponseEntity.ok(List.of());
+                } catch (InterruptedException e) {
+                    throw new ResourceAccessException("I/O error", new InterruptedIOException());
+                }
+            });
+
+            // When
+            assertThat(hedged.getPosts()).hasSize(1);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (balancer.endpoints().stream().anyMatch(endpoint -> endpoint.getInFlight() > 0)
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            hedging.destroy();
+
+            // Then
+            assertThat(calls).hasValue(2);
+            assertThat(balancer.endpoints()).allSatisfy(endpoint -> {
+                assertThat(endpoint.getInFlight()).isZero();
+                assertThat(endpoint.isEjectedNow()).isFalse();
+            });
+        }
+    }
 }
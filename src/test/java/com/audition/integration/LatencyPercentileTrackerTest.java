@@ -0,0 +1,52 @@
+package com.audition.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyPercentileTrackerTest {
+
+    @Test
+    void shouldNotBeReady_untilMinSamplesRecorded() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(64, 0.9, 10);
+
+        for (int i = 0; i < 9; i++) {
+            tracker.record(i);
+        }
+
+        assertThat(tracker.percentileNanos()).isEqualTo(LatencyPercentileTracker.NOT_READY);
+    }
+
+    @Test
+    void shouldComputePercentileOfWindow() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(100, 0.9, 100);
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertThat(tracker.percentileNanos()).isEqualTo(90);
+    }
+
+    @Test
+    void shouldForgetSamplesOutsideTheWindow() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(16, 0.5, 16);
+
+        for (int i = 0; i < 16; i++) {
+            tracker.record(1_000);
+        }
+        for (int i = 0; i < 16; i++) {
+            tracker.record(10);
+        }
+
+        assertThat(tracker.percentileNanos()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new LatencyPercentileTracker(4, 0.9, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyPercentileTracker(64, 1.5, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,167 @@
+package com.audition.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UpstreamBalancerTest {
+
+    private static final String PRIMARY = "http://primary";
+    private static final String MIRROR = "http://mirror";
+    private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+    private final transient AtomicLong clock = new AtomicLong();
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient UpstreamProperties properties;
+    private transient UpstreamBalancer balancer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new UpstreamProperties();
+        properties.setBaseUrl(PRIMARY);
+        properties.setMirrors(List.of(MIRROR));
+        properties.getBalancer().setFailuresToEject(2);
+        balancer = new UpstreamBalancer(meterRegistry, properties, clock::get);
+    }
+
+    @Test
+    void shouldAlwaysChooseTheOnlyEndpoint() {
+        properties.setMirrors(List.of());
+        balancer.onRefresh();
+
+        for (int i = 0; i < 10; i++) {
+            final UpstreamEndpoint endpoint = balancer.choose();
+            assertThat(endpoint.getUrl()).isEqualTo(PRIMARY);
+            balancer.finish(endpoint, MILLI, false);
+        }
+        assertThat(meterRegistry.get(UpstreamBalancer.EJECTIONS_METRIC).counter().count()).isZero();
+    }
+
+    @Test
+    void shouldPreferTheFasterEndpoint() {
+        record(PRIMARY, 200 * MILLI, true);
+        record(MIRROR, 10 * MILLI, true);
+
+        for (int i = 0; i < 20; i++) {
+            final UpstreamEndpoint endpoint = balancer.choose();
+            assertThat(endpoint.getUrl()).isEqualTo(MIRROR);
+            balancer.finish(endpoint, 10 * MILLI, true);
+        }
+        assertThat(selections(MIRROR)).isEqualTo(20.0);
+    }
+
+    @Test
+    void shouldSpreadLoad_whenTheFasterEndpointIsBackedUp() {
+        record(PRIMARY, 20 * MILLI, true);
+        record(MIRROR, 10 * MILLI, true);
+
+        // Both cost 20 ms once one request waits on the mirror, so the next request compares equal costs.
+        final UpstreamEndpoint first = balancer.choose();
+        final UpstreamEndpoint second = balancer.choose();
+        final UpstreamEndpoint third = balancer.choose();
+
+        assertThat(first.getUrl()).isEqualTo(MIRROR);
+        assertThat(List.of(second.getUrl(), third.getUrl())).contains(PRIMARY);
+    }
+
+    @Test
+    void shouldEjectEndpoint_afterConsecutiveFailures_andProbeItAfterwards() {
+        record(PRIMARY, MILLI, false);
+        record(PRIMARY, MILLI, false);
+
+        assertThat(meterRegistry.get(UpstreamBalancer.EJECTIONS_METRIC).tag(UpstreamBalancer.ENDPOINT_TAG, PRIMARY)
+            .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("audition.upstream.endpoint.ejected").tag(UpstreamBalancer.ENDPOINT_TAG, PRIMARY)
+            .gauge().value()).isEqualTo(1.0);
+        record(MIRROR, 500 * MILLI, true);
+        for (int i = 0; i < 10; i++) {
+            final UpstreamEndpoint endpoint = balancer.choose();
+            assertThat(endpoint.getUrl()).isEqualTo(MIRROR);
+            balancer.finish(endpoint, 500 * MILLI, true);
+        }
+
+        clock.addAndGet(properties.getBalancer().getEjectionTime().toNanos());
+
+        assertThat(balancer.choose().getUrl()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void shouldNotEjectMoreThanTheAllowedShare() {
+        record(PRIMARY, MILLI, false);
+        record(PRIMARY, MILLI, false);
+        record(MIRROR, MILLI, false);
+        record(MIRROR, MILLI, false);
+        record(MIRROR, MILLI, false);
+
+        assertThat(meterRegistry.get(UpstreamBalancer.EJECTIONS_METRIC).tag(UpstreamBalancer.ENDPOINT_TAG, MIRROR)
+            .counter().count()).isZero();
+        assertThat(balancer.choose().getUrl()).isEqualTo(MIRROR);
+    }
+
+    @Test
+    void shouldCountFailuresAsSlow() {
+        properties.getBalancer().setFailuresToEject(100);
+        record(PRIMARY, MILLI, false);
+        record(MIRROR, 100 * MILLI, true);
+
+        assertThat(balancer.choose().getUrl()).isEqualTo(MIRROR);
+    }
+
+    @Test
+    void shouldRetrySlowEndpoint_onceItsLatencyHasDecayed() {
+        record(PRIMARY, 1_000 * MILLI, true);
+        record(MIRROR, 10 * MILLI, true);
+        assertThat(chooseAndFinish()).isEqualTo(MIRROR);
+
+        // The mirror keeps answering in 10 ms while the primary sits idle; its average decays towards zero.
+        for (int i = 0; i < 100 && MIRROR.equals(chooseAndFinish()); i++) {
+            clock.addAndGet(properties.getBalancer().getDecay().toNanos() / 10);
+        }
+
+        assertThat(selections(PRIMARY)).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFollowChangedMirrors_keepingHistoryOfRemainingEndpoints() {
+        record(MIRROR, 10 * MILLI, true);
+        final UpstreamEndpoint mirror = balancer.endpoints().get(1);
+
+        properties.setMirrors(List.of(MIRROR, "http://third"));
+        balancer.onRefresh();
+        assertThat(balancer.endpoints()).extracting(UpstreamEndpoint::getUrl)
+            .containsExactly(PRIMARY, MIRROR, "http://third");
+        assertThat(balancer.endpoints().get(1)).isSameAs(mirror);
+
+        properties.setMirrors(List.of());
+        balancer.onRefresh();
+        assertThat(balancer.endpoints()).extracting(UpstreamEndpoint::getUrl).containsExactly(PRIMARY);
+        assertThat(meterRegistry.find(UpstreamBalancer.SELECTIONS_METRIC).tag(UpstreamBalancer.ENDPOINT_TAG, MIRROR)
+            .counter()).isNull();
+    }
+
+    private String chooseAndFinish() {
+        final UpstreamEndpoint endpoint = balancer.choose();
+        balancer.finish(endpoint, 10 * MILLI, true);
+        return endpoint.getUrl();
+    }
+
+    private void record(final String url, final long rttNanos, final boolean healthy) {
+        final UpstreamEndpoint endpoint = balancer.endpoints().stream()
+            .filter(candidate -> candidate.getUrl().equals(url))
+            .findFirst()
+            .orElseThrow();
+        endpoint.start();
+        balancer.finish(endpoint, rttNanos, healthy);
+    }
+
+    private double selections(final String url) {
+        return meterRegistry.get(UpstreamBalancer.SELECTIONS_METRIC).tag(UpstreamBalancer.ENDPOINT_TAG, url)
+            .counter().count();
+    }
+}
@@ -0,0 +1,181 @@
+package com.audition.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UpstreamHedgingPolicyTest {
+
+    private static final String TEMPLATE = "/posts/{id}";
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(20);
+
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient UpstreamHedgingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = policy(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        policy.destroy();
+    }
+
+    private UpstreamHedgingPolicy policy(final int budgetBurst) {
+        return new UpstreamHedgingPolicy(meterRegistry, properties(true, budgetBurst));
+    }
+
+    private static HedgeProperties properties(final boolean enabled, final int budgetBurst) {
+        final HedgeProperties properties = new HedgeProperties();
+        properties.setEnabled(enabled);
+        properties.setMinDelay(HEDGE_DELAY);
+        properties.setMaxDelay(HEDGE_DELAY);
+        properties.setMaxThreads(4);
+        properties.getBudget().setRatio(0.0);
+        properties.getBudget().setMaxBurst(budgetBurst);
+        return properties;
+    }
+
+    private double hedges(final String outcome) {
+        return meterRegistry.find(UpstreamHedgingPolicy.HEDGE_METRIC)
+            .tag(UpstreamHedgingPolicy.OUTCOME_TAG, outcome)
+            .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    @Test
+    void shouldNotHedge_whenPrimaryAnswersInTime() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.execute(TEMPLATE, hedge -> {
+            calls.incrementAndGet();
+            return "primary";
+        });
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(calls).hasValue(1);
+        assertThat(hedges(UpstreamHedgingPolicy.ISSUED)).isZero();
+    }
+
+    @Test
+    void shouldReturnHedgeAndCancelPrimary_whenPrimaryIsSlow() throws InterruptedException {
+        CountDownLatch hedgeDone = new CountDownLatch(1);
+        AtomicBoolean primaryInterrupted = new AtomicBoolean();
+        CountDownLatch primaryFinished = new CountDownLatch(1);
+
+        String result = policy.execute(TEMPLATE, hedge -> {
+            if (hedge) {
+                hedgeDone.countDown();
+                return "hedge";
+            }
+            try {
+                Thread.sleep(5_000);
+                return "primary";
+            } catch (InterruptedException e) {
+                primaryInterrupted.set(true);
+                throw new IllegalStateException(e);
+            } finally {
+                primaryFinished.countDown();
+            }
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(primaryFinished.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(primaryInterrupted).isTrue();
+        assertThat(hedges(UpstreamHedgingPolicy.ISSUED)).isEqualTo(1.0);
+        assertThat(eventually(UpstreamHedgingPolicy.WON)).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotHedge_whenBudgetIsExhausted() {
+        policy.destroy();
+        policy = policy(1);
+
+        policy.execute(TEMPLATE, hedge -> slow(hedge ? "hedge" : "primary", hedge ? 0 : 60));
+        String second = policy.execute(TEMPLATE, hedge -> slow(hedge ? "hedge" : "primary", hedge ? 0 : 60));
+
+        assertThat(second).isEqualTo("primary");
+        assertThat(hedges(UpstreamHedgingPolicy.ISSUED)).isEqualTo(1.0);
+        assertThat(hedges(UpstreamHedgingPolicy.BUDGET_EXHAUSTED)).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPropagateFastPrimaryFailure_withoutHedging() {
+        assertThatThrownBy(() -> policy.execute(TEMPLATE, hedge -> {
+            throw new SystemException("not found", SystemException.DEFAULT_TITLE, 404);
+        })).isInstanceOf(SystemException.class).hasMessage("not found");
+
+        assertThat(hedges(UpstreamHedgingPolicy.ISSUED)).isZero();
+    }
+
+    @Test
+    void shouldFail_whenBothCallsFail() {
+        assertThatThrownBy(() -> policy.execute(TEMPLATE, hedge -> {
+            slow("ignored", hedge ? 0 : 60);
+            throw new SystemException(hedge ? "hedge failed" : "primary failed", SystemException.DEFAULT_TITLE, 503);
+        })).isInstanceOf(SystemException.class).hasMessageEndingWith("failed");
+    }
+
+    @Test
+    void shouldRunOnCallerThread_whenDisabled() {
+        UpstreamHedgingPolicy disabled = new UpstreamHedgingPolicy(meterRegistry, properties(false, 1));
+        Thread caller = Thread.currentThread();
+
+        Thread used = disabled.execute(TEMPLATE, hedge -> Thread.currentThread());
+
+        assertThat(used).isSameAs(caller);
+    }
+
+    @Test
+    void hedgeDelay_shouldUseMaxDelayUntilEnoughSamples() {
+        assertThat(policy.hedgeDelayNanos(TEMPLATE)).isEqualTo(HEDGE_DELAY.toNanos());
+    }
+
+    @Test
+    void shouldFollowRefreshedSettings() {
+        HedgeProperties properties = properties(true, 1);
+        UpstreamHedgingPolicy refreshed = new UpstreamHedgingPolicy(meterRegistry, properties);
+        try {
+            properties.setMaxDelay(Duration.ofMillis(40));
+            properties.setMaxThreads(8);
+            refreshed.onRefresh();
+            assertThat(refreshed.hedgeDelayNanos(TEMPLATE)).isEqualTo(Duration.ofMillis(40).toNanos());
+
+            properties.setEnabled(false);
+            assertThat(refreshed.isEnabled()).isFalse();
+
+            properties.setMaxThreads(1);
+            assertThatThrownBy(refreshed::onRefresh).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            refreshed.destroy();
+        }
+    }
+
+    // The winner is counted on the pool thread after it completes the result the caller is waiting on.
+    private double eventually(final String outcome) throws InterruptedException {
+        for (int i = 0; i < 100 && hedges(outcome) == 0; i++) {
+            Thread.sleep(10);
+        }
+        return hedges(outcome);
+    }
+
+    private String slow(final String value, final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
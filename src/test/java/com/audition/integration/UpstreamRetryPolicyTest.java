@@ -0,0 +1,100 @@
+package com.audition.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class UpstreamRetryPolicyTest {
+
+    private static final Duration BASE = Duration.ofMillis(50);
+    private static final Duration MAX = Duration.ofMillis(400);
+
+    private final transient RetryProperties properties = properties();
+    private final transient UpstreamRetryPolicy policy = new UpstreamRetryPolicy(new SimpleMeterRegistry(), properties);
+
+    @Test
+    void shouldOnlyRetryIdempotentMethods() {
+        assertThat(policy.isRetryable(HttpMethod.GET)).isTrue();
+        assertThat(policy.isRetryable(HttpMethod.POST)).isFalse();
+        assertThat(policy.isRetryable(HttpMethod.PATCH)).isFalse();
+    }
+
+    @Test
+    void shouldRetryIoErrorsAndConfiguredStatusesOnly() {
+        assertThat(policy.isRetryableFailure(failure(new ResourceAccessException("reset")))).isTrue();
+        assertThat(policy.isRetryableFailure(failure(new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT))))
+            .isTrue();
+        assertThat(policy.isRetryableFailure(
+            failure(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)))).isFalse();
+        assertThat(policy.isRetryableFailure(failure(new HttpClientErrorException(HttpStatus.NOT_FOUND)))).isFalse();
+    }
+
+    @Test
+    void nextDelay_shouldStayWithinDecorrelatedJitterBounds() {
+        Duration delay = Duration.ZERO;
+        for (int i = 0; i < 1000; i++) {
+            Duration previous = delay;
+            delay = policy.nextDelay(previous);
+
+            Duration previousFloor = previous.compareTo(BASE) < 0 ? BASE : previous;
+            assertThat(delay).isBetween(BASE, MAX);
+            assertThat(delay).isLessThanOrEqualTo(previousFloor.multipliedBy(3));
+        }
+    }
+
+    @Test
+    void shouldNotRetryPastMaxAttempts() {
+        SystemException failure = failure(new ResourceAccessException("reset"));
+
+        assertThat(policy.shouldRetry("/posts", 2, failure)).isTrue();
+        assertThat(policy.shouldRetry("/posts", 3, failure)).isFalse();
+    }
+
+    @Test
+    void shouldReadChangedSettingsOnTheNextCall() {
+        SystemException failure = failure(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertThat(policy.shouldRetry("/posts", 1, failure)).isFalse();
+
+        properties.setRetryOnStatus(Set.of(500));
+        properties.setMaxAttempts(1);
+
+        assertThat(policy.isRetryableFailure(failure)).isTrue();
+        assertThat(policy.isRetryable(HttpMethod.GET)).isFalse();
+    }
+
+    @Test
+    void onRefresh_shouldRebuildTheBudgetOnlyWhenItChanged() {
+        SystemException failure = failure(new ResourceAccessException("reset"));
+        properties.getBudget().setMaxBurst(1);
+        policy.onRefresh();
+        assertThat(policy.shouldRetry("/posts", 1, failure)).isTrue();
+        assertThat(policy.shouldRetry("/posts", 1, failure)).isFalse();
+
+        policy.onRefresh();
+        assertThat(policy.shouldRetry("/posts", 1, failure)).isFalse();
+
+        properties.getBudget().setMaxBurst(2);
+        policy.onRefresh();
+        assertThat(policy.shouldRetry("/posts", 1, failure)).isTrue();
+    }
+
+    private static RetryProperties properties() {
+        RetryProperties properties = new RetryProperties();
+        properties.setBaseDelay(BASE);
+        properties.setMaxDelay(MAX);
+        return properties;
+    }
+
+    private SystemException failure(final Exception cause) {
+        return new SystemException("failed", SystemException.DEFAULT_TITLE, 503, cause);
+    }
+}
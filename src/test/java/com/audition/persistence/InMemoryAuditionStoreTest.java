@@ -0,0 +1,94 @@
+package com.audition.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InMemoryAuditionStoreTest {
+
+    private final transient InMemoryAuditionStore store = new InMemoryAuditionStore();
+
+    @Test
+    void shouldBeEmptyUntilPostsAreLoaded() {
+        assertThat(store.isPopulated()).isFalse();
+        assertThat(store.findPost(1)).isEmpty();
+        assertThat(store.findPostsByUserId(1)).isEmpty();
+    }
+
+    @Test
+    void upsertPosts_shouldInsertUpdateAndReindexByUserId() {
+        store.upsertPosts(List.of(post(3, 20, "third"), post(1, 10, "first"), post(2, 10, "second")));
+        store.upsertPosts(List.of(post(2, 20, "second, moved")));
+
+        assertThat(store.isPopulated()).isTrue();
+        assertThat(store.findPosts()).extracting(AuditionPost::getId).containsExactly(1, 2, 3);
+        assertThat(store.findPostsByUserId(10)).extracting(AuditionPost::getId).containsExactly(1);
+        assertThat(store.findPostsByUserId(20)).extracting(AuditionPost::getTitle)
+            .containsExactly("second, moved", "third");
+    }
+
+    @Test
+    void shouldReturnCopiesThatDoNotAffectTheStore() {
+        store.upsertPosts(List.of(post(1, 10, "first")));
+        store.upsertComments(List.of(comment(1, 1, "comment")));
+
+        AuditionPost post = store.findPost(1).orElseThrow();
+        post.setTitle("changed by caller");
+        post.setComments(store.findCommentsByPostId(1));
+        store.findCommentsByPostId(1).get(0).setName("changed by caller");
+
+        assertThat(store.findPost(1).orElseThrow().getTitle()).isEqualTo("first");
+        assertThat(store.findPost(1).orElseThrow().getComments()).isEmpty();
+        assertThat(store.findComments().get(0).getName()).isEqualTo("comment");
+    }
+
+    @Test
+    void delete_shouldRemoveRecordsAndIndexEntries() {
+        store.upsertComments(List.of(comment(1, 100, "a"), comment(2, 100, "b"), comment(3, 200, "c")));
+        store.upsertPosts(List.of(post(1, 10, "first"), post(2, 10, "second")));
+
+        store.deleteComments(List.of(1, 3, 99));
+        store.deletePosts(List.of(2));
+
+        assertThat(store.findCommentsByPostId(100)).extracting(AuditionComment::getId).containsExactly(2);
+        assertThat(store.findCommentsByPostId(200)).isEmpty();
+        assertThat(store.findPostsByUserId(10)).extracting(AuditionPost::getId).containsExactly(1);
+        assertThat(store.findComments()).hasSize(1);
+        assertThat(store.findComment(1)).isEmpty();
+        assertThat(store.findComment(2)).get().extracting(AuditionComment::getName).isEqualTo("b");
+    }
+
+    @Test
+    void findPostsAfter_shouldPageByIdWithComments() {
+        store.upsertPosts(List.of(post(5, 10, "e"), post(1, 10, "a"), post(3, 20, "c"), post(4, 20, "d")));
+        store.upsertComments(List.of(comment(9, 3, "x"), comment(2, 4, "y"), comment(1, 3, "z"), comment(4, 5, "w")));
+
+        assertThat(store.findPostsAfter(1, 2)).extracting(AuditionPost::getId).containsExactly(3, 4);
+        assertThat(store.findPostsAfter(4, 2)).extracting(AuditionPost::getId).containsExactly(5);
+        assertThat(store.findPostsAfter(5, 2)).isEmpty();
+        assertThat(store.findCommentsByPostIds(List.of(3, 4, 7)))
+            .extracting(AuditionComment::getId).containsExactly(1, 2, 9);
+    }
+
+    private AuditionPost post(final int id, final int userId, final String title) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle(title);
+        post.setBody("body of " + title);
+        return post;
+    }
+
+    private AuditionComment comment(final int id, final int postId, final String name) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName(name);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body of " + name);
+        return comment;
+    }
+}
@@ -0,0 +1,103 @@
+package com.audition.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest(properties = "audition.persistence.batch-size=3")
+@ActiveProfiles("persistence")
+@Import(JpaAuditionStore.class)
+class JpaAuditionStoreTest {
+
+    @Autowired
+    private transient JpaAuditionStore store;
+
+    @Autowired
+    private transient CommentRepository commentRepository;
+
+    @Test
+    void shouldBeEmptyUntilPostsAreLoaded() {
+        assertThat(store.isPopulated()).isFalse();
+        assertThat(store.findPost(1)).isEmpty();
+    }
+
+    @Test
+    void upsertPosts_shouldInsertThenUpdateById() {
+        store.upsertPosts(List.of(post(1, 10, "first"), post(2, 10, "second"), post(3, 20, "third")));
+        store.upsertPosts(List.of(post(2, 10, "second, edited"), post(4, 20, "fourth")));
+
+        assertThat(store.isPopulated()).isTrue();
+        assertThat(store.findPosts()).hasSize(4);
+        assertThat(store.findPost(2)).get().extracting(AuditionPost::getTitle).isEqualTo("second, edited");
+        assertThat(store.findPostsByUserId(20)).extracting(AuditionPost::getId).containsExactly(3, 4);
+    }
+
+    @Test
+    void upsertComments_shouldHandleManyChunksAndDuplicateIds() {
+        List<AuditionComment> comments = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            comments.add(comment(i, i % 2 == 0 ? 100 : 200, "comment " + i));
+        }
+        comments.add(comment(3, 200, "comment 3, edited"));
+
+        store.upsertComments(comments);
+
+        assertThat(commentRepository.count()).isEqualTo(10);
+        assertThat(store.findCommentsByPostId(200))
+            .extracting(AuditionComment::getId).containsExactly(1, 3, 5, 7, 9);
+        assertThat(store.findCommentsByPostId(200).get(1).getName()).isEqualTo("comment 3, edited");
+    }
+
+    @Test
+    void delete_shouldRemoveRowsById() {
+        store.upsertComments(List.of(comment(1, 100, "a"), comment(2, 100, "b"), comment(3, 200, "c"),
+            comment(4, 200, "d")));
+        store.upsertPosts(List.of(post(1, 10, "first"), post(2, 10, "second")));
+
+        store.deleteComments(List.of(1, 3, 4, 99));
+        store.deletePosts(List.of(2));
+
+        assertThat(store.findComments()).extracting(AuditionComment::getId).containsExactly(2);
+        assertThat(store.findComment(3)).isEmpty();
+        assertThat(store.findComment(2)).get().extracting(AuditionComment::getName).isEqualTo("b");
+        assertThat(store.findPosts()).extracting(AuditionPost::getId).containsExactly(1);
+    }
+
+    @Test
+    void findPostsAfter_shouldPageByIdWithComments() {
+        store.upsertPosts(List.of(post(5, 10, "e"), post(1, 10, "a"), post(3, 20, "c"), post(4, 20, "d")));
+        store.upsertComments(List.of(comment(9, 3, "x"), comment(2, 4, "y"), comment(1, 3, "z"), comment(4, 5, "w")));
+
+        assertThat(store.findPostsAfter(1, 2)).extracting(AuditionPost::getId).containsExactly(3, 4);
+        assertThat(store.findPostsAfter(4, 2)).extracting(AuditionPost::getId).containsExactly(5);
+        assertThat(store.findCommentsByPostIds(List.of(3, 4)))
+            .extracting(AuditionComment::getId).containsExactly(1, 2, 9);
+    }
+
+    private AuditionPost post(final int id, final int userId, final String title) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle(title);
+        post.setBody("body of " + title);
+        return post;
+    }
+
+    private AuditionComment comment(final int id, final int postId, final String name) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName(name);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body of " + name);
+        return comment;
+    }
+}
@@ -0,0 +1,114 @@
+package com.audition.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotFileTest {
+
+    @TempDir
+    private transient Path directory;
+
+    @Test
+    void shouldRoundTripPostsAndCommentsIncludingNullsAndUnicode() throws IOException {
+        Path path = directory.resolve("nested/audition.snapshot");
+        AuditionPost post = post(1, 7, "caf" + (char) 0x00E9 + " " + (char) 0x2603);
+        AuditionPost untitled = post(2, 7, null);
+        AuditionComment comment = comment(10, 1, "first");
+        comment.setEmail(null);
+
+        SnapshotFile.write(path, List.of(post, untitled), List.of(comment));
+        SnapshotFile.Snapshot snapshot = SnapshotFile.read(path);
+
+        assertThat(snapshot.posts()).hasSize(2);
+        assertThat(snapshot.posts().get(0)).usingRecursiveComparison().isEqualTo(post);
+        assertThat(snapshot.posts().get(1).getTitle()).isNull();
+        assertThat(snapshot.comments()).singleElement().usingRecursiveComparison().isEqualTo(comment);
+        assertThat(Files.exists(directory.resolve("nested/audition.snapshot.tmp"))).isFalse();
+    }
+
+    @Test
+    void shouldReplaceAnExistingSnapshot() throws IOException {
+        Path path = directory.resolve("audition.snapshot");
+        SnapshotFile.write(path, List.of(post(1, 1, "old"), post(2, 1, "older")), List.of());
+
+        SnapshotFile.write(path, List.of(post(1, 1, "new")), List.of());
+
+        assertThat(SnapshotFile.read(path).posts()).extracting(AuditionPost::getTitle).containsExactly("new");
+    }
+
+    @Test
+    void shouldRejectACorruptedPayload() throws IOException {
+        Path path = directory.resolve("audition.snapshot");
+        SnapshotFile.write(path, List.of(post(1, 1, "title")), List.of(comment(1, 1, "name")));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), SnapshotFile.HEADER_BYTES + 12);
+        }
+
+        assertThatThrownBy(() -> SnapshotFile.read(path)).isInstanceOf(IOException.class)
+            .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void shouldRejectATruncatedFile() throws IOException {
+        Path path = directory.resolve("audition.snapshot");
+        SnapshotFile.write(path, List.of(post(1, 1, "title")), List.of());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThatThrownBy(() -> SnapshotFile.read(path)).isInstanceOf(IOException.class)
+            .hasMessageContaining("inconsistent header");
+    }
+
+    @Test
+    void shouldRejectAnotherFormatVersion() throws IOException {
+        Path path = directory.resolve("audition.snapshot");
+        SnapshotFile.write(path, List.of(), List.of());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, SnapshotFile.VERSION + 1), Integer.BYTES);
+        }
+
+        assertThatThrownBy(() -> SnapshotFile.read(path)).isInstanceOf(IOException.class)
+            .hasMessageContaining("version");
+    }
+
+    @Test
+    void shouldRejectFilesOfAnotherFormat() throws IOException {
+        Path path = directory.resolve("audition.snapshot");
+        Files.write(path, new byte[SnapshotFile.HEADER_BYTES]);
+
+        assertThatThrownBy(() -> SnapshotFile.read(path)).isInstanceOf(IOException.class)
+            .hasMessageContaining("unknown format");
+    }
+
+    private static AuditionPost post(final int id, final int userId, final String title) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle(title);
+        post.setBody("body " + id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId, final String name) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName(name);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body of " + name);
+        return comment;
+    }
+}
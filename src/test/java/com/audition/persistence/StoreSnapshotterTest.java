@@ -0,0 +1,138 @@
+package com.audition.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.service.RecordChanges;
+import com.audition.service.StoreSyncedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StoreSnapshotterTest {
+
+    @TempDir
+    private transient Path directory;
+
+    private final transient SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRestoreWhatAnotherInstanceSaved() throws InterruptedException {
+        Path path = directory.resolve("audition.snapshot");
+        InMemoryAuditionStore source = new InMemoryAuditionStore();
+        source.upsertPosts(List.of(post(1), post(2)));
+        source.upsertComments(List.of(comment(1, 2)));
+        StoreSnapshotter snapshotter = snapshotter(source, path);
+        snapshotter.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(1, 2), Set.of(), Set.of()),
+            new RecordChanges(Set.of(1), Set.of(), Set.of())));
+        snapshotter.destroy();
+
+        InMemoryAuditionStore target = new InMemoryAuditionStore();
+        snapshotter(target, path).afterPropertiesSet();
+
+        assertThat(target.isPopulated()).isTrue();
+        assertThat(target.findPosts()).extracting(AuditionPost::getId).containsExactly(1, 2);
+        assertThat(target.findCommentsByPostId(2)).extracting(AuditionComment::getId).containsExactly(1);
+        assertThat(meterRegistry.get("audition.snapshot.duration").tag("operation", "restore").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldSaveChangesInTheBackground_oncePerDelay() throws InterruptedException {
+        Path path = directory.resolve("audition.snapshot");
+        InMemoryAuditionStore store = new InMemoryAuditionStore();
+        store.upsertPosts(List.of(post(1)));
+        StoreSnapshotter snapshotter = new StoreSnapshotter(store, meterRegistry, true, path, Duration.ofMillis(100));
+        StoreSyncedEvent event = new StoreSyncedEvent(new RecordChanges(Set.of(1), Set.of(), Set.of()),
+            RecordChanges.NONE);
+
+        for (int i = 0; i < 10; i++) {
+            snapshotter.onStoreSynced(event);
+        }
+
+        assertThat(Files.exists(path)).isFalse();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.find("audition.snapshot.duration").tag("operation", "save").timer() == null
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(Files.exists(path)).isTrue();
+        assertThat(meterRegistry.get("audition.snapshot.duration").tag("operation", "save").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldStartEmptyWithoutASnapshot() {
+        InMemoryAuditionStore store = new InMemoryAuditionStore();
+
+        boolean restored = snapshotter(store, directory.resolve("missing")).restore();
+
+        assertThat(restored).isFalse();
+        assertThat(store.isPopulated()).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreACorruptSnapshot() throws IOException {
+        Path path = directory.resolve("audition.snapshot");
+        Files.writeString(path, "not a snapshot, but long enough for a header");
+        InMemoryAuditionStore store = new InMemoryAuditionStore();
+
+        boolean restored = snapshotter(store, path).restore();
+
+        assertThat(restored).isFalse();
+        assertThat(store.isPopulated()).isFalse();
+    }
+
+    @Test
+    void shouldLeaveAPopulatedStoreAlone() {
+        Path path = directory.resolve("audition.snapshot");
+        InMemoryAuditionStore store = new InMemoryAuditionStore();
+        store.upsertPosts(List.of(post(1)));
+        StoreSnapshotter snapshotter = snapshotter(store, path);
+        snapshotter.save();
+        store.upsertPosts(List.of(post(2)));
+
+        assertThat(snapshotter.restore()).isFalse();
+        assertThat(store.findPosts()).hasSize(2);
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        Path path = directory.resolve("audition.snapshot");
+        InMemoryAuditionStore store = new InMemoryAuditionStore();
+        store.upsertPosts(List.of(post(1)));
+
+        assertThat(new StoreSnapshotter(store, meterRegistry, false, path, Duration.ZERO).save()).isFalse();
+        assertThat(Files.exists(path)).isFalse();
+    }
+
+    private StoreSnapshotter snapshotter(final InMemoryAuditionStore store, final Path path) {
+        return new StoreSnapshotter(store, meterRegistry, true, path, Duration.ofMinutes(1));
+    }
+
+    private static AuditionPost post(final int id) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(1);
+        post.setTitle("title " + id);
+        post.setBody("body " + id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName("name " + id);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body " + id);
+        return comment;
+    }
+}
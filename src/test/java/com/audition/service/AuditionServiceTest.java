@@ -1,18 +1,30 @@
 package com.audition.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.audition.common.exception.SystemException;
 import com.audition.integration.AuditionIntegrationClient;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.model.UserStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +33,22 @@ class AuditionServiceTest {
     @Mock
     private transient AuditionIntegrationClient auditionIntegrationClient;
 
+    @Mock
+    private transient AuditionStore auditionStore;
+
+    @Mock
+    private transient PostSearchIndex postSearchIndex;
+
+    @Mock
+    private transient UserStatsAggregator userStatsAggregator;
+
+    @Mock
+    private transient PostExporter postExporter;
+
+    @Spy
+    private transient PostExistenceGuard postExistenceGuard = new PostExistenceGuard(new SimpleMeterRegistry(),
+        new NegativeCacheProperties());
+
     @InjectMocks
     private transient AuditionService auditionService;
 
@@ -92,5 +120,201 @@ class AuditionServiceTest {
         assertSame(comments, result);
         verify(auditionIntegrationClient).getCommentsByPostId(postId);
     }
-}
 
+    @Test
+    void getPostById_shouldAnswerRepeatedMissesLocally() {
+        int postId = 404;
+        when(auditionIntegrationClient.getPostById(postId))
+            .thenThrow(new SystemException("not found", SystemException.NOT_FOUND_ERROR_TITLE, 404));
+
+        assertThrows(SystemException.class, () -> auditionService.getPostById(postId));
+        SystemException cached = assertThrows(SystemException.class, () -> auditionService.getPostById(postId));
+
+        assertEquals(404, cached.getStatusCode());
+        verify(auditionIntegrationClient, times(1)).getPostById(postId);
+    }
+
+    @Test
+    void getPostsByUserId_shouldReadFromPopulatedStore() {
+        List<AuditionPost> posts = List.of(new AuditionPost());
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(auditionStore.findPostsByUserId(7)).thenReturn(posts);
+
+        List<AuditionPost> result = auditionService.getPostsByUserId(7);
+
+        assertSame(posts, result);
+        verify(auditionIntegrationClient, never()).getPostsByUserId(7);
+    }
+
+    @Test
+    void getPostWithCommentsByPostId_shouldAttachStoredComments() {
+        AuditionPost post = new AuditionPost();
+        List<AuditionComment> comments = List.of(new AuditionComment());
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(auditionStore.findPost(5)).thenReturn(Optional.of(post));
+        when(auditionStore.findCommentsByPostId(5)).thenReturn(comments);
+
+        AuditionPost result = auditionService.getPostWithCommentsByPostId(5);
+
+        assertEquals(comments, result.getComments());
+        verify(auditionIntegrationClient, never()).getPostWithCommentsByPostId(5);
+    }
+
+    @Test
+    void getPostById_shouldFallBackToUpstream_whenStoreDoesNotKnowId() {
+        AuditionPost post = new AuditionPost();
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(auditionStore.findPost(6)).thenReturn(Optional.empty());
+        when(auditionIntegrationClient.getPostById(6)).thenReturn(post);
+
+        assertSame(post, auditionService.getPostById(6));
+    }
+
+    @Test
+    void searchPosts_shouldResolveRankedIdsFromStore() {
+        AuditionPost first = new AuditionPost();
+        AuditionPost second = new AuditionPost();
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(postSearchIndex.search("query", 20, 10)).thenReturn(new PostSearchIndex.Hits(23, List.of(9, 4)));
+        when(auditionStore.findPost(9)).thenReturn(Optional.of(first));
+        when(auditionStore.findPost(4)).thenReturn(Optional.of(second));
+
+        PostSearchPage page = auditionService.searchPosts("query", 2, 10);
+
+        assertEquals(23, page.total());
+        assertEquals(List.of(first, second), page.posts());
+        verify(auditionIntegrationClient, never()).getPosts();
+    }
+
+    @Test
+    void searchPosts_shouldBeUnavailable_whenStoreIsEmpty() {
+        when(auditionStore.isPopulated()).thenReturn(false);
+
+        SystemException exception = assertThrows(SystemException.class,
+            () -> auditionService.searchPosts("query", 0, 10));
+
+        assertEquals(Integer.valueOf(503), exception.getStatusCode());
+        verify(postSearchIndex, never()).search("query", 0, 10);
+    }
+
+    @Test
+    void getUserStats_shouldReturnPrecomputedStats() {
+        UserStats stats = new UserStats(3, 10, 50, List.of(new UserStats.Commenter("a@b.c", 2)));
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(userStatsAggregator.find(3)).thenReturn(Optional.of(stats));
+
+        assertSame(stats, auditionService.getUserStats(3));
+        verify(auditionIntegrationClient, never()).getPostsByUserId(3);
+    }
+
+    @Test
+    void getUserStats_shouldBeNotFound_whenUserHasNoPosts() {
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(userStatsAggregator.find(42)).thenReturn(Optional.empty());
+
+        SystemException exception = assertThrows(SystemException.class, () -> auditionService.getUserStats(42));
+
+        assertEquals(Integer.valueOf(404), exception.getStatusCode());
+    }
+
+    @Test
+    void exportPosts_shouldWriteFromTheStoreWhenStreamed() throws IOException {
+        when(auditionStore.isPopulated()).thenReturn(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PostExport export = auditionService.exportPosts(5, 10);
+        verify(postExporter, never()).export(5, 10, out);
+        export.writeTo(out);
+
+        verify(postExporter).export(5, 10, out);
+        verify(auditionIntegrationClient, never()).getPosts();
+    }
+
+    @Test
+    void exportPosts_shouldBeUnavailable_whenStoreIsEmpty() {
+        when(auditionStore.isPopulated()).thenReturn(false);
+
+        SystemException exception = assertThrows(SystemException.class, () -> auditionService.exportPosts(0, 10));
+
+        assertEquals(Integer.valueOf(503), exception.getStatusCode());
+    }
+
+    @Test
+    void getPostsWithComments_shouldAttachCommentsFromOneUpstreamCall() {
+        AuditionPost first = post(1);
+        AuditionPost second = post(2);
+        when(auditionIntegrationClient.getPosts()).thenReturn(List.of(first, second));
+        when(auditionIntegrationClient.getComments()).thenReturn(List.of(comment(10, 1), comment(11, 1)));
+
+        List<AuditionPost> result = auditionService.getPostsWithComments();
+
+        assertEquals(List.of(first, second), result);
+        assertEquals(2, first.getComments().size());
+        assertEquals(List.of(), second.getComments());
+        verify(auditionIntegrationClient, never()).getCommentsByPostId(1);
+        verify(auditionIntegrationClient, never()).getPostWithCommentsByPostId(1);
+    }
+
+    @Test
+    void getPostsWithComments_shouldGroupStoredComments() {
+        AuditionPost first = post(1);
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(auditionStore.findPosts()).thenReturn(List.of(first));
+        when(auditionStore.findComments()).thenReturn(List.of(comment(10, 1), comment(11, 2)));
+
+        auditionService.getPostsWithComments();
+
+        assertEquals(1, first.getComments().size());
+        verify(auditionIntegrationClient, never()).getComments();
+    }
+
+    @Test
+    void getPostsWithCommentsByUserId_shouldFilterBulkCommentsToTheUsersPosts() {
+        AuditionPost post = post(3);
+        when(auditionIntegrationClient.getPostsByUserId(5)).thenReturn(List.of(post));
+        when(auditionIntegrationClient.getComments()).thenReturn(List.of(comment(10, 3), comment(11, 4)));
+
+        auditionService.getPostsWithCommentsByUserId(5);
+
+        assertEquals(1, post.getComments().size());
+        assertEquals(10, post.getComments().get(0).getId());
+    }
+
+    @Test
+    void getPostsWithCommentsByUserId_shouldSkipCommentsCall_whenUserHasNoPosts() {
+        when(auditionIntegrationClient.getPostsByUserId(5)).thenReturn(List.of());
+
+        assertEquals(List.of(), auditionService.getPostsWithCommentsByUserId(5));
+        verify(auditionIntegrationClient, never()).getComments();
+    }
+
+    @Test
+    void getPostsWithCommentsByUserId_shouldLoadStoredCommentsInOneLookup() {
+        AuditionPost post = post(3);
+        AuditionPost other = post(4);
+        List<AuditionComment> comments = List.of(comment(10, 3), comment(11, 3));
+        when(auditionStore.isPopulated()).thenReturn(true);
+        when(auditionStore.findPostsByUserId(5)).thenReturn(List.of(post, other));
+        when(auditionStore.findCommentsByPostIds(List.of(3, 4))).thenReturn(comments);
+
+        auditionService.getPostsWithCommentsByUserId(5);
+
+        assertEquals(comments, post.getComments());
+        assertEquals(List.of(), other.getComments());
+        verify(auditionStore, never()).findCommentsByPostId(anyInt());
+        verify(auditionIntegrationClient, never()).getComments();
+    }
+
+    private static AuditionPost post(final int id) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        return comment;
+    }
+}
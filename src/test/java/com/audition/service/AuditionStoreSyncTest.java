@@ -0,0 +1,286 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.audition.common.exception.SystemException;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.persistence.InMemoryAuditionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class AuditionStoreSyncTest {
+
+    private static final int PAGE_SIZE = 2;
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC);
+
+    @Mock
+    private transient AuditionIntegrationClient client;
+
+    @Mock
+    private transient ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private transient ArgumentCaptor<List<AuditionPost>> upserted;
+
+    private transient InMemoryAuditionStore store;
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient AuditionStoreSync sync;
+
+    @BeforeEach
+    void setUp() {
+        store = spy(new InMemoryAuditionStore());
+        meterRegistry = new SimpleMeterRegistry();
+        sync = newSync(true);
+    }
+
+    private AuditionStoreSync newSync(final boolean enabled) {
+        return new AuditionStoreSync(store, client, meterRegistry, eventPublisher, enabled, true, Duration.ofMinutes(1),
+            PAGE_SIZE, CLOCK);
+    }
+
+    @Test
+    void firstSync_shouldPageThroughUpstreamAndLoadEverything() {
+        upstreamPosts(post(1, "one"), post(2, "two"), post(3, "three"));
+        upstreamComments(comment(1, 1, "first"));
+
+        assertThat(sync.sync()).isTrue();
+
+        assertThat(store.isPopulated()).isTrue();
+        assertThat(store.findPosts()).extracting(AuditionPost::getId).containsExactly(1, 2, 3);
+        assertThat(store.findCommentsByPostId(1)).hasSize(1);
+        verify(client).getPostsPage(0, PAGE_SIZE);
+        verify(client).getPostsPage(2, PAGE_SIZE);
+        assertThat(items("post", "created")).isEqualTo(3);
+        assertThat(items("comment", "created")).isEqualTo(1);
+        assertThat(meterRegistry.get("audition.sync.last-success").gauge().value()).isEqualTo(1_000);
+        assertThat(sync.lagSeconds()).isZero();
+    }
+
+    @Test
+    void nextSync_shouldWriteOnlyChangedRecordsAndDeleteMissingOnes() {
+        upstreamPosts(post(1, "one"), post(2, "two"), post(3, "three"));
+        upstreamComments(comment(1, 1, "first"), comment(2, 3, "second"));
+        sync.sync();
+        clearInvocations(store);
+
+        upstreamPosts(post(1, "one"), post(2, "two, edited"), post(4, "four"));
+        upstreamComments(comment(1, 1, "first"));
+        sync.sync();
+
+        verify(store, times(2)).upsertPosts(upserted.capture());
+        assertThat(upserted.getAllValues()).flatExtracting(posts -> posts).extracting(AuditionPost::getId)
+            .containsExactly(2, 4);
+        verify(store).deletePosts(Set.of(3));
+        verify(store).deleteComments(Set.of(2));
+        verify(store, never()).upsertComments(any());
+        assertThat(store.findPost(2).orElseThrow().getTitle()).isEqualTo("two, edited");
+        assertThat(store.findPosts()).extracting(AuditionPost::getId).containsExactly(1, 2, 4);
+        assertThat(items("post", "updated")).isEqualTo(1);
+        assertThat(items("post", "unchanged")).isEqualTo(1);
+        assertThat(items("post", "deleted")).isEqualTo(1);
+        assertThat(items("comment", "deleted")).isEqualTo(1);
+        verify(eventPublisher).publishEvent(
+            new StoreSyncedEvent(new RecordChanges(Set.of(1, 2, 3), Set.of(), Set.of()),
+                new RecordChanges(Set.of(1, 2), Set.of(), Set.of())));
+        verify(eventPublisher).publishEvent(
+            new StoreSyncedEvent(new RecordChanges(Set.of(4), Set.of(2), Set.of(3)),
+                new RecordChanges(Set.of(), Set.of(), Set.of(2))));
+    }
+
+    @Test
+    void firstSync_shouldSeedHashesFromAPopulatedStore() {
+        store.upsertPosts(List.of(post(1, "one")));
+        store.upsertComments(List.of(comment(1, 1, "first")));
+        clearInvocations(store);
+        upstreamPosts(post(1, "one"));
+        upstreamComments(comment(1, 1, "first"));
+
+        sync.sync();
+
+        verify(store, never()).upsertPosts(any());
+        verify(store, never()).upsertComments(any());
+        verifyNoInteractions(eventPublisher);
+        assertThat(items("post", "unchanged")).isEqualTo(1);
+    }
+
+    @Test
+    void sync_shouldKeepDataAndSkipDeletesWhenUpstreamFails() {
+        upstreamPosts(post(1, "one"));
+        upstreamComments(comment(1, 1, "first"));
+        sync.sync();
+        when(client.getCommentsPage(anyInt(), anyInt()))
+            .thenThrow(new SystemException("down", SystemException.DEFAULT_TITLE, 503));
+
+        assertThat(sync.sync()).isFalse();
+
+        verify(store, never()).deleteComments(any());
+        verify(store, never()).deletePosts(any());
+        assertThat(store.findPosts()).hasSize(1);
+        assertThat(meterRegistry.get("audition.sync.duration").tag("outcome", "failure").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void sync_shouldStopWhenUpstreamIgnoresPaging() {
+        when(client.getPostsPage(anyInt(), anyInt())).thenReturn(List.of(post(1, "one"), post(2, "two")));
+        upstreamComments();
+
+        assertThat(sync.sync()).isTrue();
+
+        verify(client, times(2)).getPostsPage(anyInt(), anyInt());
+        assertThat(store.findPosts()).hasSize(2);
+    }
+
+    @Test
+    void nextSync_shouldConvergeOnTheUpstreamAfterLocalWrites() {
+        upstreamPosts(post(1, "one"), post(2, "two"));
+        upstreamComments();
+        sync.sync();
+        // A created post the upstream did not keep, and a deleted one it still lists.
+        store.upsertPosts(List.of(post(101, "new")));
+        sync.postWritten(post(101, "new"));
+        store.deletePosts(List.of(2));
+        sync.deleted(AuditionStoreSync.POST, 2);
+
+        sync.sync();
+
+        assertThat(store.findPosts()).extracting(AuditionPost::getId).containsExactly(1, 2);
+        verify(eventPublisher).publishEvent(new StoreSyncedEvent(
+            new RecordChanges(Set.of(2), Set.of(), Set.of(101)), RecordChanges.NONE));
+    }
+
+    @Test
+    void nextSync_shouldLeaveHeldRecordsAloneAndReapplyThemOnceInvalidated() {
+        upstreamPosts(post(1, "one"), post(2, "two"));
+        upstreamComments();
+        sync.sync();
+        sync.hold(AuditionStoreSync.POST, 1);
+        store.upsertPosts(List.of(post(1, "one, queued")));
+        sync.hold(AuditionStoreSync.POST, 2);
+        store.deletePosts(List.of(2));
+        upstreamPosts(post(1, "one"));
+
+        sync.sync();
+
+        assertThat(store.findPost(1).orElseThrow().getTitle()).isEqualTo("one, queued");
+        assertThat(store.findPost(2)).isEmpty();
+        assertThat(items("post", "deleted")).isZero();
+
+        upstreamPosts(post(1, "one"), post(2, "two"));
+        sync.invalidate(AuditionStoreSync.POST, 1);
+        sync.invalidate(AuditionStoreSync.POST, 2);
+        sync.sync();
+
+        assertThat(store.findPost(1).orElseThrow().getTitle()).isEqualTo("one");
+        assertThat(store.findPost(2)).isPresent();
+        verify(eventPublisher).publishEvent(new StoreSyncedEvent(
+            new RecordChanges(Set.of(2), Set.of(1), Set.of()), RecordChanges.NONE));
+    }
+
+    @Test
+    void run_shouldNotWaitForTheUpstreamWhenTheStoreWasRestored() throws InterruptedException {
+        store.upsertPosts(List.of(post(1, "one")));
+        final CountDownLatch upstreamAnswers = new CountDownLatch(1);
+        final AtomicReference<Thread> syncThread = new AtomicReference<>();
+        when(client.getCommentsPage(0, PAGE_SIZE)).thenAnswer(invocation -> {
+            syncThread.set(Thread.currentThread());
+            upstreamAnswers.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        upstreamPosts(post(1, "one"), post(2, "two"));
+
+        try {
+            sync.run(null);
+
+            // Readiness follows the runners: the restored data is served while the upstream has not answered yet.
+            assertThat(upstreamAnswers.getCount()).isEqualTo(1);
+            assertThat(store.findPosts()).extracting(AuditionPost::getId).containsExactly(1);
+            upstreamAnswers.countDown();
+            final long deadline = System.currentTimeMillis() + 5_000;
+            while (store.findPost(2).isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(store.findPost(2)).isPresent();
+            assertThat(syncThread.get()).isNotSameAs(Thread.currentThread());
+        } finally {
+            sync.destroy();
+        }
+    }
+
+    @Test
+    void run_shouldDoNothingWhenDisabled() {
+        newSync(false).run(null);
+
+        verifyNoInteractions(client);
+    }
+
+    private double items(final String kind, final String change) {
+        return meterRegistry.get(AuditionStoreSync.ITEMS_METRIC)
+            .tag(AuditionStoreSync.KIND_TAG, kind)
+            .tag(AuditionStoreSync.CHANGE_TAG, change)
+            .counter().count();
+    }
+
+    private void upstreamPosts(final AuditionPost... posts) {
+        for (int start = 0; start <= posts.length; start += PAGE_SIZE) {
+            when(client.getPostsPage(start, PAGE_SIZE)).thenReturn(page(List.of(posts), start));
+        }
+    }
+
+    private void upstreamComments(final AuditionComment... comments) {
+        for (int start = 0; start <= comments.length; start += PAGE_SIZE) {
+            when(client.getCommentsPage(start, PAGE_SIZE)).thenReturn(page(List.of(comments), start));
+        }
+    }
+
+    private static <T> List<T> page(final List<T> all, final int start) {
+        return all.subList(start, Math.min(all.size(), start + PAGE_SIZE));
+    }
+
+    private static AuditionPost post(final int id, final String title) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(1);
+        post.setTitle(title);
+        post.setBody("body of " + title);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId, final String name) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName(name);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body of " + name);
+        return comment;
+    }
+}
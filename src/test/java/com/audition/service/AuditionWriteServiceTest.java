@@ -0,0 +1,231 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.audition.common.exception.ServiceOverloadedException;
+import com.audition.common.exception.SystemException;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.persistence.InMemoryAuditionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class AuditionWriteServiceTest {
+
+    @Mock
+    private transient AuditionIntegrationClient auditionIntegrationClient;
+
+    @Mock
+    private transient AuditionService auditionService;
+
+    @Mock
+    private transient PostExistenceGuard postExistenceGuard;
+
+    // Never flushes on its own, so the tests flush explicitly.
+    @Spy
+    private transient WriteBehindQueue writeBehindQueue = new WriteBehindQueue(new SimpleMeterRegistry(), false,
+        Duration.ofSeconds(1), 10, 10);
+
+    @Mock
+    private transient AuditionStoreSync auditionStoreSync;
+
+    @Mock
+    private transient ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private transient InMemoryAuditionStore auditionStore = new InMemoryAuditionStore();
+
+    @InjectMocks
+    private transient AuditionWriteService auditionWriteService;
+
+    @Test
+    void createPost_shouldStoreTheUpstreamCopyAndRecordItExists() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        AuditionPost created = post(101, "new");
+        when(auditionIntegrationClient.createPost(any())).thenReturn(created);
+
+        assertThat(auditionWriteService.createPost(post(0, "new"))).isSameAs(created);
+
+        verify(postExistenceGuard).recordExists(101);
+        assertThat(auditionStore.findPost(101)).isPresent();
+        verify(auditionStoreSync).postWritten(created);
+        verify(eventPublisher).publishEvent(new StoreSyncedEvent(
+            new RecordChanges(Set.of(101), Set.of(), Set.of()), RecordChanges.NONE));
+    }
+
+    @Test
+    void updatePost_shouldWriteThroughWhenWriteBehindIsDisabled() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        AuditionPost updated = post(1, "edited upstream");
+        when(auditionIntegrationClient.updatePost(eq(1), any())).thenReturn(updated);
+
+        WriteResult<AuditionPost> result = auditionWriteService.updatePost(1, post(0, "edited"));
+
+        assertThat(result.deferred()).isFalse();
+        assertThat(result.value()).isSameAs(updated);
+        assertThat(auditionStore.findPost(1).orElseThrow().getTitle()).isEqualTo("edited upstream");
+        verify(auditionStoreSync).postWritten(updated);
+        verify(writeBehindQueue, never()).submit(any(), eq(1), any(), any());
+    }
+
+    @Test
+    void updatePost_shouldApplyLocallyAndQueueWhenWritingBehind() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+
+        WriteResult<AuditionPost> result = auditionWriteService.updatePost(1, post(0, "edited"));
+
+        assertThat(result.deferred()).isTrue();
+        assertThat(auditionStore.findPost(1).orElseThrow().getTitle()).isEqualTo("edited");
+        verify(eventPublisher).publishEvent(new StoreSyncedEvent(
+            new RecordChanges(Set.of(), Set.of(1), Set.of()), RecordChanges.NONE));
+        verify(auditionIntegrationClient, never()).updatePost(eq(1), any());
+        verify(auditionStoreSync).hold("post", 1);
+
+        assertThat(writeBehindQueue.flush()).isEqualTo(1);
+        verify(auditionIntegrationClient).updatePost(eq(1), any());
+        verify(auditionStoreSync).invalidate("post", 1);
+        assertThat(auditionStore.findPost(1).orElseThrow().getTitle()).isEqualTo("edited");
+    }
+
+    @Test
+    void updatePost_shouldRevertTheLocalChangeWhenTheUpstreamRejectsIt() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(auditionIntegrationClient.updatePost(eq(1), any()))
+            .thenThrow(new SystemException("rejected", "Bad Request", 400));
+        auditionWriteService.updatePost(1, post(0, "edited"));
+        auditionWriteService.updatePost(1, post(0, "edited again"));
+
+        assertThat(writeBehindQueue.flush()).isZero();
+
+        verify(auditionIntegrationClient).updatePost(eq(1), any());
+        assertThat(auditionStore.findPost(1).orElseThrow().getTitle()).isEqualTo("first");
+        verify(eventPublisher, times(3)).publishEvent(new StoreSyncedEvent(
+            new RecordChanges(Set.of(), Set.of(1), Set.of()), RecordChanges.NONE));
+        verify(auditionStoreSync).invalidate("post", 1);
+    }
+
+    @Test
+    void deleteComment_shouldRestoreTheCommentWhenTheUpstreamRejectsTheDelete() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        auditionStore.upsertComments(List.of(comment(5, 1)));
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        doThrow(new SystemException("rejected", "Not Found", 404)).when(auditionIntegrationClient).deleteComment(5);
+        auditionWriteService.deleteComment(5);
+        assertThat(auditionStore.findComment(5)).isEmpty();
+
+        writeBehindQueue.flush();
+
+        assertThat(auditionStore.findComment(5)).isPresent();
+        verify(eventPublisher).publishEvent(new StoreSyncedEvent(RecordChanges.NONE,
+            new RecordChanges(Set.of(5), Set.of(), Set.of())));
+        verify(auditionStoreSync).invalidate("comment", 5);
+    }
+
+    @Test
+    void updatePost_shouldLeaveTheStoreUnchangedWhenTheQueueIsFull() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        doThrow(new ServiceOverloadedException("full", 1)).when(writeBehindQueue)
+            .submit(eq("post"), eq(1), any(), any());
+
+        assertThatThrownBy(() -> auditionWriteService.updatePost(1, post(0, "edited")))
+            .isInstanceOf(ServiceOverloadedException.class);
+        assertThatThrownBy(() -> auditionWriteService.deletePost(1))
+            .isInstanceOf(ServiceOverloadedException.class);
+
+        assertThat(auditionStore.findPost(1).orElseThrow().getTitle()).isEqualTo("first");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deletePost_shouldBeNotFoundForUnknownPostsWhenWritingBehind() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+
+        assertThatThrownBy(() -> auditionWriteService.deletePost(2))
+            .isInstanceOf(SystemException.class)
+            .extracting("statusCode").isEqualTo(404);
+        assertThat(auditionWriteService.deletePost(1)).isTrue();
+        assertThat(auditionStore.findPost(1)).isEmpty();
+    }
+
+    @Test
+    void deletePost_shouldCallUpstreamWhenStoreIsNotLoaded() {
+        assertThat(auditionWriteService.deletePost(3)).isFalse();
+
+        verify(auditionIntegrationClient).deletePost(3);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void patchPost_shouldMergeSetFieldsIntoTheCurrentPost() {
+        AuditionPost current = post(4, "current");
+        when(auditionService.getPostById(4)).thenReturn(current);
+        when(auditionIntegrationClient.updatePost(eq(4), any())).then(invocation -> invocation.getArgument(1));
+        AuditionPost patch = new AuditionPost();
+        patch.setBody("patched body");
+
+        AuditionPost patched = auditionWriteService.patchPost(4, patch).value();
+
+        assertThat(patched.getTitle()).isEqualTo("current");
+        assertThat(patched.getBody()).isEqualTo("patched body");
+        assertThat(patched.getUserId()).isEqualTo(10);
+    }
+
+    @Test
+    void patchComment_shouldMergeIntoTheStoredCommentWhenWritingBehind() {
+        auditionStore.upsertPosts(List.of(post(1, "first")));
+        auditionStore.upsertComments(List.of(comment(5, 1)));
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        AuditionComment patch = new AuditionComment();
+        patch.setEmail("new@example.com");
+
+        WriteResult<AuditionComment> result = auditionWriteService.patchComment(5, patch);
+
+        assertThat(result.deferred()).isTrue();
+        AuditionComment stored = auditionStore.findComment(5).orElseThrow();
+        assertThat(stored.getEmail()).isEqualTo("new@example.com");
+        assertThat(stored.getName()).isEqualTo("name 5");
+        verify(writeBehindQueue).submit(eq("comment"), eq(5), any(), any());
+    }
+
+    private static AuditionPost post(final int id, final String title) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(10);
+        post.setTitle(title);
+        post.setBody("body of " + title);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName("name " + id);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body " + id);
+        return comment;
+    }
+}
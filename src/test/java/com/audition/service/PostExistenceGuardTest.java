@@ -0,0 +1,101 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.audition.common.exception.SystemException;
+import com.audition.common.profiling.CacheLookupEvent;
+import com.audition.common.profiling.RecordedEvents;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.Test;
+
+class PostExistenceGuardTest {
+
+    private final transient SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final transient AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private PostExistenceGuard guard(final boolean bloom) {
+        final NegativeCacheProperties properties = new NegativeCacheProperties();
+        properties.setTtl(Duration.ofMinutes(1));
+        properties.setMaxEntries(100);
+        properties.getBloom().setEnabled(bloom);
+        properties.getBloom().setExpectedIds(1000);
+        return new PostExistenceGuard(meterRegistry, properties);
+    }
+
+    private String missing(final int id) {
+        upstreamCalls.incrementAndGet();
+        throw new SystemException("missing " + id, SystemException.NOT_FOUND_ERROR_TITLE, 404);
+    }
+
+    private double hits(final String source) {
+        return meterRegistry.get(PostExistenceGuard.HITS_METRIC).tag(PostExistenceGuard.SOURCE_TAG, source)
+            .counter().count();
+    }
+
+    @Test
+    void shouldAnswerRepeatedMissFromCache() {
+        PostExistenceGuard guard = guard(false);
+
+        assertThatThrownBy(() -> guard.lookup(500, this::missing)).isInstanceOf(SystemException.class);
+        assertThatThrownBy(() -> guard.lookup(500, this::missing))
+            .isInstanceOf(SystemException.class)
+            .extracting("statusCode").isEqualTo(404);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(hits("cache")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRecordLookupEvents() throws Exception {
+        PostExistenceGuard guard = guard(true);
+
+        final List<RecordedEvent> events = RecordedEvents.during(CacheLookupEvent.class, () -> {
+            assertThatThrownBy(() -> guard.lookup(100_000, this::missing)).isInstanceOf(SystemException.class);
+            assertThatThrownBy(() -> guard.lookup(50, this::missing)).isInstanceOf(SystemException.class);
+            assertThatThrownBy(() -> guard.lookup(50, this::missing)).isInstanceOf(SystemException.class);
+        });
+
+        assertThat(events).extracting(event -> event.getString("cache") + "=" + event.getBoolean("hit"))
+            .containsExactly("post-bloom-filter=true", "post-bloom-filter=false", "post-negative-cache=false",
+                "post-bloom-filter=false", "post-negative-cache=true");
+    }
+
+    @Test
+    void shouldNotCacheOtherFailures() {
+        PostExistenceGuard guard = guard(false);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.lookup(1, id -> {
+                upstreamCalls.incrementAndGet();
+                throw new SystemException("down", SystemException.DEFAULT_TITLE, 503);
+            })).isInstanceOf(SystemException.class);
+        }
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldRejectIdsOutsideBloomFilterWithoutUpstreamCall() {
+        PostExistenceGuard guard = guard(true);
+
+        assertThat(guard.<String>lookup(42, id -> "post " + id)).isEqualTo("post 42");
+        assertThatThrownBy(() -> guard.lookup(100_000, this::missing)).isInstanceOf(SystemException.class);
+
+        assertThat(upstreamCalls).hasValue(0);
+        assertThat(hits("bloom")).isEqualTo(1.0);
+    }
+
+    @Test
+    void recordExists_shouldAdmitNewIds() {
+        PostExistenceGuard guard = guard(true);
+
+        guard.recordExists(100_000);
+
+        assertThat(guard.<String>lookup(100_000, id -> "post " + id)).isEqualTo("post 100000");
+    }
+}
@@ -0,0 +1,90 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.persistence.InMemoryAuditionStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+class PostExporterTest {
+
+    private transient InMemoryAuditionStore store;
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient PostExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        store = spy(new InMemoryAuditionStore());
+        meterRegistry = new SimpleMeterRegistry();
+        exporter = new PostExporter(store, new ObjectMapper(), meterRegistry, 2);
+        store.upsertPosts(List.of(post(1), post(2), post(4), post(7), post(9)));
+        store.upsertComments(List.of(comment(10, 2), comment(11, 7), comment(12, 2)));
+    }
+
+    @Test
+    void export_shouldWriteOnePostPerLineWithCommentsAcrossPages() throws IOException {
+        List<String> lines = export(0, Integer.MAX_VALUE);
+
+        assertThat(lines).hasSize(5);
+        assertThat(lines).extracting(line -> JsonPath.<Integer>read(line, "$.id")).containsExactly(1, 2, 4, 7, 9);
+        assertThat(JsonPath.<List<Integer>>read(lines.get(1), "$.comments[*].id")).containsExactly(10, 12);
+        assertThat(JsonPath.<List<Integer>>read(lines.get(0), "$.comments")).isEmpty();
+        verify(store, times(3)).findPostsAfter(ArgumentMatchers.anyInt(), ArgumentMatchers.eq(2));
+        assertThat(meterRegistry.get("audition.export.posts").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void export_shouldResumeAfterIdAndStopAtToId() throws IOException {
+        List<String> lines = export(2, 7);
+
+        assertThat(lines).extracting(line -> JsonPath.<Integer>read(line, "$.id")).containsExactly(4, 7);
+        assertThat(JsonPath.<List<Integer>>read(lines.get(1), "$.comments[*].id")).containsExactly(11);
+    }
+
+    @Test
+    void export_shouldWriteNothingForAnEmptyRange() throws IOException {
+        assertThat(export(9, Integer.MAX_VALUE)).isEmpty();
+        assertThat(export(4, 4)).isEmpty();
+    }
+
+    private List<String> export(final int afterId, final int toId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(afterId, toId, out);
+        String content = out.toString(StandardCharsets.UTF_8);
+        assertThat(content).satisfiesAnyOf(text -> assertThat(text).isEmpty(),
+            text -> assertThat(text).endsWith("\n"));
+        return content.lines().toList();
+    }
+
+    private static AuditionPost post(final int id) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(1);
+        post.setTitle("title " + id);
+        post.setBody("body " + id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName("name " + id);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body " + id);
+        return comment;
+    }
+}
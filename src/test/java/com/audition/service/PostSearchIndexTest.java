@@ -0,0 +1,127 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionPost;
+import com.audition.persistence.InMemoryAuditionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PostSearchIndexTest {
+
+    private transient InMemoryAuditionStore store;
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryAuditionStore();
+        meterRegistry = new SimpleMeterRegistry();
+        index = new PostSearchIndex(store, meterRegistry);
+        store.upsertPosts(List.of(
+            post(1, "qui est esse", "est rerum tempore vitae sequi sint nihil"),
+            post(2, "ea molestias quasi", "et iusto sed quo iure voluptatem occaecati"),
+            post(3, "eum et est occaecati", "ullam et saepe reiciendis voluptatem adipisci"),
+            post(4, "dolorem eum magni", "occaecati occaecati occaecati non")));
+    }
+
+    @Test
+    void tokenize_shouldSplitOnNonAlphanumericsAndLowerCase() {
+        assertThat(PostSearchIndex.tokenize("Hello, World-42!  it's_OK")).containsExactly("hello", "world", "42", "it",
+            "s", "ok");
+        assertThat(PostSearchIndex.tokenize(null)).isEmpty();
+        assertThat(PostSearchIndex.tokenize("a".repeat(100))).containsExactly("a".repeat(64));
+    }
+
+    @Test
+    void search_shouldRankByRelevance() {
+        PostSearchIndex.Hits hits = index.search("occaecati", 0, 10);
+
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.postIds()).containsExactly(4, 3, 2);
+    }
+
+    @Test
+    void search_shouldWeightTitleAboveBody() {
+        assertThat(index.search("est", 0, 10).postIds()).containsExactly(1, 3);
+    }
+
+    @Test
+    void search_shouldAddUpScoresOfEveryTerm() {
+        assertThat(index.search("Voluptatem SAEPE", 0, 10).postIds()).containsExactly(3, 2);
+    }
+
+    @Test
+    void search_shouldPageThroughRankedHits() {
+        PostSearchIndex.Hits second = index.search("occaecati", 1, 1);
+        PostSearchIndex.Hits beyond = index.search("occaecati", 5, 10);
+
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(second.postIds()).containsExactly(3);
+        assertThat(beyond.total()).isEqualTo(3);
+        assertThat(beyond.postIds()).isEmpty();
+    }
+
+    @Test
+    void search_shouldPageConsistentlyWithTheFullRanking() {
+        List<AuditionPost> many = new ArrayList<>();
+        for (int id = 10; id < 60; id++) {
+            many.add(post(id, "lorem" + " x".repeat(id % 7), "lorem " + "ipsum ".repeat(id % 5)));
+        }
+        store.upsertPosts(many);
+        index.onStoreSynced(new StoreSyncedEvent(RecordChanges.NONE, RecordChanges.NONE));
+
+        List<Integer> full = index.search("lorem ipsum", 0, 100).postIds();
+        List<Integer> paged = new ArrayList<>();
+        for (int page = 0; page < 8; page++) {
+            paged.addAll(index.search("lorem ipsum", page * 7, 7).postIds());
+        }
+
+        assertThat(full).hasSize(50).doesNotHaveDuplicates();
+        assertThat(paged).isEqualTo(full);
+    }
+
+    @Test
+    void search_shouldReturnNothingForUnknownTermsOrEmptyStore() {
+        assertThat(index.search("missing", 0, 10).total()).isZero();
+        assertThat(new PostSearchIndex(new InMemoryAuditionStore(), meterRegistry).search("est", 0, 10).postIds())
+            .isEmpty();
+    }
+
+    @Test
+    void onStoreSynced_shouldReindexChangedAndDropDeletedPosts() {
+        index.search("est", 0, 10);
+        store.upsertPosts(List.of(post(2, "est renamed", "nothing"), post(5, "new est", "fresh")));
+        store.deletePosts(List.of(1));
+
+        index.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(5), Set.of(2), Set.of(1)), RecordChanges.NONE));
+
+        assertThat(index.search("est", 0, 10).postIds()).containsExactlyInAnyOrder(2, 3, 5);
+        assertThat(index.search("molestias", 0, 10).total()).isZero();
+        assertThat(index.search("fresh", 0, 10).postIds()).containsExactly(5);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(meterRegistry.get("audition.search.posts").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void onStoreSynced_shouldBuildFromStoreOnFirstEvent() {
+        index.onStoreSynced(new StoreSyncedEvent(
+            new RecordChanges(Set.of(1, 2, 3, 4), Set.of(), Set.of()), RecordChanges.NONE));
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(meterRegistry.get("audition.search.terms").gauge().value()).isPositive();
+    }
+
+    private static AuditionPost post(final int id, final String title, final String body) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(1);
+        post.setTitle(title);
+        post.setBody(body);
+        return post;
+    }
+}
@@ -0,0 +1,101 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.model.UserStats;
+import com.audition.persistence.InMemoryAuditionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserStatsAggregatorTest {
+
+    private transient InMemoryAuditionStore store;
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient UserStatsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryAuditionStore();
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new UserStatsAggregator(store, meterRegistry, 2);
+        store.upsertComments(List.of(comment(1, 1, "a@x.io"), comment(2, 1, "b@x.io"), comment(3, 2, "a@x.io"),
+            comment(4, 2, "c@x.io"), comment(5, 2, "c@x.io"), comment(6, 3, "a@x.io")));
+        store.upsertPosts(List.of(post(1, 10), post(2, 10), post(3, 20)));
+    }
+
+    @Test
+    void find_shouldAggregatePostsCommentsAndTopCommenters() {
+        UserStats stats = aggregator.find(10).orElseThrow();
+
+        assertThat(stats.userId()).isEqualTo(10);
+        assertThat(stats.postCount()).isEqualTo(2);
+        assertThat(stats.commentCount()).isEqualTo(5);
+        assertThat(stats.topCommenters()).containsExactly(new UserStats.Commenter("a@x.io", 2),
+            new UserStats.Commenter("c@x.io", 2));
+        assertThat(aggregator.find(20).orElseThrow().commentCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("audition.user-stats.users").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void find_shouldBeEmptyForUnknownUsersOrEmptyStore() {
+        assertThat(aggregator.find(99)).isEmpty();
+        assertThat(new UserStatsAggregator(new InMemoryAuditionStore(), meterRegistry, 5).find(10)).isEmpty();
+    }
+
+    @Test
+    void onStoreSynced_shouldApplyChangedAndDeletedRecords() {
+        final UserStats untouched = aggregator.find(20).orElseThrow();
+        store.upsertComments(List.of(comment(7, 4, "d@x.io"), comment(2, 2, "c@x.io")));
+        store.deleteComments(List.of(1));
+        store.upsertPosts(List.of(post(4, 10), post(2, 30)));
+
+        aggregator.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(4), Set.of(2), Set.of()),
+            new RecordChanges(Set.of(7), Set.of(2), Set.of(1))));
+
+        UserStats user10 = aggregator.find(10).orElseThrow();
+        assertThat(user10.postCount()).isEqualTo(2);
+        assertThat(user10.commentCount()).isEqualTo(1);
+        assertThat(user10.topCommenters()).containsExactly(new UserStats.Commenter("d@x.io", 1));
+        UserStats user30 = aggregator.find(30).orElseThrow();
+        assertThat(user30.commentCount()).isEqualTo(4);
+        assertThat(user30.topCommenters()).containsExactly(new UserStats.Commenter("c@x.io", 3),
+            new UserStats.Commenter("a@x.io", 1));
+        assertThat(aggregator.find(20)).containsSame(untouched);
+    }
+
+    @Test
+    void onStoreSynced_shouldDropUsersWithoutPosts() {
+        aggregator.find(20);
+        store.deletePosts(List.of(3));
+
+        aggregator.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(), Set.of(), Set.of(3)),
+            RecordChanges.NONE));
+
+        assertThat(aggregator.find(20)).isEmpty();
+        assertThat(aggregator.find(10)).isPresent();
+    }
+
+    private static AuditionPost post(final int id, final int userId) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle("title " + id);
+        post.setBody("body " + id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId, final String email) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName("name " + id);
+        comment.setEmail(email);
+        comment.setBody("body " + id);
+        return comment;
+    }
+}
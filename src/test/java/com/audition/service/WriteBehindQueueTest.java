@@ -0,0 +1,172 @@
+package com.audition.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.audition.common.exception.ServiceOverloadedException;
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindQueueTest {
+
+    private final transient List<String> sent = new ArrayList<>();
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient WriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Disabled, so nothing flushes on a schedule and the tests flush explicitly.
+        queue = new WriteBehindQueue(meterRegistry, false, Duration.ofSeconds(1), 2, 3);
+    }
+
+    @Test
+    void flush_shouldSendLatestWritePerRecordInBatches() {
+        submit("post", 1, () -> sent.add("post 1 v1"));
+        submit("comment", 1, () -> sent.add("comment 1"));
+        submit("post", 1, () -> sent.add("post 1 v2"));
+        submit("post", 2, () -> sent.add("post 2"));
+
+        assertThat(queue.depth()).isEqualTo(3);
+        assertThat(queue.flush()).isEqualTo(2);
+        assertThat(queue.flush()).isEqualTo(1);
+        assertThat(queue.flush()).isZero();
+        assertThat(sent).containsExactly("post 1 v2", "comment 1", "post 2");
+        assertThat(writes("coalesced")).isEqualTo(1);
+        assertThat(writes("flushed")).isEqualTo(3);
+        assertThat(meterRegistry.get("audition.write-behind.flush").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("audition.write-behind.queue-depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void flush_shouldRetryServerFailuresAndDropRejectedWrites() {
+        submit("post", 1, () -> {
+            throw new SystemException("rejected", "Bad Request", 400);
+        });
+        submit("post", 2, () -> {
+            throw new SystemException("unavailable", "Service Unavailable", 503);
+        });
+
+        assertThat(queue.flush()).isZero();
+
+        assertThat(queue.depth()).isEqualTo(1);
+        assertThat(writes("failed")).isEqualTo(1);
+        assertThat(writes("retried")).isEqualTo(1);
+        submit("post", 2, () -> sent.add("post 2 v2"));
+        assertThat(queue.flush()).isEqualTo(1);
+        assertThat(sent).containsExactly("post 2 v2");
+    }
+
+    @Test
+    void flush_shouldHoldTheRestOfTheBatchOnceTheUpstreamFails() {
+        submit("post", 1, () -> {
+            throw new IllegalStateException("connection reset");
+        });
+        submit("post", 2, () -> sent.add("post 2"));
+
+        assertThat(queue.flush()).isZero();
+
+        assertThat(sent).isEmpty();
+        assertThat(queue.depth()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_shouldRetryFailedWritesBeforeRecordsQueuedAfterThem() {
+        final AtomicBoolean upstreamDown = new AtomicBoolean(true);
+        submit("post", 1, () -> {
+            if (upstreamDown.get()) {
+                throw new IllegalStateException("connection reset");
+            }
+            sent.add("post 1");
+        });
+        submit("post", 2, () -> sent.add("post 2"));
+        assertThat(queue.flush()).isZero();
+        submit("post", 3, () -> sent.add("post 3"));
+
+        upstreamDown.set(false);
+        queue.flush();
+
+        assertThat(sent).containsExactly("post 1", "post 2");
+    }
+
+    @Test
+    void submit_shouldRejectNewRecordsWhenFullButStillCoalesce() {
+        submit("post", 1, () -> sent.add("post 1"));
+        submit("post", 2, () -> sent.add("post 2"));
+        submit("post", 3, () -> sent.add("post 3"));
+
+        assertThatThrownBy(() -> submit("post", 4, () -> sent.add("post 4")))
+            .isInstanceOf(ServiceOverloadedException.class);
+        submit("post", 3, () -> sent.add("post 3 v2"));
+        assertThat(queue.depth()).isEqualTo(3);
+    }
+
+    @Test
+    void destroy_shouldFlushWhatIsQueued() {
+        submit("post", 1, () -> sent.add("post 1"));
+        submit("post", 2, () -> sent.add("post 2"));
+        submit("post", 3, () -> sent.add("post 3"));
+
+        queue.destroy();
+
+        assertThat(sent).containsExactly("post 1", "post 2", "post 3");
+    }
+
+    @Test
+    void flush_shouldRevertRejectedWritesToTheStateBeforeTheFirstUnsentOne() {
+        final List<String> local = new ArrayList<>();
+        final Runnable rejected = () -> {
+            throw new SystemException("rejected", "Bad Request", 400);
+        };
+        queue.submit("post", 1, rejected, () -> change(local, "post 1 v0"));
+        queue.submit("post", 1, rejected, () -> change(local, "post 1 v1"));
+        queue.submit("post", 2, () -> sent.add("post 2"), () -> change(local, "post 2 v0"));
+
+        queue.flush();
+
+        assertThat(local).containsExactly("revert post 1 v0", "settled post 1 v0", "settled post 2 v0");
+        assertThat(sent).containsExactly("post 2");
+    }
+
+    @Test
+    void flush_shouldLetANewerWriteTakeOverTheRevertOfARejectedOne() {
+        final List<String> local = new ArrayList<>();
+        final AtomicBoolean firstFlush = new AtomicBoolean(true);
+        queue.submit("post", 1, () -> {
+            if (firstFlush.getAndSet(false)) {
+                // The record is written again while its first write is on the wire.
+                queue.submit("post", 1, () -> sent.add("post 1 v1"), () -> change(local, "post 1 v1"));
+            }
+            throw new SystemException("rejected", "Bad Request", 400);
+        }, () -> change(local, "post 1 v0"));
+
+        queue.flush();
+
+        assertThat(local).isEmpty();
+        assertThat(queue.depth()).isEqualTo(1);
+        queue.flush();
+        assertThat(sent).containsExactly("post 1 v1");
+        assertThat(local).containsExactly("settled post 1 v0");
+    }
+
+    private void submit(final String kind, final int id, final Runnable write) {
+        queue.submit(kind, id, write, () -> new WriteBehindQueue.LocalChange(() -> { }, () -> { }));
+    }
+
+    // Records what the queue does with the local change; the label names the state it reverts to.
+    private static WriteBehindQueue.LocalChange change(final List<String> local, final String label) {
+        return new WriteBehindQueue.LocalChange(() -> local.add("revert " + label),
+            () -> local.add("settled " + label));
+    }
+
+    private double writes(final String outcome) {
+        return meterRegistry.get(WriteBehindQueue.WRITES_METRIC).tag(WriteBehindQueue.OUTCOME_TAG, outcome).counter()
+            .count();
+    }
+}
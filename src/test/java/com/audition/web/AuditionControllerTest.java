@@ -1,34 +1,61 @@
 package com.audition.web;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.audition.AuditionApplication;
+import com.audition.common.exception.StacklessSystemException;
 import com.audition.common.logging.AuditionLogger;
 import com.audition.model.AuditionComment;
 import com.audition.model.AuditionPost;
+import com.audition.model.UserStats;
 import com.audition.service.AuditionService;
+import com.audition.service.AuditionWriteService;
+import com.audition.service.PostSearchPage;
+import com.audition.service.WriteResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest(classes = AuditionApplication.class)
 @AutoConfigureMockMvc
 class AuditionControllerTest {
 
 
+    private static final byte[] EXPORT_LINES = "{\"id\":6}\n{\"id\":7}\n".getBytes(StandardCharsets.UTF_8);
+
     @Autowired
     private transient MockMvc mockMvc;
     @MockBean
     private transient AuditionService auditionService;
+    @MockBean
+    private transient AuditionWriteService auditionWriteService;
 
     @Autowired
     private transient ObjectMapper objectMapper;
@@ -59,6 +86,36 @@ class AuditionControllerTest {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    void getPosts_withExpandComments_shouldReturnPostsWithComments() throws Exception {
+        AuditionPost post = new AuditionPost();
+        post.setComments(List.of(new AuditionComment()));
+        when(auditionService.getPostsWithComments()).thenReturn(List.of(post));
+
+        mockMvc.perform(get("/posts")
+                .param("expand", "comments"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].comments.length()").value(1));
+    }
+
+    @Test
+    void getPosts_withUserIdAndExpandComments_shouldReturnUsersPostsWithComments() throws Exception {
+        when(auditionService.getPostsWithCommentsByUserId(2)).thenReturn(List.of(new AuditionPost()));
+
+        mockMvc.perform(get("/posts")
+                .param("userId", "2")
+                .param("expand", "comments"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getPosts_withUnknownExpand_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/posts")
+                .param("expand", "author"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getPosts_withInvalidUserId_shouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/posts")
@@ -121,4 +178,186 @@ class AuditionControllerTest {
                 .param("postId", "xyz"))
             .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void searchPosts_shouldReturnPageWithTotalCount() throws Exception {
+        when(auditionService.searchPosts("dolor", 1, 5))
+            .thenReturn(new PostSearchPage(7, List.of(new AuditionPost(), new AuditionPost())));
+
+        mockMvc.perform(get("/posts/search")
+                .param("q", "dolor")
+                .param("page", "1")
+                .param("size", "5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string("X-Total-Count", "7"))
+            .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void searchPosts_shouldDefaultToFirstPageOfTen() throws Exception {
+        when(auditionService.searchPosts("dolor", 0, 10)).thenReturn(new PostSearchPage(0, List.of()));
+
+        mockMvc.perform(get("/posts/search")
+                .param("q", "dolor"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "0"));
+    }
+
+    @Test
+    void searchPosts_withBlankQuery_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/posts/search")
+                .param("q", "  "))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchPosts_withOversizedPage_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/posts/search")
+                .param("q", "dolor")
+                .param("size", "101"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUserStats_withValidUserId_shouldReturnStats() throws Exception {
+        when(auditionService.getUserStats(3))
+            .thenReturn(new UserStats(3, 10, 50, List.of(new UserStats.Commenter("a@b.c", 2))));
+
+        mockMvc.perform(get("/users/3/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.postCount").value(10))
+            .andExpect(jsonPath("$.commentCount").value(50))
+            .andExpect(jsonPath("$.topCommenters[0].email").value("a@b.c"))
+            .andExpect(jsonPath("$.topCommenters[0].commentCount").value(2));
+    }
+
+    @Test
+    void getUserStats_withInvalidUserId_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/users/x/stats"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createPost_shouldReturnCreatedWithLocation() throws Exception {
+        AuditionPost created = new AuditionPost();
+        created.setId(101);
+        created.setTitle("title");
+        when(auditionWriteService.createPost(any())).thenReturn(created);
+
+        mockMvc.perform(post("/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"title\":\"title\",\"body\":\"body\"}"))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(HttpHeaders.LOCATION, "/posts/101"))
+            .andExpect(jsonPath("$.id").value(101));
+    }
+
+    @Test
+    void createPost_withoutTitle_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"body\":\"body\"}"))
+            .andExpect(status().isBadRequest());
+        verify(auditionWriteService, never()).createPost(any());
+    }
+
+    @Test
+    void updatePost_shouldReturnAccepted_whenWriteIsDeferred() throws Exception {
+        AuditionPost post = new AuditionPost();
+        post.setId(3);
+        when(auditionWriteService.updatePost(eq(3), any())).thenReturn(new WriteResult<>(post, true));
+
+        mockMvc.perform(put("/posts/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":1,\"title\":\"title\",\"body\":\"body\"}"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").value(3));
+    }
+
+    @Test
+    void patchComment_shouldReturnOk_whenWrittenUpstream() throws Exception {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(8);
+        comment.setName("patched");
+        when(auditionWriteService.patchComment(eq(8), any())).thenReturn(new WriteResult<>(comment, false));
+
+        mockMvc.perform(patch("/comments/8")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"patched\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("patched"));
+    }
+
+    @Test
+    void createComment_withoutPostId_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/comments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"body\":\"body\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deletePost_shouldReturnNoContentOrAccepted() throws Exception {
+        when(auditionWriteService.deletePost(4)).thenReturn(false);
+        when(auditionWriteService.deleteComment(5)).thenReturn(true);
+
+        mockMvc.perform(delete("/posts/4"))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/comments/5"))
+            .andExpect(status().isAccepted());
+        mockMvc.perform(delete("/posts/abc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportPosts_shouldStreamGzippedNdjson_whenClientAcceptsGzip() throws Exception {
+        when(auditionService.exportPosts(5, 9)).thenReturn(out -> out.write(EXPORT_LINES));
+
+        MvcResult started = mockMvc.perform(get("/export")
+                .param("afterId", "5")
+                .param("toId", "9")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(
+            new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(EXPORT_LINES, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void exportPosts_shouldStreamPlainNdjson_withoutAcceptEncoding() throws Exception {
+        when(auditionService.exportPosts(0, Integer.MAX_VALUE)).thenReturn(out -> out.write(EXPORT_LINES));
+
+        MvcResult started = mockMvc.perform(get("/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().bytes(EXPORT_LINES));
+    }
+
+    @Test
+    void exportPosts_withInvalidAfterId_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/export")
+                .param("afterId", "abc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportPosts_shouldReturnServiceUnavailable_whenStoreIsNotLoaded() throws Exception {
+        when(auditionService.exportPosts(0, Integer.MAX_VALUE)).thenThrow(new StacklessSystemException(
+            "Export is available once the local store has loaded.", "Local Store Not Loaded", 503));
+
+        mockMvc.perform(get("/export"))
+            .andExpect(status().isServiceUnavailable());
+    }
 }
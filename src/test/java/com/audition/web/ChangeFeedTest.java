@@ -0,0 +1,305 @@
+package com.audition.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.audition.common.exception.ServiceOverloadedException;
+import com.audition.model.AuditionComment;
+import com.audition.model.AuditionPost;
+import com.audition.persistence.InMemoryAuditionStore;
+import com.audition.service.RecordChanges;
+import com.audition.service.StoreSyncedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ChangeFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+    private static final Duration SEND_TIMEOUT = Duration.ofMillis(300);
+
+    private transient InMemoryAuditionStore store;
+    private transient SimpleMeterRegistry meterRegistry;
+    private transient ChangeFeed feed;
+    private transient MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryAuditionStore();
+        feed = feed(3, 10, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void shouldStreamPostsBeforeTheirCommentsAndCommentDeletionsBeforePostDeletions() throws Exception {
+        store.upsertPosts(List.of(post(2), post(1)));
+        store.upsertComments(List.of(comment(7, 1)));
+        MockHttpServletResponse response = follow(null);
+
+        feed.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(2), Set.of(1), Set.of(3)),
+            new RecordChanges(Set.of(7), Set.of(), Set.of(8))));
+
+        String content = awaitEvents(response, 5);
+        assertThat(eventNames(content)).containsExactly("post.created", "post.updated", "comment.created",
+            "comment.deleted", "post.deleted");
+        assertThat(content).contains("\"recordId\":2", "\"title\":\"title 2\"", "\"postId\":1");
+        assertThat(meterRegistry.get("audition.feed.events").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReplayEventsAfterLastEventId() throws Exception {
+        MockHttpServletResponse first = follow(null);
+        publishPostCreated(1);
+        publishPostCreated(2);
+        String lastSeen = eventIds(awaitEvents(first, 2)).get(0);
+
+        MockHttpServletResponse resumed = follow(lastSeen);
+        publishPostCreated(3);
+
+        String content = awaitEvents(resumed, 2);
+        assertThat(eventNames(content)).doesNotContain(ChangeFeed.RESET_EVENT);
+        assertThat(content).contains("\"recordId\":2", "\"recordId\":3").doesNotContain("\"recordId\":1");
+    }
+
+    @Test
+    void shouldReplayTheWholeRetainedHistoryFromItsOldestBoundary() throws Exception {
+        MockHttpServletResponse first = follow(null);
+        for (int id = 1; id <= 5; id++) {
+            publishPostCreated(id);
+        }
+        String lastSeen = eventIds(awaitEvents(first, 5)).get(1);
+
+        MockHttpServletResponse resumed = follow(lastSeen);
+
+        String content = awaitEvents(resumed, 3);
+        assertThat(eventNames(content)).doesNotContain(ChangeFeed.RESET_EVENT);
+        assertThat(eventIds(content)).containsExactlyElementsOf(eventIds(first.getContentAsString()).subList(2, 5));
+    }
+
+    @Test
+    void shouldSendResetWhenLastEventIdIsNoLongerAvailable() throws Exception {
+        follow(null);
+        for (int id = 1; id <= 5; id++) {
+            publishPostCreated(id);
+        }
+
+        MockHttpServletResponse fromOtherProcess = follow("0-1");
+        assertThat(eventNames(awaitEvents(fromOtherProcess, 1))).containsExactly(ChangeFeed.RESET_EVENT);
+    }
+
+    @Test
+    void shouldSendResetWhenTheReplayWouldExceedTheBuffer() throws Exception {
+        feed.destroy();
+        feed = feed(10, 2, 5);
+        MockHttpServletResponse first = follow(null);
+        for (int id = 1; id <= 4; id++) {
+            publishPostCreated(id);
+            awaitEvents(first, id);
+        }
+        String oldest = eventIds(first.getContentAsString()).get(0);
+
+        MockHttpServletResponse resumed = follow(oldest);
+
+        assertThat(eventNames(awaitEvents(resumed, 1))).containsExactly(ChangeFeed.RESET_EVENT);
+        assertThat(feed.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDisconnectAStalledSubscriberWithoutHoldingUpOthers() throws Exception {
+        feed.destroy();
+        StalledEmitter stalledEmitter = new StalledEmitter();
+        feed = feed(10, 10, 5, stalledEmitter);
+        feed.subscribe(null);
+        MockHttpServletResponse healthy = follow(null);
+
+        publishPostCreated(1);
+        assertThat(stalledEmitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        publishPostCreated(2);
+
+        assertThat(eventNames(awaitEvents(healthy, 2))).containsExactly("post.created", "post.created");
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (feed.subscriberCount() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("audition.feed.stalled").counter().count()).isEqualTo(1);
+        assertThat(stalledEmitter.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldDisconnectSubscribersThatFallTooFarBehind() {
+        feed.destroy();
+        feed = feed(10, 1, 5);
+        feed.subscribe(null);
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+
+        feed.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(1, 2), Set.of(), Set.of()),
+            RecordChanges.NONE));
+
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(meterRegistry.get("audition.feed.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectSubscribersAboveTheLimit() {
+        feed.destroy();
+        feed = feed(10, 10, 1);
+        feed.subscribe(null);
+
+        assertThatThrownBy(() -> feed.subscribe(null)).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.get("audition.feed.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotOvershootTheLimitWithConcurrentSubscribers() throws Exception {
+        feed.destroy();
+        feed = feed(10, 10, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        feed.subscribe(null);
+                    } catch (ServiceOverloadedException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(feed.subscriberCount()).isEqualTo(2);
+        assertThat(rejected).hasValue(6);
+    }
+
+    // The given emitters are handed to the first subscribers, later ones get regular emitters.
+    private ChangeFeed feed(final int history, final int buffer, final int maxSubscribers,
+        final SseEmitter... emitters) {
+        meterRegistry = new SimpleMeterRegistry();
+        Queue<SseEmitter> handOut = new ConcurrentLinkedQueue<>(List.of(emitters));
+        ChangeFeed changeFeed = new ChangeFeed(store, meterRegistry, history, buffer, maxSubscribers,
+            Duration.ofMinutes(1), Duration.ofHours(1), 1, SEND_TIMEOUT) {
+            @Override
+            SseEmitter newEmitter(final long timeoutMillis) {
+                SseEmitter next = handOut.poll();
+                return next == null ? super.newEmitter(timeoutMillis) : next;
+            }
+        };
+        ChangeFeedController controller = new ChangeFeedController();
+        controller.changeFeed = changeFeed;
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        return changeFeed;
+    }
+
+    private MockHttpServletResponse follow(final String lastEventId) throws Exception {
+        MvcResult result = lastEventId == null
+            ? mockMvc.perform(get("/feed")).andExpect(request().asyncStarted()).andReturn()
+            : mockMvc.perform(get("/feed").header(ChangeFeedController.LAST_EVENT_ID_HEADER, lastEventId))
+                .andExpect(request().asyncStarted()).andReturn();
+        return result.getResponse();
+    }
+
+    private void publishPostCreated(final int id) {
+        store.upsertPosts(List.of(post(id)));
+        feed.onStoreSynced(new StoreSyncedEvent(new RecordChanges(Set.of(id), Set.of(), Set.of()),
+            RecordChanges.NONE));
+    }
+
+    // Events are written by a sender thread, one part at a time, so wait until the expected number has fully arrived.
+    private static String awaitEvents(final MockHttpServletResponse response, final int count) throws Exception {
+        final long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while ((eventNames(content).size() < count || !content.endsWith("\n\n"))
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    private static List<String> eventNames(final String content) {
+        return content.lines().filter(line -> line.startsWith("event:")).map(line -> line.substring(6)).toList();
+    }
+
+    private static List<String> eventIds(final String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        return matcher.results().map(match -> match.group(1)).toList();
+    }
+
+    /**
+     * A client that stopped reading: every send blocks until the sending thread is interrupted.
+     */
+    private static final class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(final SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new InterruptedIOException("send interrupted");
+            }
+        }
+    }
+
+    private static AuditionPost post(final int id) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(10);
+        post.setTitle("title " + id);
+        post.setBody("body " + id);
+        return post;
+    }
+
+    private static AuditionComment comment(final int id, final int postId) {
+        AuditionComment comment = new AuditionComment();
+        comment.setId(id);
+        comment.setPostId(postId);
+        comment.setName("name " + id);
+        comment.setEmail("user" + id + "@example.com");
+        comment.setBody("body " + id);
+        return comment;
+    }
+}
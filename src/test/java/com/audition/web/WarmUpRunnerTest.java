@@ -0,0 +1,113 @@
+package com.audition.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.audition.common.exception.StacklessSystemException;
+import com.audition.common.exception.SystemException;
+import com.audition.configuration.WebServiceConfiguration;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+
+    @Mock
+    private transient AuditionController controller;
+
+    @Mock
+    private transient AuditionStore store;
+
+    @Mock
+    private transient AuditionIntegrationClient client;
+
+    private final transient SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private WarmUpRunner runner(final boolean enabled, final int iterations) {
+        return new WarmUpRunner(controller, store, client, new WebServiceConfiguration().objectMapper(),
+            meterRegistry, enabled, iterations, Duration.ofSeconds(30), true);
+    }
+
+    @Test
+    void run_shouldCallEveryEndpointForTheConfiguredRounds() {
+        when(store.isPopulated()).thenReturn(true);
+        when(store.findPosts()).thenReturn(List.of(post(7, 3)));
+        lenient().when(controller.getPostsById("warm-up")).thenThrow(
+            new StacklessSystemException("invalid", SystemException.BAD_REQUEST_ERROR_TITLE, 400));
+        when(controller.searchPosts("title", null, null)).thenReturn(ResponseEntity.ok(List.of()));
+
+        runner(true, 3).run(null);
+
+        verify(controller, times(3)).getPosts(null, null);
+        verify(controller, times(3)).getPosts("3", null);
+        verify(controller, times(3)).getPosts("3", "comments");
+        verify(controller, times(3)).getPostsById("7");
+        verify(controller, times(3)).getPostWithCommentsByPostId("7");
+        verify(controller, times(3)).getCommentsByPostId("7");
+        verify(controller, times(3)).getPostsById("warm-up");
+        verify(controller, times(3)).searchPosts("title", null, null);
+        verify(controller, times(3)).getUserStats("3");
+        // With data to serve, readiness does not wait for the upstream.
+        verifyNoInteractions(client);
+        assertThat(meterRegistry.get("audition.warm-up.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void run_shouldSkipControllerCallsWhileTheStoreIsEmpty() {
+        when(store.isPopulated()).thenReturn(false);
+
+        runner(true, 3).run(null);
+
+        verifyNoInteractions(controller);
+        verify(client).getPostsPage(0, 1);
+    }
+
+    @Test
+    void run_shouldFinishWhenTheUpstreamIsDown() {
+        when(store.isPopulated()).thenReturn(false);
+        when(client.getPostsPage(anyInt(), anyInt()))
+            .thenThrow(new SystemException("down", SystemException.DEFAULT_TITLE, 503));
+
+        runner(true, 3).run(null);
+
+        assertThat(meterRegistry.get("audition.warm-up.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void exerciseController_shouldStopAtTheDeadline() {
+        int rounds = runner(true, 1000).exerciseController(List.of(post(1, 1)), System.nanoTime());
+
+        assertThat(rounds).isZero();
+        verifyNoInteractions(controller);
+    }
+
+    @Test
+    void run_shouldDoNothingWhenDisabled() {
+        runner(false, 3).run(null);
+
+        verifyNoInteractions(controller, store, client);
+    }
+
+    private static AuditionPost post(final int id, final int userId) {
+        AuditionPost post = new AuditionPost();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setTitle("title");
+        post.setBody("body");
+        return post;
+    }
+}
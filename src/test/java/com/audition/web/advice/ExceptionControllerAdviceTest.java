@@ -6,12 +6,18 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.METHOD_NOT_ALLOWED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 
+import com.audition.common.exception.RateLimitExceededException;
+import com.audition.common.exception.ServiceOverloadedException;
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.client.HttpClientErrorException;
@@ -93,4 +99,27 @@ class ExceptionControllerAdviceTest {
         // Should return the DEFAULT_MESSAGE defined in the class
         assertEquals("API Error occurred. Please contact support or administrator.", result.getDetail());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleServiceOverloadedExceptionSetsRetryAfter() {
+        ServiceOverloadedException exception = new ServiceOverloadedException("Too busy", 3);
+
+        ResponseEntity<ProblemDetail> result = advice.handleServiceOverloadedException(exception);
+
+        assertEquals(SERVICE_UNAVAILABLE.value(), result.getStatusCode().value());
+        assertEquals("3", result.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(ServiceOverloadedException.SERVICE_OVERLOADED_TITLE, result.getBody().getTitle());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void testHandleRateLimitExceededExceptionSetsRetryAfter() {
+        RateLimitExceededException exception = new RateLimitExceededException("Slow down", 2);
+
+        ResponseEntity<ProblemDetail> result = advice.handleRateLimitExceededException(exception);
+
+        assertEquals(TOO_MANY_REQUESTS.value(), result.getStatusCode().value());
+        assertEquals("2", result.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(RateLimitExceededException.RATE_LIMITED_TITLE, result.getBody().getTitle());
+    }
+}
@@ -0,0 +1,66 @@
+package com.audition.web.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.audition.common.profiling.RecordedEvents;
+import com.audition.common.profiling.RequestEvent;
+import com.audition.web.AuditionController;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+class RequestEventInterceptorTest {
+
+    private final transient RequestEventInterceptor interceptor = new RequestEventInterceptor();
+
+    @Test
+    void shouldRecordHandledRequest() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/posts/{id}");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+        final HandlerMethod handler = handler();
+
+        final List<RecordedEvent> events = RecordedEvents.during(RequestEvent.class, () -> {
+            interceptor.preHandle(request, response, handler);
+            interceptor.afterCompletion(request, response, handler, new IllegalStateException());
+        });
+
+        assertThat(events).hasSize(1);
+        final RecordedEvent event = events.get(0);
+        assertThat(event.getString("method")).isEqualTo("GET");
+        assertThat(event.getString("handler")).isEqualTo("AuditionController.getPostsById");
+        assertThat(event.getString("uriPattern")).isEqualTo("/posts/{id}");
+        assertThat(event.getInt("status")).isEqualTo(404);
+        assertThat(event.getString("exception")).isEqualTo(IllegalStateException.class.getName());
+        assertThat(request.getAttribute(RequestEventInterceptor.EVENT_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void shouldRecordAsyncRequestOnce_fromFirstDispatchToCompletion() throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts/export");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final HandlerMethod handler = handler();
+
+        final List<RecordedEvent> events = RecordedEvents.during(RequestEvent.class, () -> {
+            interceptor.preHandle(request, response, handler);
+            interceptor.afterConcurrentHandlingStarted(request, response, handler);
+            final Object started = request.getAttribute(RequestEventInterceptor.EVENT_ATTRIBUTE);
+            interceptor.preHandle(request, response, handler);
+            assertThat(request.getAttribute(RequestEventInterceptor.EVENT_ATTRIBUTE)).isSameAs(started);
+            interceptor.afterCompletion(request, response, handler, null);
+        });
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getInt("status")).isEqualTo(200);
+    }
+
+    private static HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(new AuditionController(),
+            AuditionController.class.getMethod("getPostsById", String.class));
+    }
+}